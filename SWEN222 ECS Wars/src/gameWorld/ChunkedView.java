@@ -0,0 +1,80 @@
+package gameWorld;
+
+import gameWorld.gameObjects.Item;
+
+/**
+ * A room's contents as seen from one view direction, split into square
+ * chunks of squares. Each chunk keeps its squares together in one array,
+ * so drawing can skip every chunk which is off screen without looking at
+ * any of its squares, however large the room is.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class ChunkedView {
+	public static final int CHUNK_SIZE = 16; // squares along each side of a chunk
+
+	private final int cols;
+	private final int rows;
+	private final int chunkCols;
+	private final int chunkRows;
+	private final Item[][] chunks; // by cy*chunkCols + cx, each holding its squares row by row
+
+	/**
+	 * Splits a view of a room into chunks.
+	 * @param view The room's contents as seen from one direction, by [col][row]
+	 */
+	public ChunkedView(Item[][] view){
+		cols = view.length;
+		rows = cols == 0 ? 0 : view[0].length;
+		chunkCols = (cols + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		chunkRows = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		chunks = new Item[chunkCols*chunkRows][CHUNK_SIZE*CHUNK_SIZE];
+		for (int col = 0; col < cols; col++){
+			for (int row = 0; row < rows; row++){
+				set(col, row, view[col][row]);
+			}
+		}
+	}
+
+	/**
+	 * Gets the item in a square.
+	 * @param col The column, as seen from this view
+	 * @param row The row, as seen from this view
+	 * @return The item in the square
+	 */
+	public Item get(int col, int row){
+		return chunks[(row / CHUNK_SIZE)*chunkCols + col / CHUNK_SIZE]
+				[(row % CHUNK_SIZE)*CHUNK_SIZE + col % CHUNK_SIZE];
+	}
+
+	/**
+	 * Replaces the item in a square.
+	 * @param col The column, as seen from this view
+	 * @param row The row, as seen from this view
+	 * @param item The new item
+	 */
+	public void set(int col, int row, Item item){
+		chunks[(row / CHUNK_SIZE)*chunkCols + col / CHUNK_SIZE]
+				[(row % CHUNK_SIZE)*CHUNK_SIZE + col % CHUNK_SIZE] = item;
+	}
+
+	/**
+	 * Gets the squares of one chunk, row by row. Squares past the edge of
+	 * the room are null.
+	 * @param cx The chunk's column
+	 * @param cy The chunk's row
+	 * @return The chunk's squares
+	 */
+	public Item[] getChunk(int cx, int cy){
+		return chunks[cy*chunkCols + cx];
+	}
+
+	public int getCols(){return cols;}
+
+	public int getRows(){return rows;}
+
+	public int getChunkCols(){return chunkCols;}
+
+	public int getChunkRows(){return chunkRows;}
+}
@@ -7,9 +7,9 @@ import gameWorld.characters.nonplayer.strategy.ChaseCombatStrategy;
 import gameWorld.characters.nonplayer.strategy.NonPlayerStrategy;
 import gameWorld.characters.nonplayer.strategy.RespawnStrategy;
 import gameWorld.characters.nonplayer.strategy.WanderingMerchantStrategy;
+import gameWorld.TickProfiler.Phase;
 import gameWorld.gameEvents.DayNightEvent;
 import gameWorld.gameEvents.GameClock;
-import gameWorld.gameEvents.SlowUpdateEvent;
 import gameWorld.gameObjects.*;
 import gameWorld.gameObjects.containers.Container;
 import gameWorld.gameObjects.containers.Pouch;
@@ -18,12 +18,10 @@ import gameWorld.gameObjects.weapons.PaintballGun;
 import gameWorld.gameObjects.weapons.Pistol;
 import gameWorld.gameObjects.weapons.ScatterGun;
 import gameWorld.gameObjects.weapons.Weapon;
-import gui.GUICanvas;
 import gui.GUIFrame;
 import main.SoundManager;
 import network.ClientConnection;
 
-import java.awt.Image;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
@@ -32,8 +30,14 @@ import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Random;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Main controller for ECS Wars
@@ -50,7 +54,12 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	
 	public static final double FRAME_RATE = 1.0/60;	//a 60th of a second
 	public static final int DAY_LENGTH = 40;
+	public static final int HASH_HISTORY = 128; // ticks of world hashes kept for desync checks
+	// shared by every game, since rooms are only updated in parallel during a tick
+	private static final ForkJoinPool ROOM_POOL = new ForkJoinPool();
+	private static final int FRESH = 4; // set on the published frame until the renderer takes it
 	protected boolean isRunning = false;
+	protected double tickLength = FRAME_RATE; // seconds per update, 0 to run unthrottled
 	
 	protected int uid;
 	
@@ -58,13 +67,22 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	protected List<Player> players;
 	protected GameClock clock;
 	protected int lastClockTime;
+	protected TickProfiler profiler = new TickProfiler();
+	protected long seed;
+	protected Random random; // the only source of randomness outside of rooms
 
 	protected ClientConnection client;
 	
 	protected ArrayList<Room> rooms;
+	protected RoomRegistry roomRegistry = new RoomRegistry();
+	protected RoomGraph roomGraph; // how the rooms connect, for characters finding their way
+	protected RoomScheduler scheduler;
 	protected Set<Door> doors;
 	protected List<ItemSpawner> itemSpawners;
 	protected List<Item> itemsToSpawn;
+	private Queue<Item> itemsToRespawn = new ConcurrentLinkedQueue<>();
+	private MutationQueue mutations = new MutationQueue(); // changes from other threads
+	private RoomImageCache imageCache = new RoomImageCache(); // images of the rooms being drawn
 	protected List<CharacterSpawner> charSpawners = new ArrayList<>();
 	
 	protected double nightAlpha = 0;
@@ -77,6 +95,16 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 												//mouseLocation[1] is y
 	protected int mouseX = 0;
 	protected int mouseY = 0;
+	
+	// three snapshots taken in turn: one being captured, one published, and one being drawn
+	private final FrameSnapshot[] frames = {new FrameSnapshot(), new FrameSnapshot(), new FrameSnapshot()};
+	private final AtomicInteger latest = new AtomicInteger(0); // the published frame, with FRESH set until it is taken
+	private int back = 1; // the frame the game thread captures into next
+	private int front = 2; // the frame being drawn, only used by the renderer
+	private FrameSnapshot lastFrame; // the last frame captured, for interpolating from
+	private boolean parallelRooms = Boolean.getBoolean("ecs.parallel");
+	private boolean deterministic = Boolean.getBoolean("ecs.lockstep");
+	private long[] worldHashes = new long[HASH_HISTORY];
 		
 	/**
 	 * Controller constructor for a singeplayer game
@@ -90,6 +118,8 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 		players = new ArrayList<Player>();
 		nightAlpha = 0;
 		nightAlphaMod = (1.0f/DAY_LENGTH);
+		clock = new GameClock();
+		setSeed(Long.getLong("ecs.seed", System.nanoTime()));
 		
 		this.uid = uid;
 	}
@@ -99,6 +129,8 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	 */
 	public void initialise() {
 		setupRooms();
+		roomGraph = new RoomGraph(roomRegistry.getRooms(), doors);
+		scheduler = new RoomScheduler(rooms, doors, clock);
 		loadItemsToSpawn();
 		setupSpawnItems();
 		spawnPlayers();
@@ -108,7 +140,7 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	 * Distributes players over the game world.
 	 */
 	protected void spawnPlayers(){
-		Collections.shuffle(charSpawners);
+		Collections.shuffle(charSpawners, random);
 		int i;
 		for(i=0; i<players.size(); i++){
 			if(i >= charSpawners.size()){break;}
@@ -124,7 +156,7 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 		//Fill the remaining spawns with random npcs
 		for (int j = i; j < charSpawners.size(); j++){
 			CharacterSpawner spawner = charSpawners.get(j);
-			double roll = Math.random();
+			double roll = random.nextDouble();
 			Room room = spawner.getRoom();
 			int x = spawner.getX();
 			int y = spawner.getY();
@@ -133,7 +165,7 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 			
 			if (roll-0.05 < 0){npc = new GhostNPC(room, x, y);}
 			else {
-				npc = new NonPlayer(room, x, y, new WanderingMerchantStrategy());
+				npc = new NonPlayer(room, x, y, new WanderingMerchantStrategy(room.getRandom()));
 				npc.setStrategy(NonPlayer.Events.COMBAT, new ChaseCombatStrategy(100));
 				npc.setStrategy(NonPlayer.Events.DEATH, new RespawnStrategy(5000));
 			}
@@ -146,8 +178,8 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 		Room server = this.getRoom("Server Room");
 		if (server != null){
 			for (int k = 0; k < 1; k++){
-				int x = (int)(Math.random() * 24+1);
-				int y = (int)(Math.random() * 10+1);
+				int x = random.nextInt(24)+1;
+				int y = random.nextInt(10)+1;
 				
 				server.addNPC(new GhostNPC(server, x*24, y*24));
 			}
@@ -164,15 +196,15 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	 */
 	private void setupSpawnItems() {
 		// shuffle spawn item lists
-		Collections.shuffle(itemSpawners);
-		Collections.shuffle(itemsToSpawn);
+		Collections.shuffle(itemSpawners, random);
+		Collections.shuffle(itemsToSpawn, random);
 		// while there is an item left, add item to container
 		for(Item item : itemsToSpawn){
-			Collections.shuffle(itemSpawners);
+			Collections.shuffle(itemSpawners, random);
 			ItemSpawner holder = itemSpawners.get(0);
 			while ((item instanceof Weapon && !(holder instanceof Floor))
 					|| holder.remainingCapacity() <= 0){
-				Collections.shuffle(itemSpawners);
+				Collections.shuffle(itemSpawners, random);
 				holder = itemSpawners.get(0);
 			}
 			holder.addSpawnItem(item);
@@ -199,7 +231,7 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 								itemSpawners.add((ItemSpawner) toAdd);
 							} break;
 				case "Map" : toAdd = new Map(); break;
-				case "Treasure" : toAdd = new SmallTreasure(); break;
+				case "Treasure" : toAdd = new SmallTreasure(random); break;
 				case "Paintball Gun" : toAdd = new PaintballGun(); break;
 				case "Scatter Gun" : toAdd = new ScatterGun(); break;
 				case "LTSA Gun" : toAdd = new LTSAGun(); break;
@@ -228,7 +260,9 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 			String roomName;
 			while (s.hasNextLine()){
 				roomName = s.nextLine();
-				rooms.add(new Room(roomName, this));
+				Room room = new Room(roomName, this);
+				roomRegistry.register(room);
+				rooms.add(room);
 			}
 			s.close();
 		} catch (NullPointerException e) {
@@ -240,25 +274,25 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	 * Starts the main game thread
 	 */
 	public void startGame(){
-		SoundManager.playRandom(SoundManager.BATTLE_SONGS);
+		if (!isHeadless()){
+			SoundManager.playRandom(SoundManager.BATTLE_SONGS);
+		}
 		
-		this.start();
+		//Start the day and night cycle, before the game thread starts using the clock
+		clock.scheduleEvent(new DayNightEvent(this, DAY_LENGTH));
 
-		//Start the day and night cycle
-		GameClock.getInstance().scheduleEvent(new DayNightEvent(this, DAY_LENGTH));
-		GameClock.getInstance().scheduleEvent(new SlowUpdateEvent(this, 1));
+		this.start();
+		profiler.dumpOnExit();
 	}
 	
 	/**
 	 * Main game loop
-	 * Should update the game every frameRate seconds
+	 * Should update the game every tickLength seconds
 	 * If it's time to update the logic:
 	 * 		update logic
-	 * 		check if it's time to redraw
+	 * 		publish a snapshot for the renderer
 	 * 
 	 * Otherwise wait till it's time to update
-	 * 
-	 * @param frameRate seconds per frame
 	 */
 	public void run() {
 
@@ -268,16 +302,10 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 			//convert time to seconds
 			double currentTime = (double)System.nanoTime()/1000000000.0;
 			
-			if(currentTime >= nextTime){
+			if(currentTime >= nextTime || tickLength <= 0){
 				//assign time for the next update
-				nextTime += FRAME_RATE;
-				update();
-				// check if game is over
-				if(checkForWinner() != null && !gui.getCanvas().isWinnerView()){
-					gui.getCanvas().setWinnerView(true);
-					isRunning = false;
-				}
-				if(currentTime < nextTime) gui.draw();
+				nextTime += tickLength;
+				step();
 			}
 			else{
 				// calculate the time to sleep
@@ -295,6 +323,102 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 		}		
 	}
 
+	/**
+	 * Runs a single tick of the game: updates the world, advances the
+	 * game clock, checks whether the game is over and publishes the
+	 * result for drawing.
+	 */
+	protected void step(){
+		long tickStart = profiler.start();
+		mutations.drain();
+		update();
+		spawnQueuedItems();
+		clock.advance();
+		if (deterministic){
+			worldHashes[(int)(clock.getTick() % HASH_HISTORY)] = worldHash();
+		}
+		// check if game is over
+		long start = profiler.start();
+		Player winner = checkForWinner();
+		profiler.stop(Phase.WINNER, start);
+		if(winner != null){
+			if (isHeadless()){
+				isRunning = false;
+			} else if (!gui.getCanvas().isWinnerView()){
+				gui.getCanvas().setWinnerView(true);
+				isRunning = false;
+			}
+		}
+		publishFrame();
+		profiler.stop(Phase.TICK, tickStart);
+	}
+
+	/**
+	 * Queues a change to the game world to be made by the game loop at
+	 * the start of the next tick. Input handlers, menus and the network
+	 * must change the world through here, never directly.
+	 * @param mutation The change to make
+	 */
+	public void submit(Runnable mutation){
+		mutations.submit(mutation);
+	}
+
+	/**
+	 * Publishes a snapshot of the current player's room for the renderer.
+	 * The canvas redraws on its own thread, so this never waits for a paint.
+	 */
+	protected void publishFrame(){
+		if (isHeadless() || players.isEmpty()){return;}
+		Player player = getCurrentPlayer();
+		if (player.getCurrentRoom() == null){return;}
+		FrameSnapshot frame = frames[back];
+		frame.capture(player, clock.getTick(), lastFrame);
+		lastFrame = frame;
+		back = latest.getAndSet(back | FRESH) & ~FRESH;
+	}
+
+	/**
+	 * Hashes the state of every room, in room order.
+	 * Two games which have simulated identically have the same hash.
+	 * @return A hash of the current world state
+	 */
+	public long worldHash(){
+		long hash = seed ^ clock.getTick();
+		for (int i = 0; i < rooms.size(); i++){
+			hash = hash*31 + rooms.get(i).stateHash();
+		}
+		return hash;
+	}
+
+	/**
+	 * Gets the world hash recorded at the end of a recent tick, for
+	 * comparing with another client. Hashes are only recorded in
+	 * deterministic mode.
+	 * @param tick The tick to get the hash for
+	 * @return The hash, or 0 if it has not been recorded
+	 */
+	public long getWorldHash(long tick){
+		long current = clock.getTick();
+		if (!deterministic || tick > current || tick <= current-HASH_HISTORY || tick <= 0){
+			return 0;
+		}
+		return worldHashes[(int)(tick % HASH_HISTORY)];
+	}
+
+	/**
+	 * Gets the most recently published snapshot of the game, for the
+	 * renderer. The snapshot is left alone until the next call, when it
+	 * may be handed back to the game thread to be refilled.
+	 * @return The latest frame, or null if no tick has run yet
+	 */
+	public synchronized FrameSnapshot getFrame(){
+		if ((latest.get() & FRESH) != 0){
+			front = latest.getAndSet(front) & ~FRESH;
+		}
+		FrameSnapshot frame = frames[front];
+		return frame.getRoom() == null ? null : frame;
+	}
+
 	/**
 	 * Decides what to do when a player uses right click
 	 * @param x
@@ -302,6 +426,7 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	 * @param player
 	 */
 	public void rightClickInteract(int x, int y, Player player) {
+		if (isHeadless()){return;} // clicks are relative to the canvas
 		int viewScale = gui.getCanvas().getViewScale();
 		int viewDirection = gui.getCanvas().getViewDirection();
 		Container container = gui.getCanvas().getCurrentContainer();
@@ -365,17 +490,28 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	}
 
 	/**
-	 * Spawns a given item at a random item spawn location
+	 * Spawns a given item at a random item spawn location at the end
+	 * of the current tick. Safe to call from any thread.
 	 * @param itemToSpawn
 	 */
 	public void reSpawnItem(Item itemToSpawn){
-		Collections.shuffle(itemSpawners);
-		ItemSpawner holder = itemSpawners.get(0);
-		while (holder instanceof Pouch || holder.remainingCapacity() <= 0){
-			Collections.shuffle(itemSpawners);
-			holder = itemSpawners.get(0);
+		itemsToRespawn.add(itemToSpawn);
+	}
+
+	/**
+	 * Places every item waiting to be respawned.
+	 */
+	private void spawnQueuedItems(){
+		Item itemToSpawn;
+		while ((itemToSpawn = itemsToRespawn.poll()) != null){
+			Collections.shuffle(itemSpawners, random);
+			ItemSpawner holder = itemSpawners.get(0);
+			while (holder instanceof Pouch || holder.remainingCapacity() <= 0){
+				Collections.shuffle(itemSpawners, random);
+				holder = itemSpawners.get(0);
+			}
+			holder.addSpawnItem(itemToSpawn);
 		}
-		holder.addSpawnItem(itemToSpawn);
 	}
 
 	/**
@@ -388,11 +524,43 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 		//Hook to run on game tick
 	}
 
+	/**
+	 * Updates every room due this tick: rooms with players every tick,
+	 * and dormant rooms less often.
+	 */
+	protected void updateScheduledRooms() {
+		updateRooms(scheduler.schedule(clock.getTick()+1));
+	}
+
+	/**
+	 * Updates the given rooms for this tick, in parallel if enabled.
+	 * Anything which moves between rooms, such as a character walking
+	 * through a door, is applied afterwards in room order, so the result
+	 * is the same either way.
+	 * @param active The rooms to update
+	 */
+	protected void updateRooms(List<Room> active) {
+		if (parallelRooms && active.size() > 1){
+			ROOM_POOL.invoke(new RoomUpdate(active, 0, active.size()));
+		} else {
+			for (int i = 0; i < active.size(); i++){
+				active.get(i).simulate();
+			}
+		}
+		
+		for (int i = 0; i < active.size(); i++){
+			active.get(i).applyTransfers();
+		}
+		// doors locked or unlocked this tick change routes from the next
+		roomGraph.refresh();
+	}
+
 	/**
 	 * Checks the mouse position to see if it is hovering over an item which
 	 * should display a tooltip.
 	 */
 	protected void checkTooltip(Player player) {
+		if (isHeadless()){return;} // no tooltips to show
 		int viewScale = gui.getCanvas().getViewScale();
 		int viewDirection = gui.getCanvas().getViewDirection();
 		int x = mouseX;
@@ -469,89 +637,10 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	 * @param scale The scale (1 or 2) to update the game to.
 	 */
 	public void scaleEverything(int scale) {
-		GUICanvas c = gui.getCanvas();
-		c.scaleUI();
-		Image image;
-		for (Room r : rooms){
-			Image[][] images = r.getImages();
-			Image[][] scaled = new Image[4][2];
-			for (int i = 0; i < 4; i++){
-				for (int j = 0; j < 2; j++){
-					scaled[i][j] = scaleImage(images[i][j], c, scale);
-				}
-			}
-			r.setScaledImages(scaled);
-			
-			// scale items
-			Item item;
-			Item[][] contents = r.getContents();
-			for (int i = 0; i < contents.length; i++){
-				for (int j = 0; j < contents[0].length; j++){
-					item = contents[i][j];
-					for (int v = 0; v < 4; v++){
-						image = item.getImage(v);
-						if (image != null){
-							contents[i][j].setScaledImage(v, scaleImage(image, c, scale));
-						}
-					}
-					if (item instanceof Container){
-						for (Item contentsItem : ((Container)item).getContents()){
-							if (contentsItem != null){
-								image = contentsItem.getImage(0);
-								contentsItem.setScaledImage(0, scaleImage(image, c, scale));
-								image = contentsItem.getImage(1);
-								contentsItem.setScaledImage(1, scaleImage(image, c, scale));
-							}
-						}
-					}
-				}
-			}
-			
-			// scale players
-			for (Player p : r.getAllCharacters()){
-				// scale weapon image
-				Weapon weapon = p.getWeapon();
-				Image weaponImage = weapon.getImage(0);
-				weapon.setScaledImage(0, scaleImage(weaponImage, c, scale));
-				images = p.getImages();
-				scaled = new Image[4][3];
-				for (int i = 0; i < 4; i++){
-					for (int j = 0; j < 3; j++){
-						scaled[i][j] = scaleImage(images[i][j], c, scale);
-					}
-				}
-				p.setScaledImages(scaled);
-				for (Item i : p.getInventory()){
-					if (i != null){
-						image = i.getImage(0);
-						i.setScaledImage(0, scaleImage(image, c, scale));
-						image = i.getImage(1);
-						i.setScaledImage(1, scaleImage(image, c, scale));
-						if (i instanceof Container){
-							for (Item contentsItem : ((Container)i).getContents()){
-								if (contentsItem != null){
-									image = contentsItem.getImage(0);
-									contentsItem.setScaledImage(0, scaleImage(image, c, scale));
-									image = contentsItem.getImage(1);
-									contentsItem.setScaledImage(1, scaleImage(image, c, scale));
-								}
-							}
-						}
-					}
-				}
-			}
-		}
-	}
-	
-	/**
-	 * Resizes an image based on the given scale.
-	 * @param image The image to resize
-	 * @param c The canvas the image will be drawn on
-	 * @param scale The scale (1 or 2) to resize by
-	 * @return The resized image
-	 */
-	public Image scaleImage(Image image, GUICanvas c, int scale){
-		return image.getScaledInstance(image.getWidth(c)*scale, image.getHeight(c)*scale, Image.SCALE_FAST);
+		SpriteAtlas.setScale(scale); // every sprite already has a copy at each scale
+		if (isHeadless()){return;} // nothing is drawn
+		gui.getCanvas().scaleUI();
+		imageCache.setScale(scale); // rooms are scaled when next drawn
 	}
 
 	public boolean isShooting(){
@@ -566,14 +655,22 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 		return doors;
 	}
 	
+	/**
+	 * Gets a room by its name.
+	 * @param roomName The name of the room
+	 * @return The room, or null if there is no room with that name
+	 */
 	public Room getRoom(String roomName) {
-		for(Room r: rooms){
-			if(r.getName().equals(roomName)){
-				return r;
-			}
-		}
-		
-		return null;
+		return roomRegistry.get(roomName);
+	}
+	
+	/**
+	 * Gets a room by its id.
+	 * @param id The id of the room
+	 * @return The room, or null if there is no room with that id
+	 */
+	public Room getRoom(int id) {
+		return roomRegistry.get(id);
 	}
 	
 	public List<Player> getPlayers() {
@@ -600,12 +697,78 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	
 	/**
 	 * Returns the GUIFrame this game is using.
-	 * @return The current GUIFrame
+	 * @return The current GUIFrame, or null if the game is headless
 	 */
 	public GUIFrame getGUI(){
 		return gui;
 	}
 	
+	/**
+	 * Determines whether this game is running without a window,
+	 * for example on a dedicated server.
+	 * @return true iff there is no GUIFrame to draw to
+	 */
+	public boolean isHeadless(){
+		return gui == null;
+	}
+	
+	/**
+	 * Gets the number of updates this game has run.
+	 * @return The current tick
+	 */
+	public long getTick(){
+		return clock.getTick();
+	}
+	
+	/**
+	 * Gets the graph of how the rooms connect.
+	 * @return The room graph, or null before the rooms are set up
+	 */
+	public RoomGraph getRoomGraph(){
+		return roomGraph;
+	}
+	
+	/**
+	 * Gets the cache holding the images of the rooms being drawn.
+	 * @return The room image cache
+	 */
+	public RoomImageCache getImageCache(){
+		return imageCache;
+	}
+	
+	/**
+	 * Gets the profiler which times this game's ticks and frames.
+	 * @return The game's profiler
+	 */
+	public TickProfiler getProfiler(){
+		return profiler;
+	}
+	
+	/**
+	 * Gets the clock which times this game's events.
+	 * @return The game clock
+	 */
+	public GameClock getClock(){
+		return clock;
+	}
+	
+	/**
+	 * Sets how often the game loop updates the world.
+	 * @param ticksPerSecond The number of updates per second,
+	 * or 0 to update as fast as possible
+	 */
+	public void setTickRate(int ticksPerSecond){
+		tickLength = ticksPerSecond <= 0 ? 0 : 1.0/ticksPerSecond;
+	}
+	
+	/**
+	 * @return The length of one update in seconds, or 0 if the game
+	 * loop updates as fast as possible
+	 */
+	public double getTickLength(){
+		return tickLength;
+	}
+	
 	public BitSet getKeysPressed(){
 		return keyBits;
 	}
@@ -627,7 +790,7 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	}
 
 	public CharacterSpawner getSpawner() {
-		Collections.shuffle(charSpawners);
+		Collections.shuffle(charSpawners, random);
 		return charSpawners.get(0);
 	}
 	
@@ -662,5 +825,72 @@ public abstract class Controller extends Thread implements KeyListener, MouseLis
 	public void setRunning(boolean running){
 		isRunning = running;
 	}
+	
+	/**
+	 * Sets the seed all of this game's randomness comes from.
+	 * Must be called before the game is initialised, so every client
+	 * given the same seed builds the same world.
+	 * @param seed The seed to use
+	 */
+	public void setSeed(long seed){
+		this.seed = seed;
+		this.random = new Random(seed);
+	}
+
+	public long getSeed(){
+		return seed;
+	}
+
+	/**
+	 * Gets the random number generator for game-wide decisions.
+	 * Only use this from the game thread between room updates;
+	 * rooms have their own generators.
+	 * @return The game's random number generator
+	 */
+	public Random getRandom(){
+		return random;
+	}
+
+	/**
+	 * Sets whether the world is hashed every tick for desync checks.
+	 * @param deterministic true to record a world hash every tick
+	 */
+	public void setDeterministic(boolean deterministic){
+		this.deterministic = deterministic;
+	}
+
+	/**
+	 * Sets whether rooms are updated in parallel each tick.
+	 * @param parallel true to update rooms on the shared fork/join pool
+	 */
+	public void setParallelRooms(boolean parallel){
+		parallelRooms = parallel;
+	}
+	
+	/**
+	 * Simulates a range of rooms, splitting the range across the pool.
+	 */
+	@SuppressWarnings("serial")
+	private static class RoomUpdate extends RecursiveAction {
+		private final List<Room> rooms;
+		private final int start;
+		private final int end;
+		
+		RoomUpdate(List<Room> rooms, int start, int end){
+			this.rooms = rooms;
+			this.start = start;
+			this.end = end;
+		}
+		
+		@Override
+		protected void compute() {
+			if (end - start == 1){
+				rooms.get(start).simulate();
+				return;
+			}
+			int mid = (start + end) >>> 1;
+			invokeAll(new RoomUpdate(rooms, start, mid), new RoomUpdate(rooms, mid, end));
+		}
+	}
 
 }
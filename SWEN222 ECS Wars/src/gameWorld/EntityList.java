@@ -0,0 +1,136 @@
+package gameWorld;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The characters of one kind in a room, kept in the order they were
+ * added so every client updates and draws them in the same order.
+ *
+ * While the room is updating, adds and removes are held back and made
+ * in order when the update finishes. The room can therefore walk the
+ * list by index while its characters die, shoot and move, without
+ * copying the list first and without the list changing underneath it.
+ *
+ * @author Carl Anderson 300264124
+ *
+ * @param <T> The type of character held
+ */
+public class EntityList<T> extends AbstractSet<T> {
+	private List<T> items = new ArrayList<>();
+
+	// changes waiting for the update to finish, in the order they were made
+	private List<T> pending = new ArrayList<>();
+	private List<Boolean> pendingAdds = new ArrayList<>();
+	private boolean deferring;
+
+	private int version; // counts changes, so cached copies know when to rebuild
+
+	/**
+	 * Adds a character, or queues it to be added if changes are deferred.
+	 * @param t The character to add
+	 * @return true iff the character was not already in the list
+	 */
+	@Override
+	public boolean add(T t){
+		if (deferring){
+			pending.add(t);
+			pendingAdds.add(Boolean.TRUE);
+			return !items.contains(t);
+		}
+		if (items.contains(t)){return false;}
+		items.add(t);
+		version++;
+		return true;
+	}
+
+	/**
+	 * Removes a character, or queues it to be removed if changes are deferred.
+	 * @param o The character to remove
+	 * @return true iff the character was in the list
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o){
+		if (deferring){
+			pending.add((T)o);
+			pendingAdds.add(Boolean.FALSE);
+			return items.contains(o);
+		}
+		if (!items.remove(o)){return false;}
+		version++;
+		return true;
+	}
+
+	/**
+	 * Starts or stops deferring changes. Stopping makes every change
+	 * that was held back, in the order they were made.
+	 * @param deferring true to hold back changes
+	 */
+	public void setDeferring(boolean deferring){
+		this.deferring = deferring;
+		if (deferring){return;}
+		for (int i = 0; i < pending.size(); i++){
+			if (pendingAdds.get(i)){
+				add(pending.get(i));
+			} else {
+				remove(pending.get(i));
+			}
+		}
+		pending.clear();
+		pendingAdds.clear();
+	}
+
+	/**
+	 * Gets a character by its position in the list.
+	 * @param index The position, from 0 to size()-1
+	 * @return The character at that position
+	 */
+	public T get(int index){
+		return items.get(index);
+	}
+
+	@Override
+	public boolean contains(Object o){
+		return items.contains(o);
+	}
+
+	@Override
+	public void clear(){
+		items.clear();
+		version++;
+	}
+
+	@Override
+	public int size(){
+		return items.size();
+	}
+
+	@Override
+	public Iterator<T> iterator(){
+		Iterator<T> it = items.iterator();
+		return new Iterator<T>(){
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return it.next();
+			}
+
+			@Override
+			public void remove() {
+				it.remove();
+				version++;
+			}
+		};
+	}
+
+	public int getVersion(){
+		return version;
+	}
+}
@@ -0,0 +1,458 @@
+package gameWorld;
+
+import gameWorld.characters.Player;
+import gameWorld.ecs.ProjectileStore;
+import gameWorld.gameObjects.Floor;
+import gameWorld.gameObjects.Item;
+import gameWorld.gameObjects.Map;
+import gameWorld.gameObjects.Torch;
+import gameWorld.gameObjects.weapons.Weapon;
+import gameWorld.gameObjects.weapons.projectiles.Projectile;
+
+import java.awt.Image;
+import java.util.Arrays;
+
+/**
+ * A copy of everything the renderer needs to draw one simulation tick.
+ * Snapshots are published by the game loop after each update, so
+ * painting never reads live world state and never holds up the
+ * simulation.
+ *
+ * Every entity also remembers where it was in the previous snapshot, so
+ * the renderer can interpolate between the last two ticks. Entities are
+ * kept in the order their room keeps them, which only changes by
+ * removing entities or adding them at the end, so each entity is found
+ * in the previous snapshot by walking both in step rather than by
+ * looking it up.
+ *
+ * The controller reuses a few snapshots in turn, refilling one with
+ * capture() while the renderer draws another, so taking a snapshot
+ * makes no garbage once the arrays have grown to fit the room. A
+ * snapshot is never changed while it is published or being drawn.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public final class FrameSnapshot {
+	// entities that move further than this between two ticks have teleported
+	// (through a door, or respawning) and are not interpolated
+	private static final int MAX_INTERPOLATE_DIST = 48;
+
+	private Room room;
+	private long tick;
+	private long time; // System.nanoTime() at publication
+
+	private final CharacterFrame local = new CharacterFrame();
+	private CharacterFrame[] characters = new CharacterFrame[0]; // the first characterCount are in use
+	private int characterCount;
+	private ProjectileFrame[] projectiles = new ProjectileFrame[0]; // the first projectileCount are in use
+	private int projectileCount;
+	private float darkness; // how dark the room is, from 0 to 1
+	private int[] floorTorches = new int[0]; // the x and y of each lit torch lying in the room, one after the other
+	private int floorTorchCount;
+
+	// HUD values for the local player
+	private int health;
+	private int points;
+	private Weapon weapon;
+	private final Item[] inventory = new Item[Player.INVENTORY_SIZE];
+	private boolean torchOn;
+	private boolean mapOpen;
+
+	/**
+	 * Creates an empty snapshot, to be filled by capture().
+	 */
+	public FrameSnapshot(){
+	}
+
+	/**
+	 * Captures the current state of the given player's room.
+	 * @param player The player the frame is drawn for
+	 * @param tick The simulation tick being captured
+	 * @param previous The last published snapshot, or null
+	 */
+	public FrameSnapshot(Player player, long tick, FrameSnapshot previous){
+		capture(player, tick, previous);
+	}
+
+	/**
+	 * Fills this snapshot with the current state of the given player's
+	 * room, reusing its arrays and entity frames. Must not be called
+	 * while the snapshot is published or being drawn.
+	 * @param player The player the frame is drawn for
+	 * @param tick The simulation tick being captured
+	 * @param previous The last published snapshot, or null
+	 */
+	public void capture(Player player, long tick, FrameSnapshot previous){
+		this.room = player.getCurrentRoom();
+		this.tick = tick;
+		this.time = System.nanoTime();
+
+		// only interpolate from a frame of the same room
+		if (previous != null && previous.room != room){
+			previous = null;
+		}
+
+		// characters, found in the previous frame by walking it alongside
+		characterCount = room.getCharacterCount();
+		if (characters.length < characterCount){
+			characters = grow(characters, characterCount);
+		}
+		int next = 0;
+		for (int i = 0; i < characterCount; i++){
+			Player p = room.getCharacter(i);
+			CharacterFrame last = null;
+			if (previous != null){
+				int found = previous.findCharacter(p, next);
+				if (found >= 0){
+					last = previous.characters[found];
+					next = found+1;
+				}
+			}
+			characters[i].set(p, last);
+		}
+		local.set(player, previous == null ? null : previous.local.key == player ? previous.local : null);
+
+		// projectiles
+		ProjectileStore shots = room.getProjectileStore();
+		projectileCount = shots.size();
+		if (projectiles.length < projectileCount){
+			projectiles = grow(projectiles, projectileCount);
+		}
+		next = 0;
+		for (int i = 0; i < projectileCount; i++){
+			Projectile shot = shots.getProjectile(i);
+			ProjectileFrame last = null;
+			if (previous != null){
+				int found = previous.findProjectile(shot, next);
+				if (found >= 0){
+					last = previous.projectiles[found];
+					next = found+1;
+				}
+			}
+			projectiles[i].set(shot, last);
+		}
+		// torches lying about only matter in the dark, so lit rooms aren't searched for them
+		darkness = room.getDarkness();
+		floorTorchCount = 0;
+		if (darkness > 0){
+			findFloorTorches(room);
+		}
+
+		// HUD
+		health = player.getHealth();
+		points = player.getPoints();
+		weapon = player.getWeapon();
+		System.arraycopy(player.getInventory(), 0, inventory, 0, Player.INVENTORY_SIZE);
+		boolean torch = false;
+		boolean map = false;
+		for (Item item : inventory){
+			if (isLitTorch(item)){
+				torch = true;
+			} else if (item instanceof Map && ((Map)item).isOpen()){
+				map = true;
+			}
+		}
+		torchOn = torch;
+		mapOpen = map;
+	}
+
+	/**
+	 * Copies an array of character frames into a larger one, filling the
+	 * rest with new frames.
+	 */
+	private static CharacterFrame[] grow(CharacterFrame[] from, int length){
+		CharacterFrame[] to = Arrays.copyOf(from, length);
+		for (int i = from.length; i < length; i++){
+			to[i] = new CharacterFrame();
+		}
+		return to;
+	}
+
+	/**
+	 * Copies an array of projectile frames into a larger one, filling the
+	 * rest with new frames.
+	 */
+	private static ProjectileFrame[] grow(ProjectileFrame[] from, int length){
+		ProjectileFrame[] to = Arrays.copyOf(from, length);
+		for (int i = from.length; i < length; i++){
+			to[i] = new ProjectileFrame();
+		}
+		return to;
+	}
+
+	/**
+	 * Finds a character's frame, starting from where the last one was found.
+	 * @param key The character
+	 * @param from The index to start looking at
+	 * @return The index of the character's frame, or -1 if it isn't in this snapshot
+	 */
+	private int findCharacter(Object key, int from){
+		for (int i = from; i < characterCount; i++){
+			if (characters[i].key == key){return i;}
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds a projectile's frame, starting from where the last one was found.
+	 * @param key The projectile
+	 * @param from The index to start looking at
+	 * @return The index of the projectile's frame, or -1 if it isn't in this snapshot
+	 */
+	private int findProjectile(Object key, int from){
+		for (int i = from; i < projectileCount; i++){
+			if (projectiles[i].key == key){return i;}
+		}
+		return -1;
+	}
+
+	/**
+	 * Determines how far the renderer is between the previous tick and
+	 * this one.
+	 * @param now The current System.nanoTime()
+	 * @param tickLength The length of one tick in seconds, or 0 if ticks
+	 * aren't timed
+	 * @return A value between 0 (previous tick) and 1 (this tick)
+	 */
+	public double getAlpha(long now, double tickLength){
+		if (tickLength <= 0){return 1;}
+		double alpha = (now - time)/(tickLength*1000000000.0);
+		if (alpha < 0){
+			return 0;
+		} else if (alpha > 1){
+			return 1;
+		}
+		return alpha;
+	}
+
+	public Room getRoom() {return room;}
+
+	public long getTick() {return tick;}
+
+	/**
+	 * Gets the frame of the player this snapshot was taken for.
+	 * The local player is included even while they are dead.
+	 * @return The local player's frame
+	 */
+	public CharacterFrame getLocal() {return local;}
+
+	public int getCharacterCount() {return characterCount;}
+
+	/**
+	 * Gets the frame of one character in the room, players first.
+	 * @param index The character's position, from 0 to getCharacterCount()-1
+	 * @return The character's frame
+	 */
+	public CharacterFrame getCharacter(int index) {return characters[index];}
+
+	public int getProjectileCount() {return projectileCount;}
+
+	/**
+	 * Gets the frame of one projectile in the room.
+	 * @param index The projectile's position, from 0 to getProjectileCount()-1
+	 * @return The projectile's frame
+	 */
+	public ProjectileFrame getProjectile(int index) {return projectiles[index];}
+
+	public int getFloorTorchCount() {return floorTorchCount;}
+
+	/**
+	 * Gets the positions of the lit torches lying on the floor of the room.
+	 * @return The x and y of the middle of each torch's square, one after the
+	 * other, for the first getFloorTorchCount() torches
+	 */
+	public int[] getFloorTorches() {return floorTorches;}
+
+	/**
+	 * Gets how dark the room was when the frame was captured. Floor
+	 * torches are only found when this is above 0.
+	 * @return The darkness, from 0 for fully lit to 1 for pitch black
+	 */
+	public float getDarkness() {return darkness;}
+
+	public int getHealth() {return health;}
+
+	public int getPoints() {return points;}
+
+	public Weapon getWeapon() {return weapon;}
+
+	/**
+	 * Gets a copy of the local player's inventory at the time of capture.
+	 * @return The inventory copy
+	 */
+	public Item[] getInventory() {return inventory;}
+
+	public boolean isTorchOn() {return torchOn;}
+
+	public boolean isMapOpen() {return mapOpen;}
+
+	/**
+	 * Finds every lit torch lying on the floor of a room.
+	 * @param room The room to search
+	 */
+	private void findFloorTorches(Room room){
+		Item[][] contents = room.getContents();
+		for (int col = 0; col < contents.length; col++){
+			for (int row = 0; row < contents[col].length; row++){
+				if (!(contents[col][row] instanceof Floor)){continue;}
+				if (!isLitTorch(((Floor)contents[col][row]).getItem())){continue;}
+				if (floorTorchCount*2 == floorTorches.length){
+					floorTorches = Arrays.copyOf(floorTorches, Math.max(8, floorTorches.length*2));
+				}
+				floorTorches[floorTorchCount*2] = col*24 + 12;
+				floorTorches[floorTorchCount*2+1] = row*24 + 12;
+				floorTorchCount++;
+			}
+		}
+	}
+
+	/**
+	 * Determines whether an item is a torch which is switched on.
+	 * @param item The item, or null
+	 * @return true iff the item is a lit torch
+	 */
+	private static boolean isLitTorch(Item item){
+		return item instanceof Torch && ((Torch)item).isOn();
+	}
+
+	/**
+	 * Interpolates between two positions.
+	 * @param from The previous position
+	 * @param to The current position
+	 * @param alpha How far between the two positions to go
+	 * @return The interpolated position
+	 */
+	private static int lerp(int from, int to, double alpha){
+		return from + (int)Math.round((to-from)*alpha);
+	}
+
+	/**
+	 * Determines whether an entity has stayed close enough to where it was
+	 * in the previous frame to be interpolated from there.
+	 * @param lastX The previous x position
+	 * @param lastY The previous y position
+	 * @param x The current x position
+	 * @param y The current y position
+	 * @return true iff the entity hasn't teleported
+	 */
+	private static boolean isNear(int lastX, int lastY, int x, int y){
+		return Math.abs(lastX-x) <= MAX_INTERPOLATE_DIST && Math.abs(lastY-y) <= MAX_INTERPOLATE_DIST;
+	}
+
+	/**
+	 * The drawable state of a single player or NPC.
+	 */
+	public static final class CharacterFrame {
+		private Object key;
+		private int prevX;
+		private int prevY;
+		private int x;
+		private int y;
+		private int facing;
+		private int animState;
+		private int health;
+		private int maxHealth;
+		private boolean torch; // whether the character is carrying a lit torch
+		private Image[][] sprites;
+
+		/**
+		 * Fills this frame from a character.
+		 * @param p The character
+		 * @param last The character's frame in the previous snapshot, or null
+		 */
+		private void set(Player p, CharacterFrame last){
+			key = p;
+			x = p.getX();
+			y = p.getY();
+			boolean near = last != null && isNear(last.x, last.y, x, y);
+			prevX = near ? last.x : x;
+			prevY = near ? last.y : y;
+			facing = p.getGlobalDir();
+			animState = p.getAnimState();
+			health = p.getHealth();
+			maxHealth = p.getMaxHealth();
+			sprites = p.getImages();
+			boolean lit = false;
+			for (Item item : p.getInventory()){
+				lit |= isLitTorch(item);
+			}
+			torch = lit;
+		}
+
+		/**
+		 * Determines whether two frames were captured from the same character.
+		 * @param other The frame to compare with
+		 * @return true iff both frames belong to the same character
+		 */
+		public boolean isSameCharacter(CharacterFrame other) {return key == other.key;}
+
+		public int getX(double alpha) {return lerp(prevX, x, alpha);}
+
+		public int getY(double alpha) {return lerp(prevY, y, alpha);}
+
+		/**
+		 * Gets the global direction the character is facing.
+		 * @return The facing direction
+		 */
+		public int getFacing() {return facing;}
+
+		public int getHealth() {return health;}
+
+		public int getMaxHealth() {return maxHealth;}
+
+		public boolean hasTorch() {return torch;}
+
+		/**
+		 * Gets the sprite to draw for the given sprite direction, at the
+		 * current view scale.
+		 * @param spriteDir The direction relative to the view
+		 * @return The current animation frame for that direction
+		 */
+		public Image getImage(int spriteDir) {return SpriteAtlas.get(sprites[spriteDir][animState]);}
+	}
+
+	/**
+	 * The drawable state of a single projectile.
+	 */
+	public static final class ProjectileFrame {
+		private Object key;
+		private int prevX;
+		private int prevY;
+		private int x;
+		private int y;
+		private int size;
+		private Image image;
+		private Image largeImage;
+
+		/**
+		 * Fills this frame from a projectile.
+		 * @param p The projectile
+		 * @param last The projectile's frame in the previous snapshot, or null
+		 */
+		private void set(Projectile p, ProjectileFrame last){
+			key = p;
+			x = p.getX();
+			y = p.getY();
+			boolean near = last != null && isNear(last.x, last.y, x, y);
+			prevX = near ? last.x : x;
+			prevY = near ? last.y : y;
+			size = p.getSize();
+			image = p.getImage(1);
+			largeImage = p.getImage(2);
+		}
+
+		public int getX(double alpha) {return lerp(prevX, x, alpha);}
+
+		public int getY(double alpha) {return lerp(prevY, y, alpha);}
+
+		public int getSize() {return size;}
+
+		/**
+		 * Gets the projectile image for the given view scale.
+		 * @param scale The view scale
+		 * @return The appropriately sized image
+		 */
+		public Image getImage(int scale) {return scale >= 2 ? largeImage : image;}
+	}
+}
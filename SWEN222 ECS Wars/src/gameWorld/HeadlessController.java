@@ -0,0 +1,117 @@
+package gameWorld;
+
+import gameWorld.characters.DavePlayer;
+import gameWorld.characters.Player;
+
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * A controller which runs the full game simulation without a window.
+ * Used by dedicated servers, benchmarks and tests. Nothing is drawn
+ * and no input is read, so the world only changes through the
+ * simulation itself and whatever the owner of this controller does
+ * to its players.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class HeadlessController extends Controller {
+
+	/**
+	 * Creates a headless game with no players, updating at the
+	 * normal frame rate.
+	 * @param uid The id of the player this controller belongs to
+	 */
+	public HeadlessController(int uid) {
+		super(uid);
+	}
+
+	/**
+	 * Creates a headless game with the given players.
+	 * @param players The players in the game
+	 * @param ticksPerSecond The number of updates per second,
+	 * or 0 to update as fast as possible
+	 */
+	public HeadlessController(List<Player> players, int ticksPerSecond) {
+		super(0);
+		this.players.addAll(players);
+		setTickRate(ticksPerSecond);
+	}
+
+	/**
+	 * Runs the given number of ticks on the calling thread, as fast
+	 * as possible, without starting the game loop.
+	 * @param ticks The number of ticks to run
+	 */
+	public void runTicks(int ticks) {
+		for (int i = 0; i < ticks && isRunning; i++){
+			step();
+		}
+	}
+
+	/**
+	 * Updates every room which is due this tick.
+	 */
+	@Override
+	protected void update() {
+		updateScheduledRooms();
+	}
+
+	// there is no window, so there is no input
+	@Override
+	public void keyPressed(KeyEvent e) {}
+
+	@Override
+	public void keyReleased(KeyEvent e) {}
+
+	@Override
+	public void keyTyped(KeyEvent e) {}
+
+	@Override
+	public void mouseClicked(MouseEvent e) {}
+
+	@Override
+	public void mouseEntered(MouseEvent e) {}
+
+	@Override
+	public void mouseExited(MouseEvent e) {}
+
+	@Override
+	public void mousePressed(MouseEvent e) {}
+
+	@Override
+	public void mouseReleased(MouseEvent e) {}
+
+	@Override
+	public void mouseDragged(MouseEvent e) {}
+
+	@Override
+	public void mouseMoved(MouseEvent e) {}
+
+	/**
+	 * Runs a headless game for a number of ticks and prints how fast
+	 * it ran.
+	 * @param args The number of ticks to run (default 10000), and
+	 * optionally "parallel" to update rooms in parallel
+	 */
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+		HeadlessController ctrl = new HeadlessController(0);
+		ctrl.setTickRate(0);
+		ctrl.setParallelRooms(args.length > 1 && args[1].equals("parallel"));
+		ctrl.getPlayers().add(new DavePlayer(null, 0, 0));
+		ctrl.initialise();
+		ctrl.getProfiler().dumpOnExit();
+
+		long start = System.nanoTime();
+		ctrl.runTicks(ticks);
+		double seconds = (System.nanoTime()-start)/1000000000.0;
+		System.out.println(ctrl.getTick()+" ticks in "+seconds+"s ("
+				+(int)(ctrl.getTick()/seconds)+" ticks per second)");
+		System.exit(0);
+	}
+}
@@ -1,5 +1,6 @@
 package gameWorld;
 
+import gameWorld.TickProfiler.Phase;
 import gameWorld.characters.Player;
 import gui.GUICanvas;
 import network.ClientConnection;
@@ -22,9 +23,19 @@ public class MultiPlayerController extends Controller {
 	private int numPlayers;
 	private GUICanvas canvas;
 
+	/**
+	 * Creates a multiplayer game
+	 * @param socket The connection to the server
+	 * @param uid The id of the local player
+	 * @param numPlayers The number of players in the game
+	 * @param canvas The canvas the game is drawn on
+	 * @param players The players in the game
+	 * @param seed The seed shared by every client, so they build the same world
+	 */
 	public MultiPlayerController(Socket socket, int uid, int numPlayers,
-			GUICanvas canvas, ArrayList<Player> players) {
+			GUICanvas canvas, ArrayList<Player> players, long seed) {
 		super(uid);
+		setSeed(seed);
 		this.canvas = canvas;
 		this.numPlayers = numPlayers;
 		this.players = players;
@@ -51,9 +62,13 @@ public class MultiPlayerController extends Controller {
 	 */
 	@Override
 	public void update(){
+		long start = profiler.start();
 		client.checkForUpdates();
+		profiler.stop(Phase.INPUT, start);
+		start = profiler.start();
 		checkTooltip(getPlayer(uid));
-		players.get(uid).update();
+		profiler.stop(Phase.TOOLTIP, start);
+		updateScheduledRooms();
 	}
 	
 	@Override
@@ -69,24 +84,33 @@ public class MultiPlayerController extends Controller {
 		if(e.getKeyCode() == KeyEvent.VK_E){
 			this.getGUI().getCanvas().rotateViewRight();
 		}
-		if(e.getKeyCode() == KeyEvent.VK_1){
-			this.getPlayer(uid).inventoryItemAt(0).use(this.getPlayer(uid), this);
-		}
-		if(e.getKeyCode() == KeyEvent.VK_2){
-			this.getPlayer(uid).inventoryItemAt(1).use(this.getPlayer(uid), this);
-		}
-		if(e.getKeyCode() == KeyEvent.VK_3){
-			this.getPlayer(uid).inventoryItemAt(2).use(this.getPlayer(uid), this);
-		}
-		if (e.getKeyCode() == KeyEvent.VK_MINUS){
-			this.getGUI().getCanvas().setViewScale(1);
-			this.scaleEverything(1);
-		}
-		if (e.getKeyCode() == KeyEvent.VK_EQUALS){
-			this.getGUI().getCanvas().setViewScale(2);
-			this.scaleEverything(2);
-		}
-		players.get(uid).setSpeedModifier(1);
+		int keyCode = e.getKeyCode();
+		Controller ctrl = this;
+		//Change the world on the game thread
+		submit(new Runnable(){
+			@Override
+			public void run() {
+				Player player = getPlayer(uid);
+				if(keyCode == KeyEvent.VK_1){
+					player.inventoryItemAt(0).use(player, ctrl);
+				}
+				if(keyCode == KeyEvent.VK_2){
+					player.inventoryItemAt(1).use(player, ctrl);
+				}
+				if(keyCode == KeyEvent.VK_3){
+					player.inventoryItemAt(2).use(player, ctrl);
+				}
+				if (keyCode == KeyEvent.VK_MINUS){
+					getGUI().getCanvas().setViewScale(1);
+					scaleEverything(1);
+				}
+				if (keyCode == KeyEvent.VK_EQUALS){
+					getGUI().getCanvas().setViewScale(2);
+					scaleEverything(2);
+				}
+				player.setSpeedModifier(1);
+			}
+		});
 		keyBits.clear(e.getKeyCode());
 	}
 
@@ -104,7 +128,12 @@ public class MultiPlayerController extends Controller {
 		} else if (e.getButton() == 3) {
 			int x = e.getX();
 			int y = e.getY();
-			rightClickInteract(x, y, players.get(uid));
+			submit(new Runnable(){
+				@Override
+				public void run() {
+					rightClickInteract(x, y, players.get(uid));
+				}
+			});
 			//TODO: network sync
 		}
 	}
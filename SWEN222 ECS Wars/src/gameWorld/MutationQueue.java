@@ -0,0 +1,81 @@
+package gameWorld;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock free queue of changes to the game world, which any thread can
+ * add to and only the game loop runs. Input handlers and the network
+ * reader submit their changes here instead of touching the world
+ * directly, so the world only ever has one writer.
+ *
+ * This is an intrusive multiple-producer, single-consumer queue: adding
+ * is a single atomic swap, and taking needs no atomic operations at all.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public final class MutationQueue {
+	private final AtomicReference<Node> head; // the newest node, swapped by producers
+	private Node tail; // the last node consumed; only touched by the game loop
+
+	/**
+	 * Creates an empty queue.
+	 */
+	public MutationQueue(){
+		Node stub = new Node(null);
+		head = new AtomicReference<>(stub);
+		tail = stub;
+	}
+
+	/**
+	 * Adds a change to run at the start of the next tick.
+	 * Safe to call from any thread.
+	 * @param mutation The change to make
+	 */
+	public void submit(Runnable mutation){
+		Node node = new Node(mutation);
+		Node prev = head.getAndSet(node);
+		// between the swap and this write the node is briefly unreachable;
+		// the consumer just stops early and picks it up next tick
+		prev.next = node;
+	}
+
+	/**
+	 * Runs every change which has been submitted, in the order they were
+	 * submitted. Must only be called from the game loop.
+	 * @return The number of changes run
+	 */
+	public int drain(){
+		int count = 0;
+		Node next;
+		while ((next = tail.next) != null){
+			Runnable mutation = next.mutation;
+			next.mutation = null; // the node becomes the new stub
+			tail = next;
+			mutation.run();
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Determines whether there are changes waiting to run.
+	 * Must only be called from the game loop.
+	 * @return true iff no changes are waiting
+	 */
+	public boolean isEmpty(){
+		return tail.next == null;
+	}
+
+	/**
+	 * A link in the queue.
+	 */
+	private static final class Node {
+		private volatile Node next;
+		private Runnable mutation;
+
+		Node(Runnable mutation){
+			this.mutation = mutation;
+		}
+	}
+}
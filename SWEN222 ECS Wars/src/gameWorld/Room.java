@@ -1,9 +1,14 @@
 package gameWorld;
 
+import gameWorld.FrameSnapshot.CharacterFrame;
+import gameWorld.FrameSnapshot.ProjectileFrame;
+import gameWorld.TickProfiler.Phase;
 import gameWorld.characters.Player;
 import gameWorld.characters.nonplayer.NonPlayer;
+import gameWorld.ecs.CharacterStore;
+import gameWorld.ecs.ProjectileStore;
+import gameWorld.ecs.ProjectileSystem;
 import gameWorld.gameEvents.Event;
-import gameWorld.gameEvents.GameClock;
 import gameWorld.gameEvents.RespawnEvent;
 import gameWorld.gameObjects.CharacterSpawner;
 import gameWorld.gameObjects.Desk;
@@ -19,16 +24,17 @@ import gameWorld.gameObjects.weapons.projectiles.Projectile;
 import gui.GUICanvas;
 
 import java.awt.*;
-import java.io.IOException;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.ConcurrentModificationException;
 import java.util.HashSet;
-import java.util.Scanner;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
-import javax.imageio.ImageIO;
-
 /**
  * Represents an area in the game. Holds contents relevant to that area and
  * is responsible for drawing itself and everything in it.
@@ -39,11 +45,27 @@ import javax.imageio.ImageIO;
  *
  */
 public class Room {
+	// tile types, as stored in the tile grid
+	public static final byte TILE_FLOOR = 0; // anything which can be walked on
+	public static final byte TILE_DOOR = 1;
+	public static final byte TILE_WALL = 2;
+	public static final byte TILE_SOLID = 3; // furniture and anything else which can't be walked on
+
+	private static final Wall OUT_OF_BOUNDS = new Wall(); // returned for squares outside the room
+	private static final int DRAW_MARGIN = 4; // squares drawn beyond the edge of the screen
+
 	private String name; // name of the room
+	private int id = -1; // the room's id, given when it is registered
 	private String description; // description of room
-	private Image[][] images;
-	private Image[][] scaledImages;
+	private float darkness; // from 0 for fully lit to 1 for pitch black, or RoomLighting.NIGHT
 	private Item[][] contents; // items in the room
+	private ChunkedView[] views; // contents as seen from each view direction
+	private byte[] tiles; // the type of each square, indexed by row*cols + col
+	private BitSet walkable; // squares which characters can walk on
+	private BitSet blocksShots; // squares which stop projectiles
+	private volatile int layerVersion; // changed whenever a square changes, after the chunk versions
+	private int[][] chunkVersions; // by view direction and chunk, changed whenever a square in or near the chunk changes
+	private SpatialGrid grid; // where each character is, for collision checks
 	private int cols; // # of cols
 	private int rows; // # of rows
 	private int squareSize = 24; //TODO get this value from player view scale
@@ -54,11 +76,26 @@ public class Room {
 	
 	private Controller ctrl;
 	
-	// non-item contents of room
-	private Set<Projectile> projectiles = Collections.synchronizedSet(new HashSet<Projectile>());
-	private Set<Player> players = Collections.synchronizedSet(new HashSet<>());
-	private Set<NonPlayer> npcs = Collections.synchronizedSet(new HashSet<>());
+	private Random random; // used by everything updated with this room
+	
+	// non-item contents of room, kept in the order they were added so
+	// updates happen in the same order on every client. Only the game
+	// loop changes these, so they need no locking
+	private ProjectileStore projectiles = new ProjectileStore();
+	private CharacterStore characterStore = new CharacterStore(); // the components of every character here
+	private EntityList<Player> players = new EntityList<>();
+	private EntityList<NonPlayer> npcs = new EntityList<>();
+	private EntityList<Player> characters = new EntityList<>(); // players then npcs, rebuilt when either changes
+	private Set<Player> charactersView = Collections.unmodifiableSet(characters);
+	private int playersVersion = -1; // the versions characters was built from
+	private int npcsVersion = -1;
 	private Set<Door> doors = new HashSet<>();
+	
+	// changes which reach outside this room, applied once every room has updated
+	private List<Runnable> transfers = new ArrayList<>();
+	private DrawList drawList = new DrawList(); // reused every frame, as a room is only drawn on the redraw thread
+	private boolean updating = false;
+	private int updateTicks = 1; // the ticks the current update stands for
 		
 	/**
 	 * Constructor for class Room
@@ -68,12 +105,14 @@ public class Room {
 	public Room(String roomName, Controller ctrl){
 		this.ctrl = ctrl;
 		name = roomName;
-		images = new Image[4][2];
-		loadImages();
-		scaledImages = images;
+		darkness = RoomLighting.getDarkness(roomName);
+		random = new Random(ctrl.getSeed()*31 + roomName.hashCode());
 		parseFile(ctrl);
+		buildViews();
+		rebuildTiles();
 		width = cols*squareSize;
 		height = rows*squareSize;
+		grid = new SpatialGrid(width, height);
 		xOrigin = 0;
 		yOrigin = 0;
 	}
@@ -82,43 +121,138 @@ public class Room {
 	 * Read room file and convert to array of items and other room data.
 	 */
 	private void parseFile(Controller ctrl) {
-		try {
-			Scanner s = new Scanner(Room.class.getResourceAsStream("/Rooms/"+name+".txt"));
-			description = s.nextLine();
-			cols = Integer.parseInt(s.nextLine());
-			rows = Integer.parseInt(s.nextLine());
-			contents = new Item[cols][rows];
-			
-			// populate item array
-			for(int r=0; r<rows; r++){
-				String line = s.nextLine();
-				int fileCol = 0;
-				for(int c=0; c<cols; c++){
-					String code = line.substring(fileCol, fileCol+2);
-					contents[c][r] = itemFromCode(code, ctrl, c, r);
-					fileCol+=2;
-				}
+		RoomData data = RoomData.load(name);
+		if (data == null){return;}
+		description = data.getDescription();
+		cols = data.getCols();
+		rows = data.getRows();
+		contents = new Item[cols][rows];
+
+		// populate item array
+		for(int r=0; r<rows; r++){
+			for(int c=0; c<cols; c++){
+				contents[c][r] = itemFromCode(data.getCode(c, r), ctrl, c, r);
 			}
-			s.close();
-			
-		} catch (NullPointerException e) {
-			System.out.println("Error loading room file: "+ e.getMessage());
 		}
 	}
 	
+	/**
+	 * Builds the rotated copies of the contents array drawn when the
+	 * room is viewed from each direction.
+	 */
+	private void buildViews(){
+		views = new ChunkedView[4];
+		views[0] = new ChunkedView(contents);
+		views[1] = new ChunkedView(rotatedArrayClockwise(contents));
+		views[2] = new ChunkedView(rotatedArray180(contents));
+		views[3] = new ChunkedView(rotatedArrayAntiClockwise(contents));
+		chunkVersions = new int[4][];
+		for (int i = 0; i < 4; i++){
+			chunkVersions[i] = new int[views[i].getChunkCols()*views[i].getChunkRows()];
+		}
+	}
+
+	/**
+	 * Replaces the item in a square, keeping the rotated views and the
+	 * tile grid up to date.
+	 * @param col The column of the square
+	 * @param row The row of the square
+	 * @param item The item to put in the square
+	 */
+	public void setItem(int col, int row, Item item){
+		contents[col][row] = item;
+		views[0].set(col, row, item);
+		views[1].set(row, cols-1-col, item);
+		views[2].set(cols-1-col, rows-1-row, item);
+		views[3].set(rows-1-row, col, item);
+		updateTile(col, row);
+	}
+
+	/**
+	 * Gets the room's contents as seen from one direction.
+	 * @param viewDirection The direction the room is viewed from
+	 * @return The rotated view of the room
+	 */
+	public ChunkedView getView(int viewDirection){
+		return views[viewDirection];
+	}
+
+	/**
+	 * Works out the type of every square from the room's contents.
+	 */
+	private void rebuildTiles(){
+		tiles = new byte[cols*rows];
+		walkable = new BitSet(cols*rows);
+		blocksShots = new BitSet(cols*rows);
+		for (int r = 0; r < rows; r++){
+			for (int c = 0; c < cols; c++){
+				updateTile(c, r);
+			}
+		}
+	}
+
+	/**
+	 * Works out the type of a single square from the item in it, such as
+	 * when a door is locked or unlocked.
+	 * @param col The column of the square
+	 * @param row The row of the square
+	 */
+	public void updateTile(int col, int row){
+		if (tiles == null){return;} // still parsing the room file
+		Item item = contents[col][row];
+		int i = row*cols + col;
+		boolean canWalk = item != null && item.canWalk();
+		if (item instanceof Door){
+			tiles[i] = TILE_DOOR;
+		} else if (item instanceof Wall){
+			tiles[i] = TILE_WALL;
+		} else {
+			tiles[i] = canWalk ? TILE_FLOOR : TILE_SOLID;
+		}
+		walkable.set(i, canWalk);
+		blocksShots.set(i, !canWalk);
+		touchChunks(col, row);
+		layerVersion++;
+	}
+
+	/**
+	 * Marks the chunks around a square as changed in every view direction,
+	 * so only those parts of the static layers are drawn again. Anything
+	 * within DRAW_MARGIN squares may be drawn over the square, so the
+	 * chunks holding those squares are marked too.
+	 * @param col The column of the square
+	 * @param row The row of the square
+	 */
+	private void touchChunks(int col, int row){
+		if (chunkVersions == null){return;} // still building the views
+		for (int v = 0; v < 4; v++){
+			// the square as seen from this direction, as in setItem
+			int viewCol = v == 0 ? col : v == 1 ? row : v == 2 ? cols-1-col : rows-1-row;
+			int viewRow = v == 0 ? row : v == 1 ? cols-1-col : v == 2 ? rows-1-row : col;
+			ChunkedView view = views[v];
+			int cx0 = Math.max(0, viewCol-DRAW_MARGIN) / ChunkedView.CHUNK_SIZE;
+			int cx1 = Math.min(view.getCols()-1, viewCol+DRAW_MARGIN) / ChunkedView.CHUNK_SIZE;
+			int cy0 = Math.max(0, viewRow-DRAW_MARGIN) / ChunkedView.CHUNK_SIZE;
+			int cy1 = Math.min(view.getRows()-1, viewRow+DRAW_MARGIN) / ChunkedView.CHUNK_SIZE;
+			for (int cy = cy0; cy <= cy1; cy++){
+				for (int cx = cx0; cx <= cx1; cx++){
+					chunkVersions[v][cy*view.getChunkCols() + cx]++;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Converts a char code into an item.
 	 * @param code The 2 char String from a room file being parsed.
 	 * @return A new Item according to the code.
 	 */
 	private Item itemFromCode(String code, Controller ctrl, int col, int row){
-		// test to see if the code is an integer: codes for a door
-		try{
-			Integer.parseInt(code);
+		// codes made of two digits are door ids
+		if (RoomData.isDoor(code)){
 			return parseDoor(code, ctrl, col, row);
-		} catch(NumberFormatException e){}
+		}
 		
-		// code isn't an integer
 		switch(code){
 		case "__" : return new Floor();
 		case "_=" : Floor f = new Floor();
@@ -191,57 +325,39 @@ public class Room {
 		return door;
 	}
 
-	/**
-	 * Loads all background and foreground images necessary for this room.
-	 */
-	private void loadImages() {
-		try {
-			images[0][0] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/NorthBase.png"));
-			images[0][1] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/NorthTop.png"));
-			
-			images[1][0] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/EastBase.png"));
-			images[1][1] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/EastTop.png"));
-			
-			images[2][0] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/SouthBase.png"));
-			images[2][1] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/SouthTop.png"));
-			
-			images[3][0] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/WestBase.png"));
-			images[3][1] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/WestTop.png"));
-		} catch (IOException e) {
-			System.out.println("Error loading room images: "+e.getMessage());
-		}
-	}
-
 	/**
 	 * Draws this room and its contents on the graphics pane.
+	 * Characters and projectiles are drawn from the given snapshot rather
+	 * than the live room state, interpolated between the last two ticks.
 	 * @param g Graphics object with which to draw the room.
 	 * @param c The canvas on which to draw the room.
-	 * @param player The current player.
+	 * @param frame The snapshot of this room to draw.
+	 * @param viewDirection The direction the room is viewed from.
+	 * @param alpha How far between the previous and current tick to draw.
 	 */
-	public void draw(Graphics g, GUICanvas c, Player player, int viewDirection){
+	public void draw(Graphics g, GUICanvas c, FrameSnapshot frame, int viewDirection, double alpha){
 		int viewScale = c.getViewScale();
-		//int viewDirection = player.getViewDirection(); 
-		int playerX = player.getX(); 
-		int playerY = player.getY(); 
+		int playerX = frame.getLocal().getX(alpha); 
+		int playerY = frame.getLocal().getY(alpha); 
 		
-		Item[][] rotated = contents;
+		ChunkedView rotated = views[0];
 		
 		// calculate origin for drawing based on view direction
 		switch(viewDirection){
 			case 1: // EAST
 				xOrigin = (c.getWidth()/2)-(playerY*viewScale);
 				yOrigin = (c.getHeight()/2)-((width*viewScale)-(playerX*viewScale));
-				rotated = rotatedArrayClockwise(contents);
+				rotated = views[1];
 				break;
 			case 2: // SOUTH
 				xOrigin = (c.getWidth()/2)-((width*viewScale)-(playerX*viewScale));
 				yOrigin = (c.getHeight()/2)-((height*viewScale)-(playerY*viewScale));
-				rotated = rotatedArray180(contents);
+				rotated = views[2];
 				break;
 			case 3: // WEST
 				xOrigin = (c.getWidth()/2)-((height*viewScale)-(playerY*viewScale));
 				yOrigin = (c.getHeight()/2)-(playerX*viewScale);
-				rotated = rotatedArrayAntiClockwise(contents);
+				rotated = views[3];
 				break;
 			case 0: default: // DEFAULT TO NORTH
 				xOrigin = (c.getWidth()/2)-(playerX*viewScale);
@@ -249,92 +365,290 @@ public class Room {
 				break;
 		}
 		
-		// Create copy of projectile set to avoid concurrent modification
-		Set<Projectile> projectilesToDraw = new HashSet<Projectile>(projectiles);
-		//projectilesToDraw.addAll(projectiles);
-		
-		// Set row value for projectiles and players
-		checkPlayers(viewDirection);
-		try {
-			checkProjectiles(viewDirection, projectilesToDraw);
-		} catch (ConcurrentModificationException e){}
+		// read the room's images if need be, and those of any room the player is about to walk into
+		RoomImageCache cache = ctrl.getImageCache();
+		Image[][] images = cache.get(this);
+		StaticLayer layer = cache.getLayer(this, viewDirection, c);
+		cache.prefetchNear(this, playerX, playerY);
 		
 		// draw the images
-		drawRoomContents(g, c, viewDirection, xOrigin, yOrigin, rotated, projectilesToDraw, player);
+		drawRoomContents(g, c, viewDirection, xOrigin, yOrigin, rotated, images, layer, frame, alpha);
 	}
 
 	/**
 	 * Draws all items, players, and projectiles in this room.
+	 * The room's static layer, its background with every item which doesn't
+	 * move drawn on, goes down a chunk at a time. The area around each character,
+	 * projectile and item lying on the floor is then drawn again from the
+	 * background up, so anything in front of them still covers them.
 	 * @param g The Grapics object with which to draw the room
 	 * @param c The canvas on which to draw
 	 * @param viewDirection The direction the player is viewing in
 	 * @param drawX The x origin of the room
 	 * @param drawY The y origin of the room
-	 * @param rotated The rotated contents array according to the view dir
-	 * @param projectiles The projectiles to be drawn
-	 * @param player 
+	 * @param rotated The room's contents as seen from the view dir
+	 * @param images The room's background and foreground images at the view scale
+	 * @param layer The room's static layer for the view dir and scale, or null to draw everything
+	 * @param frame The snapshot holding the characters and projectiles to draw
+	 * @param alpha How far between the previous and current tick to draw
 	 */
 	private void drawRoomContents(Graphics g, GUICanvas c, int viewDirection, int drawX, int drawY,
-			Item[][] rotated, Set<Projectile> projectiles, Player player) {
+			ChunkedView rotated, Image[][] images, StaticLayer layer, FrameSnapshot frame, double alpha) {
 		int viewScale = c.getViewScale();
+		int size = squareSize*viewScale; // the size of a square on screen
+		int top = 3*size; // the room's images start three squares above it
+		DrawList entities = drawList;
+		entities.fill(frame, viewDirection, rotated.getRows(), alpha);
+		Rectangle screen = entities.screen;
+		screen.setBounds(0, 0, c.getWidth(), c.getHeight());
 		
-		// Draw background Image
-		g.drawImage(scaledImages[viewDirection][0], drawX, drawY-(squareSize*viewScale*3), c);
+		if (layer == null){
+			drawVisible(g, c, images[viewDirection][0], drawX, drawY-top);
+			drawSquares(g, c, viewDirection, drawX, drawY, rotated, entities, screen);
+			drawVisible(g, c, images[viewDirection][1], drawX, drawY-top);
+			return;
+		}
+		drawStaticLayer(g, c, viewDirection, drawX, drawY, layer, images[viewDirection][0], screen);
 		
-		// draw contents
-		Image image;
-		Set<Door> doorsDrawn = new HashSet<>();
-		for(int row=0; row<rotated[0].length; row++){
-			// draw projectile at this row
-			for (Projectile p : projectiles){
-				if (p.getRow() == row-1){ // Ensures the projectile is drawn above their current row
-					drawProjectile(g, c, viewDirection, drawX, drawY, p);
-					p.setRow(-1);
+		// find the areas holding anything which isn't on the layer
+		for (int i = 0; i < entities.characterCount; i++){
+			CharacterFrame p = entities.frame.getCharacter(i);
+			int x = screenX(p.getX(alpha), p.getY(alpha), viewDirection, drawX, viewScale);
+			int y = screenY(p.getX(alpha), p.getY(alpha), viewDirection, drawY, viewScale);
+			// sprites are 32 pixels square, and the health bar is drawn just below them
+			entities.addDirty(x-(16*viewScale), y-(24*viewScale), 32*viewScale, 42*viewScale);
+		}
+		for (int i = 0; i < entities.projectileCount; i++){
+			ProjectileFrame p = entities.frame.getProjectile(i);
+			Image bulletImage = p.getImage(viewScale);
+			if (bulletImage == null){continue;}
+			int bulletSize = (p.getSize()*viewScale)/2;
+			int x = screenX(p.getX(alpha), p.getY(alpha), viewDirection, drawX, viewScale);
+			int y = screenY(p.getX(alpha), p.getY(alpha), viewDirection, drawY, viewScale);
+			entities.addDirty(x-bulletSize, y-bulletSize, bulletImage.getWidth(c), bulletImage.getHeight(c));
+		}
+		int col0 = Math.max(0, Math.floorDiv(-drawX, size));
+		int col1 = Math.min(rotated.getCols()-1, Math.floorDiv(c.getWidth() - drawX, size));
+		int row0 = Math.max(0, Math.floorDiv(-drawY, size));
+		int row1 = Math.min(rotated.getRows()-1, Math.floorDiv(c.getHeight() - drawY, size));
+		for (int row = row0; row <= row1; row++){
+			for (int col = col0; col <= col1; col++){
+				Item item = rotated.get(col, row);
+				if (!(item instanceof Floor)){continue;}
+				Image image = item.getScaledImage(viewDirection);
+				if (image != null){
+					entities.addDirty(drawX+(col*size)-(item.xOffset(viewDirection)*size),
+							drawY+(row*size)-(item.yOffset(viewDirection)*size), image.getWidth(c), image.getHeight(c));
 				}
 			}
-			// draw player at this row
-			for (Player p : players){
-				if (p.getRow() == row-1){ // Ensures the player is drawn above their current row
-					drawPlayer(g, c, viewDirection, drawX, drawY, p, player);
-					p.setRow(-1);
+		}
+		
+		// draw each area again from the background up, joining those which
+		// overlap so the entities near them are only drawn once
+		entities.mergeDirty(screen);
+		Shape clip = g.getClip();
+		for (int i = 0; i < entities.dirtyCount; i++){
+			Rectangle area = entities.dirty[i];
+			g.setClip(clip);
+			g.clipRect(area.x, area.y, area.width, area.height);
+			if (images[viewDirection][0] != null){
+				g.drawImage(images[viewDirection][0], drawX, drawY-top, c);
+			}
+			drawSquares(g, c, viewDirection, drawX, drawY, rotated, entities, area);
+		}
+		g.setClip(clip);
+		
+		// Draw foreground Image
+		drawVisible(g, c, images[viewDirection][1], drawX, drawY-top);
+	}
+
+	/**
+	 * Creates an empty static layer for a view direction at the canvas's
+	 * scale. The layer reaches DRAW_MARGIN squares past the background on
+	 * every side, so furniture drawn outside its own square isn't cut off.
+	 * @param c The canvas the layer will be drawn on
+	 * @param viewDirection The direction the room is viewed from
+	 * @param background The room's background image at the view scale, or null
+	 * @return The layer, with none of its chunks drawn yet
+	 */
+	StaticLayer createStaticLayer(GUICanvas c, int viewDirection, Image background){
+		int size = squareSize*c.getViewScale();
+		int top = 3*size;
+		int pad = DRAW_MARGIN*size;
+		ChunkedView rotated = views[viewDirection];
+		int layerWidth = rotated.getCols()*size;
+		int layerHeight = top + rotated.getRows()*size;
+		if (background != null){
+			layerWidth = Math.max(layerWidth, background.getWidth(c));
+			layerHeight = Math.max(layerHeight, background.getHeight(c));
+		}
+		return new StaticLayer(rotated, size, pad, top+pad, layerWidth+pad, layerHeight-top+pad);
+	}
+
+	/**
+	 * Draws the chunks of a static layer which are on screen: this room's
+	 * background with every item drawn on, except those lying on the floor.
+	 * A chunk is drawn onto its image first if it hasn't been yet, or if a
+	 * square near it has changed since.
+	 * @param g The Grapics object with which to draw the room
+	 * @param c The canvas on which to draw
+	 * @param viewDirection The direction the player is viewing in
+	 * @param drawX The x origin of the room
+	 * @param drawY The y origin of the room
+	 * @param layer The room's static layer for the view dir and scale
+	 * @param background The room's background image at the view scale, or null
+	 * @param screen The area of the screen being drawn
+	 */
+	private void drawStaticLayer(Graphics g, GUICanvas c, int viewDirection, int drawX, int drawY,
+			StaticLayer layer, Image background, Rectangle screen){
+		// the game thread changes the chunk versions before the layer version,
+		// so reading the layer version first makes the new chunk versions visible here
+		getLayerVersion();
+		int[] versions = chunkVersions[viewDirection];
+		int top = 3*squareSize*c.getViewScale();
+		for (int i = 0; i < layer.areas.length; i++){
+			Rectangle area = layer.areas[i];
+			if (!overlaps(screen, drawX+area.x, drawY+area.y, area.width, area.height)){continue;}
+			BufferedImage image = layer.images[i];
+			int version = versions[i]; // read before drawing, so a change made meanwhile is drawn next frame
+			if (image == null || layer.versions[i] != version){
+				if (image == null){
+					image = SpriteAtlas.createImage(area.width, area.height);
 				}
+				Graphics2D ig = image.createGraphics();
+				try {
+					ig.setComposite(AlphaComposite.Clear);
+					ig.fillRect(0, 0, area.width, area.height);
+					ig.setComposite(AlphaComposite.SrcOver);
+					ig.translate(-area.x, -area.y);
+					if (background != null){
+						ig.drawImage(background, 0, -top, c);
+					}
+					drawSquares(ig, c, viewDirection, 0, 0, views[viewDirection], null, area);
+				} finally {
+					ig.dispose();
+				}
+				layer.images[i] = image;
+				layer.versions[i] = version;
 			}
-			
-			// draw npc characters
-			for (NonPlayer npc : npcs){
-				if (npc.getRow() == row-1){ // Ensures the player is drawn above their current row
-					drawPlayer(g, c, viewDirection, drawX, drawY, npc, player);
-					npc.setRow(-1);
+			g.drawImage(image, drawX+area.x, drawY+area.y, c);
+		}
+	}
+
+	/**
+	 * Draws the items in an area, and the characters and projectiles
+	 * among them, a row at a time so nearer things are drawn in front.
+	 * @param g The Grapics object with which to draw the room
+	 * @param c The canvas on which to draw
+	 * @param viewDirection The direction the player is viewing in
+	 * @param drawX The x origin of the room
+	 * @param drawY The y origin of the room
+	 * @param rotated The room's contents as seen from the view dir
+	 * @param entities The characters and projectiles to draw, or null to
+	 * draw only the items which never move
+	 * @param bounds The area to draw in
+	 */
+	private void drawSquares(Graphics g, GUICanvas c, int viewDirection, int drawX, int drawY,
+			ChunkedView rotated, DrawList entities, Rectangle bounds){
+		int size = squareSize*c.getViewScale();
+		int cols = rotated.getCols();
+		int rows = rotated.getRows();
+		
+		// only the squares in the area are drawn; the margin takes in anything
+		// drawn outside its own square, such as tall furniture and characters
+		int col0 = Math.max(0, Math.floorDiv(bounds.x - drawX, size) - DRAW_MARGIN);
+		int col1 = Math.min(cols-1, Math.floorDiv(bounds.x + bounds.width - drawX, size) + DRAW_MARGIN);
+		int row0 = Math.max(0, Math.floorDiv(bounds.y - drawY, size) - DRAW_MARGIN);
+		int row1 = Math.min(rows-1, Math.floorDiv(bounds.y + bounds.height - drawY, size) + DRAW_MARGIN);
+		int cx0 = col0 / ChunkedView.CHUNK_SIZE;
+		int cx1 = Math.floorDiv(col1, ChunkedView.CHUNK_SIZE);
+		
+		// draw contents
+		for(int row=row0; row<=row1; row++){
+			if (entities != null){
+				// entities are drawn just before the row below them, so they are drawn above their current row
+				// draw projectiles at this row
+				for (int i = entities.projectileHeads[row]; i >= 0; i = entities.projectileNext[i]){
+					drawProjectile(g, c, viewDirection, drawX, drawY,
+							entities.frame.getProjectile(i), entities.alpha, bounds);
+				}
+				// draw players and npcs at this row
+				for (int i = entities.characterHeads[row]; i >= 0; i = entities.characterNext[i]){
+					drawPlayer(g, c, viewDirection, drawX, drawY,
+							entities.frame.getCharacter(i), entities.local, entities.alpha, bounds);
 				}
 			}
-			// draw items at this row
-			for(int col=0; col<rotated.length; col++){
-				Item item = rotated[col][row];
-				
-				// Checked locked door modifiers
-				int yOffsetMod = 0;
-				if (item instanceof Door){
-					if (doorsDrawn.contains(item)){
-						continue;
-					} else {
-						doorsDrawn.add((Door) item);
+			// draw items at this row, a chunk at a time
+			int rowStart = (row % ChunkedView.CHUNK_SIZE)*ChunkedView.CHUNK_SIZE;
+			for (int cx = cx0; cx <= cx1; cx++){
+				Item[] chunk = rotated.getChunk(cx, row / ChunkedView.CHUNK_SIZE);
+				int chunkCol = cx*ChunkedView.CHUNK_SIZE;
+				int firstCol = Math.max(col0, chunkCol);
+				int lastCol = Math.min(col1+1, chunkCol+ChunkedView.CHUNK_SIZE);
+				for(int col=firstCol; col<lastCol; col++){
+					Item item = chunk[rowStart + col - chunkCol];
+					if (entities == null && item instanceof Floor){
+						continue; // items on the floor can be picked up, so are never on the static layer
 					}
-					if (row+1 >= rotated[0].length || rotated[col][row+1] instanceof Wall){
-						yOffsetMod = 1;
+					
+					// Checked locked door modifiers
+					int yOffsetMod = 0;
+					if (item instanceof Door){
+						// a door is drawn once, from its top left square
+						if ((col > 0 && rotated.get(col-1, row) == item)
+								|| (row > 0 && rotated.get(col, row-1) == item)){
+							continue;
+						}
+						if (row+1 >= rows || rotated.get(col, row+1) instanceof Wall){
+							yOffsetMod = 1;
+						}
+					}
+					
+					// draw item at current square
+					Image image = item.getScaledImage(viewDirection);
+					if(image != null){
+						int x = drawX+(col*size)-(item.xOffset(viewDirection)*size);
+						int y = drawY+(row*size)-((item.yOffset(viewDirection)+yOffsetMod)*size);
+						if (overlaps(bounds, x, y, image.getWidth(c), image.getHeight(c))){
+							g.drawImage(image, x, y, c);
+						}
 					}
-				}
-				
-				// draw item at current square
-				if(item.getScaledImage(viewDirection) != null){
-					image = item.getScaledImage(viewDirection);
-					g.drawImage(image, drawX+(col*squareSize*viewScale)-(item.xOffset(viewDirection)*squareSize*viewScale), 
-							drawY+(row*squareSize*viewScale)-((item.yOffset(viewDirection)+yOffsetMod)*squareSize*viewScale), c);
 				}
 			}
 		}
-		
-		// Draw foreground Image
-		g.drawImage(scaledImages[viewDirection][1], drawX, drawY-(squareSize*viewScale*3), c);
+	}
+
+	/**
+	 * Draws the part of an image which is on screen.
+	 * @param g The Grapics object with which to draw
+	 * @param c The canvas on which to draw
+	 * @param image The image to draw, or null to draw nothing
+	 * @param x The x position of the image's left edge
+	 * @param y The y position of the image's top edge
+	 */
+	private static void drawVisible(Graphics g, GUICanvas c, Image image, int x, int y){
+		if (image == null){return;}
+		int sx1 = Math.max(0, -x);
+		int sy1 = Math.max(0, -y);
+		// the source must stay inside the image, or the edge is stretched to fill it
+		int sx2 = Math.min(image.getWidth(c), c.getWidth() - x);
+		int sy2 = Math.min(image.getHeight(c), c.getHeight() - y);
+		if (sx1 >= sx2 || sy1 >= sy2){return;}
+		g.drawImage(image, x+sx1, y+sy1, x+sx2, y+sy2, sx1, sy1, sx2, sy2, c);
+	}
+
+	/**
+	 * Determines whether any of a rectangle falls in an area.
+	 * @param bounds The area
+	 * @param x The left of the rectangle
+	 * @param y The top of the rectangle
+	 * @param width The width of the rectangle
+	 * @param height The height of the rectangle
+	 * @return true iff the rectangle overlaps the area
+	 */
+	private static boolean overlaps(Rectangle bounds, int x, int y, int width, int height){
+		return x < bounds.x + bounds.width && y < bounds.y + bounds.height
+				&& x + width > bounds.x && y + height > bounds.y;
 	}
 
 	/**
@@ -345,44 +659,23 @@ public class Room {
 	 * @param drawX The x origin of the room
 	 * @param drawY The y origin of the room
 	 * @param p The player to draw
-	 * @param clientPlayer 
+	 * @param clientPlayer The frame of the player the room is drawn for
+	 * @param alpha How far between the previous and current tick to draw
+	 * @param bounds The area being drawn in
 	 */
-	private void drawPlayer(Graphics g, GUICanvas c, int viewDirection,
-			int drawX, int drawY, Player p, Player clientPlayer) {
-		Image playerImage = p.getImage(viewDirection);
+	private void drawPlayer(Graphics g, GUICanvas c, int viewDirection, int drawX, int drawY,
+			CharacterFrame p, CharacterFrame clientPlayer, double alpha, Rectangle bounds) {
+		Image playerImage = p.getImage(GUICanvas.convertToViewDir(p.getFacing(), viewDirection));
 		int viewScale = c.getViewScale();
-		int playerX = p.getX();
-		int playerY = p.getY();
-		int x;
-		int y;
 		// draw player relative to view direction
-		switch(viewDirection){
-		case 1: // EAST
-			x = drawX+(playerY*viewScale);
-			y = drawY+((width-playerX)*viewScale);
-			//g.drawImage(playerImage, drawX+(playerY*viewScale)-(16*viewScale),
-			//		drawY+((width-playerX)*viewScale)-(24*viewScale), c);
-			break;
-		case 2: // SOUTH
-			x = drawX+((width-playerX)*viewScale);
-			y = drawY+((height-playerY)*viewScale);
-			//g.drawImage(playerImage, drawX+((width-playerX)*viewScale)-(16*viewScale),
-			//		drawY+((height-playerY)*viewScale)-(24*viewScale), c);
-			break;
-		case 3: // WEST
-			x = drawX+((height-playerY)*viewScale);
-			y = drawY+(playerX*viewScale);
-			//g.drawImage(playerImage, drawX+((height-playerY)*viewScale)-(16*viewScale),
-			//		drawY+(playerX*viewScale)-(24*viewScale), c);
-			break;
-		default: // NORTH
-			x = drawX+(playerX*viewScale);
-			y = drawY+(playerY*viewScale);
-			//g.drawImage(playerImage, drawX+(playerX*viewScale)-(16*viewScale),
-			//		drawY+(playerY*viewScale)-(24*viewScale), c);
+		int x = screenX(p.getX(alpha), p.getY(alpha), viewDirection, drawX, viewScale);
+		int y = screenY(p.getX(alpha), p.getY(alpha), viewDirection, drawY, viewScale);
+		// sprites are 32 pixels square, and the health bar is drawn just below them
+		if (!overlaps(bounds, x-(16*viewScale), y-(24*viewScale), 32*viewScale, 42*viewScale)){
+			return;
 		}
 		g.drawImage(playerImage, x-(16*viewScale), y-(24*viewScale), c);
-		if (p != clientPlayer && p.getHealth() < p.getMaxHealth()){
+		if (!p.isSameCharacter(clientPlayer) && p.getHealth() < p.getMaxHealth()){
 			// draw remaining health
 			g.setColor(Color.RED);
 			int playerHealth = p.getHealth();
@@ -402,93 +695,238 @@ public class Room {
 	 * @param drawX The x origin of the room
 	 * @param drawY The y origin of the room
 	 * @param p The projectile to draw
+	 * @param alpha How far between the previous and current tick to draw
+	 * @param bounds The area being drawn in
 	 */
-	private void drawProjectile(Graphics g, GUICanvas c, int viewDirection, int drawX, int drawY, Projectile p){
+	private void drawProjectile(Graphics g, GUICanvas c, int viewDirection, int drawX, int drawY,
+			ProjectileFrame p, double alpha, Rectangle bounds){
 		int viewScale = c.getViewScale();
 		Image bulletImage = p.getImage(viewScale);
 		int bulletSize = (p.getSize()*viewScale)/2;
-		g.setColor(Color.GREEN);
-		int x;
-		int y;
 		// draw projectile relative to view direction
+		int x = screenX(p.getX(alpha), p.getY(alpha), viewDirection, drawX, viewScale);
+		int y = screenY(p.getX(alpha), p.getY(alpha), viewDirection, drawY, viewScale);
+		if (bulletImage != null && overlaps(bounds, x-bulletSize, y-bulletSize,
+				bulletImage.getWidth(c), bulletImage.getHeight(c))){
+			g.drawImage(bulletImage, x-bulletSize, y-bulletSize, c);
+		}
+	}
+	
+	/**
+	 * Gets where a position in the room was drawn on screen, the last
+	 * time the room was drawn.
+	 * @param x The x position in the room
+	 * @param y The y position in the room
+	 * @param viewDirection The direction the room was viewed in
+	 * @param viewScale The scale the room was drawn at
+	 * @return The x position on screen
+	 */
+	public int getScreenX(int x, int y, int viewDirection, int viewScale){
+		return screenX(x, y, viewDirection, xOrigin, viewScale);
+	}
+	
+	/**
+	 * Gets where a position in the room was drawn on screen, the last
+	 * time the room was drawn.
+	 * @param x The x position in the room
+	 * @param y The y position in the room
+	 * @param viewDirection The direction the room was viewed in
+	 * @param viewScale The scale the room was drawn at
+	 * @return The y position on screen
+	 */
+	public int getScreenY(int x, int y, int viewDirection, int viewScale){
+		return screenY(x, y, viewDirection, yOrigin, viewScale);
+	}
+	
+	/**
+	 * Gets the x position on screen of a position in the room.
+	 * @param x The x position in the room
+	 * @param y The y position in the room
+	 * @param viewDirection The direction the room is being viewed in
+	 * @param drawX The x origin of the room
+	 * @param viewScale The scale the room is drawn at
+	 * @return The x position on screen
+	 */
+	private int screenX(int x, int y, int viewDirection, int drawX, int viewScale){
 		switch(viewDirection){
-		case 1:
-			x = drawX+(p.getY()*viewScale);
-			y = drawY+((width-p.getX())*viewScale);
-			break;
-		case 2:
-			x = drawX+((width-p.getX())*viewScale);
-			y = drawY+((height-p.getY())*viewScale);
-			break;
-		case 3:
-			x = drawX+((height-p.getY())*viewScale);
-			y = drawY+(p.getX()*viewScale);
-			break;
-		default:
-			x = drawX+(p.getX()*viewScale);
-			y = drawY+(p.getY()*viewScale);
+		case 1: // EAST
+			return drawX+(y*viewScale);
+		case 2: // SOUTH
+			return drawX+((width-x)*viewScale);
+		case 3: // WEST
+			return drawX+((height-y)*viewScale);
+		default: // NORTH
+			return drawX+(x*viewScale);
 		}
-		//g.fillRect(x, y, 2, 2);
-		g.drawImage(bulletImage, x-bulletSize, y-bulletSize, c);
 	}
 	
 	/**
-	 * Sets the current row of the players for drawing relative to
-	 * the view direction.
-	 * @param viewDirection The direction the room is being viewed in.
+	 * Gets the y position on screen of a position in the room.
+	 * @param x The x position in the room
+	 * @param y The y position in the room
+	 * @param viewDirection The direction the room is being viewed in
+	 * @param drawY The y origin of the room
+	 * @param viewScale The scale the room is drawn at
+	 * @return The y position on screen
 	 */
-	private void checkPlayers(int viewDirection) {
+	private int screenY(int x, int y, int viewDirection, int drawY, int viewScale){
 		switch(viewDirection){
 		case 1: // EAST
-			for (Player p : getAllCharacters()){
-				p.setRow(rowFromY(width-p.getX()));
-			}
-			break;
+			return drawY+((width-x)*viewScale);
 		case 2: // SOUTH
-			for (Player p : getAllCharacters()){
-				p.setRow(rowFromY(height-p.getY()));
-			}
-			break;
+			return drawY+((height-y)*viewScale);
 		case 3: // WEST
-			for (Player p : getAllCharacters()){
-				p.setRow(rowFromY(p.getX()));
+			return drawY+(x*viewScale);
+		default: // NORTH
+			return drawY+(y*viewScale);
+		}
+	}
+	
+	/**
+	 * The characters and projectiles of a frame, bucketed by the row they
+	 * are drawn before, and the areas of the screen they cover.
+	 *
+	 * Each row has a linked list of the entities drawn just before it, held
+	 * in arrays which are kept from one frame to the next, so sorting a
+	 * frame takes one pass over the rows and one over the entities, and
+	 * allocates nothing once the arrays are big enough.
+	 */
+	private class DrawList {
+		private FrameSnapshot frame;
+		private int characterCount;
+		private int projectileCount;
+		private CharacterFrame local; // the player the room is drawn for
+		private double alpha;
+		// the first entity drawn before each row, and the entity after each one, or -1 at the end
+		private int[] characterHeads = new int[0];
+		private int[] projectileHeads = new int[0];
+		private int[] characterNext = new int[0];
+		private int[] projectileNext = new int[0];
+		private Rectangle screen = new Rectangle();
+		private Rectangle[] dirty = new Rectangle[0]; // areas to draw again, of which the first dirtyCount are in use
+		private int dirtyCount;
+		
+		/**
+		 * Buckets the entities of a frame by row, and forgets the last
+		 * frame's dirty areas.
+		 * @param frame The snapshot holding the characters and projectiles to draw
+		 * @param viewDirection The direction the room is viewed from
+		 * @param rows The number of rows seen from the view direction
+		 * @param alpha How far between the previous and current tick to draw
+		 */
+		void fill(FrameSnapshot frame, int viewDirection, int rows, double alpha){
+			this.frame = frame;
+			characterCount = frame.getCharacterCount();
+			projectileCount = frame.getProjectileCount();
+			local = frame.getLocal();
+			this.alpha = alpha;
+			dirtyCount = 0;
+			if (characterHeads.length < rows){
+				characterHeads = new int[rows];
+				projectileHeads = new int[rows];
 			}
-			break;
-		case 0: default: // DEFAULT TO NORTH
-			for (Player p : getAllCharacters()){
-				p.setRow(rowFromY(p.getY()));
+			Arrays.fill(characterHeads, -1);
+			Arrays.fill(projectileHeads, -1);
+			if (characterNext.length < characterCount){
+				characterNext = new int[characterCount];
 			}
-			break;
+			if (projectileNext.length < projectileCount){
+				projectileNext = new int[projectileCount];
+			}
+			// added back to front, so entities in the same row are drawn in the order given
+			for (int i = characterCount-1; i >= 0; i--){
+				// an entity is drawn before the row below its own; those drawn before no row are never seen
+				CharacterFrame p = frame.getCharacter(i);
+				int row = viewRow(p.getX(alpha), p.getY(alpha), viewDirection) + 1;
+				if (row < 0 || row >= rows){continue;}
+				characterNext[i] = characterHeads[row];
+				characterHeads[row] = i;
+			}
+			for (int i = projectileCount-1; i >= 0; i--){
+				ProjectileFrame p = frame.getProjectile(i);
+				int row = viewRow(p.getX(alpha), p.getY(alpha), viewDirection) + 1;
+				if (row < 0 || row >= rows){continue;}
+				projectileNext[i] = projectileHeads[row];
+				projectileHeads[row] = i;
+			}
+		}
+		
+		/**
+		 * Adds an area of the screen to be drawn again.
+		 */
+		void addDirty(int x, int y, int width, int height){
+			if (dirtyCount == dirty.length){
+				dirty = Arrays.copyOf(dirty, Math.max(16, dirtyCount*2));
+				for (int i = dirtyCount; i < dirty.length; i++){
+					dirty[i] = new Rectangle();
+				}
+			}
+			dirty[dirtyCount++].setBounds(x, y, width, height);
+		}
+		
+		/**
+		 * Drops the dirty areas which are off the screen, and joins those
+		 * which overlap or touch into one area covering both, until no two
+		 * areas touch.
+		 * @param screen The area of the screen being drawn
+		 */
+		void mergeDirty(Rectangle screen){
+			int onScreen = 0;
+			for (int i = 0; i < dirtyCount; i++){
+				if (dirty[i].intersects(screen)){
+					swapDirty(i, onScreen++);
+				}
+			}
+			dirtyCount = onScreen;
+			// a joined area can reach one already looked at, so keep going until nothing changes
+			boolean merged = true;
+			while (merged){
+				merged = false;
+				for (int i = 0; i < dirtyCount; i++){
+					Rectangle a = dirty[i];
+					for (int j = i+1; j < dirtyCount; j++){
+						Rectangle b = dirty[j];
+						if (a.x <= b.x+b.width && b.x <= a.x+a.width
+								&& a.y <= b.y+b.height && b.y <= a.y+a.height){
+							a.add(b);
+							swapDirty(j, --dirtyCount);
+							j = i; // the area has grown, so look at the rest again
+							merged = true;
+						}
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Swaps two dirty areas, so the rectangles are kept for reuse.
+		 */
+		private void swapDirty(int i, int j){
+			Rectangle area = dirty[i];
+			dirty[i] = dirty[j];
+			dirty[j] = area;
 		}
 	}
 	
 	/**
-	 * Sets the current row of the projectiles for drawing relative to
-	 * the view direction.
+	 * Gets the row a position falls in relative to the view direction,
+	 * for drawing it at the correct depth.
+	 * @param x The x position in the room
+	 * @param y The y position in the room
 	 * @param viewDirection The direction the room is being viewed in.
+	 * @return The view relative row
 	 */
-	private void checkProjectiles(int viewDirection, Set<Projectile> toDraw) {
+	private int viewRow(int x, int y, int viewDirection) {
+		// not rowFromY, which clamps to the rows seen from the north
 		switch(viewDirection){
 		case 1: // EAST
-			for (Projectile p : toDraw){
-				p.setRow(rowFromY(width-p.getX()));
-			}
-			break;
+			return Math.floorDiv(width-x, squareSize);
 		case 2: // SOUTH
-			for (Projectile p : toDraw){
-				p.setRow(rowFromY(height-p.getY()));
-			}
-			break;
+			return Math.floorDiv(height-y, squareSize);
 		case 3: // WEST
-			for (Projectile p : toDraw){
-				p.setRow(rowFromY(p.getX()));
-			}
-			break;
+			return Math.floorDiv(x, squareSize);
 		case 0: default: // DEFAULT TO NORTH
-			for (Projectile p : toDraw){
-				p.setRow(rowFromY(p.getY()));
-			}
-			break;
+			return Math.floorDiv(y, squareSize);
 		}
 	}
 	
@@ -525,10 +963,11 @@ public class Room {
 	/** 
 	* Create a clone of the contents array which has then been
 	* rotated 90 degrees clockwise
+	* @param contents The array to rotate
 	* @return A clone of this.contents which has been rotated 90
 	* degrees clockwise.
 	*/
-	private Item[][] rotatedArrayClockwise(Item[][] contents){
+	public static Item[][] rotatedArrayClockwise(Item[][] contents){
 		int rows = contents.length;
 		int cols = contents[0].length;
 		
@@ -552,10 +991,11 @@ public class Room {
 	/** 
 	* Create a clone of the contents array which has then been
 	* rotated 90 degrees anti-clockwise
+	* @param contents The array to rotate
 	* @return A clone of this.contents which has been rotated 90
 	* degrees anti-clockwise.
 	*/
-	private Item[][] rotatedArrayAntiClockwise(Item[][] contents){
+	public static Item[][] rotatedArrayAntiClockwise(Item[][] contents){
 		int rows = contents.length;
 		int cols = contents[0].length;
 
@@ -579,10 +1019,11 @@ public class Room {
 	/** 
 	* Create a clone of the contents array which has then been
 	* rotated 180 degrees.
+	* @param contents The array to rotate
 	* @return A clone of this.contents which has been rotated 180
 	* degrees
 	*/
-	private Item[][] rotatedArray180(Item[][] contents){
+	public static Item[][] rotatedArray180(Item[][] contents){
 		int rows = contents.length;
 		int cols = contents[0].length;
 
@@ -604,7 +1045,10 @@ public class Room {
 	 * @param player The player to add
 	 */
 	public void addPlayer(Player player) {
-		players.add(player);
+		if (players.add(player)){
+			player.attach(characterStore);
+			grid.insert(player);
+		}
 	}
 	
 	/**
@@ -612,12 +1056,15 @@ public class Room {
 	 * @param player The player to remove
 	 */
 	public void removePlayer(Player player){
-			players.remove(player);
+			if (players.remove(player)){
+				grid.remove(player);
+				player.detach(characterStore);
+			}
 			
 			//If this is the last player in the room,
 			//clean up projectiles
 			if (players.size() == 0){
-				projectiles.removeAll(projectiles);
+				projectiles.clear();
 			}
 	}
 	
@@ -626,7 +1073,10 @@ public class Room {
 	 * @param npc The NPC to add
 	 */
 	public void addNPC(NonPlayer npc){
-			npcs.add(npc);
+			if (npcs.add(npc)){
+				npc.attach(characterStore);
+				grid.insert(npc);
+			}
 	}
 	
 	/**
@@ -634,7 +1084,10 @@ public class Room {
 	 * @param npc The NPC to remove
 	 */
 	public void removeNPC(NonPlayer npc){
-			npcs.remove(npc);
+			if (npcs.remove(npc)){
+				grid.remove(npc);
+				npc.detach(characterStore);
+			}
 	}
 	
 	/**
@@ -644,7 +1097,7 @@ public class Room {
 	public void addProjectile(Projectile p){
 		if (p == null){return;}
 		if (players.contains(p.getPlayer()) || npcs.contains(p.getPlayer())){
-			projectiles.add(p);
+			p.attach(projectiles);
 		}
 	}
 	
@@ -656,6 +1109,50 @@ public class Room {
 			projectiles.remove(p);
 	}
 
+	/**
+	 * Finds the square a position is in, in the tile grid.
+	 * Positions outside the room are moved to the nearest edge square,
+	 * the same as colFromX and rowFromY.
+	 * @param x The pixel x position
+	 * @param y The pixel y position
+	 * @return The index of the square
+	 */
+	private int tileIndex(int x, int y){
+		int col = x < 0 ? 0 : Math.min(x/squareSize, cols-1);
+		int row = y < 0 ? 0 : Math.min(y/squareSize, rows-1);
+		return row*cols + col;
+	}
+
+	/**
+	 * Determines whether a character can walk at a position.
+	 * @param x The pixel x position
+	 * @param y The pixel y position
+	 * @return true iff the square at (x,y) can be walked on
+	 */
+	public boolean canWalk(int x, int y){
+		return walkable.get(tileIndex(x, y));
+	}
+
+	/**
+	 * Determines whether a projectile is stopped at a position.
+	 * @param x The pixel x position
+	 * @param y The pixel y position
+	 * @return true iff the square at (x,y) stops projectiles
+	 */
+	public boolean blocksProjectile(int x, int y){
+		return blocksShots.get(tileIndex(x, y));
+	}
+
+	/**
+	 * Gets the type of the square at a position.
+	 * @param x The pixel x position
+	 * @param y The pixel y position
+	 * @return One of the TILE_ constants
+	 */
+	public byte tileAt(int x, int y){
+		return tiles[tileIndex(x, y)];
+	}
+
 	/**
 	 * Get the item at a given (x,y) co-ordinate.
 	 * @param x The x position of the item
@@ -669,7 +1166,7 @@ public class Room {
 		
 		//If it's outside of the room's contents, treat it as a wall
 		if (colX < 0 || colY < 0 || colX >= cols || colY >= rows){
-			return new Wall();
+			return OUT_OF_BOUNDS;
 		};
 		
 		return contents[colX][colY];
@@ -709,7 +1206,7 @@ public class Room {
 		if (Math.abs(xDiff) < 48 && Math.abs(yDiff) < 48){
 			return itemAt(newX, newY);
 		}
-		return new Wall();
+		return OUT_OF_BOUNDS;
 	}
 	
 	/**
@@ -756,24 +1253,18 @@ public class Room {
 		return null;
 	}
 	
+
 	/**
-	 * Gets the array of the unscaled background and foreground images for this room
-	 * @return The array of room images
-	 */
-	public Image[][] getImages() {
-		return images;
-	}
-	
-	/**
-	 * sets the array of scaled background and foregrouns images for this room
-	 * @param newImages The new array of images to set
+	 * Gets the grid which tracks where the characters in this room are.
+	 * @return The room's spatial grid
 	 */
-	public void setScaledImages(Image[][] newImages){
-		scaledImages = newImages;
+	public SpatialGrid getGrid() {
+		return grid;
 	}
 
 	/**
-	 * Gets the array of Items contained in this room
+	 * Gets the array of Items contained in this room.
+	 * Squares should be changed with setItem, not through this array.
 	 * @return the contents array
 	 */
 	public Item[][] getContents() {
@@ -792,55 +1283,161 @@ public class Room {
 	/**
 	 * Gets all players and non-player characters
 	 * in this room.
-	 * @return A Set of all characters in this room
+	 * @return A read-only Set of all characters in this room, players first
 	 */
 	public Set<Player> getAllCharacters() {
-			Set<Player> rtn = new HashSet<Player>();
-			rtn.addAll(players);
-			rtn.addAll(npcs);
-			
-			return rtn;
+		refreshCharacters();
+		return charactersView;
+	}
+
+	/**
+	 * Gets the number of players and non-player characters in this room.
+	 * @return The number of characters
+	 */
+	public int getCharacterCount() {
+		refreshCharacters();
+		return characters.size();
+	}
+
+	/**
+	 * Gets one of the characters in this room, without making an iterator.
+	 * @param index The character's position, players first, from 0 to getCharacterCount()-1
+	 * @return The character
+	 */
+	public Player getCharacter(int index) {
+		refreshCharacters();
+		return characters.get(index);
+	}
+
+	/**
+	 * Gets how many ticks the room's current update stands for. Rooms
+	 * which aren't updated every tick cover every tick since their last
+	 * update at once.
+	 * @return The number of ticks, at least 1
+	 */
+	public int getUpdateTicks() {
+		return updateTicks;
+	}
+
+	/**
+	 * Sets how many ticks the room's next update stands for.
+	 * @param ticks The number of ticks since the room was last updated
+	 */
+	void setUpdateTicks(int ticks) {
+		updateTicks = ticks;
+	}
+
+	/**
+	 * Rebuilds the list of all characters if a player or NPC has
+	 * arrived or left since it was last built.
+	 */
+	private void refreshCharacters() {
+		if (players.getVersion() != playersVersion || npcs.getVersion() != npcsVersion){
+			characters.clear();
+			characters.addAll(players);
+			characters.addAll(npcs);
+			playersVersion = players.getVersion();
+			npcsVersion = npcs.getVersion();
+		}
 	}
 
 	/**
 	 * Updates the room and all contained objects for the next frame.
 	 */
 	public void update() {
-			updateProjectiles();
-			updatePlayer();
-			updateNPCs();
+		simulate();
+		applyTransfers();
+	}
+	
+	/**
+	 * Updates everything inside the room, deferring anything which would
+	 * change another room. Rooms may be simulated in parallel, so this must
+	 * not touch any state outside the room.
+	 */
+	void simulate() {
+		updating = true;
+		players.setDeferring(true);
+		npcs.setDeferring(true);
+		TickProfiler profiler = ctrl.getProfiler();
+		long start = profiler.start();
+		updateProjectiles();
+		profiler.stop(Phase.PROJECTILES, start);
+		start = profiler.start();
+		updatePlayer();
+		profiler.stop(Phase.PLAYERS, start);
+		start = profiler.start();
+		updateNPCs();
+		profiler.stop(Phase.NPCS, start);
+		// characters which arrived or left during the update do so now
+		players.setDeferring(false);
+		npcs.setDeferring(false);
+		updating = false;
+	}
+	
+	/**
+	 * Applies the changes deferred during the last simulation step,
+	 * in the order they were made.
+	 */
+	void applyTransfers() {
+		for (int i = 0; i < transfers.size(); i++){
+			transfers.get(i).run();
+		}
+		transfers.clear();
+		// nothing is looking at the characters' slots now, so the slots
+		// of any which left can be given up
+		characterStore.compact();
+	}
+	
+	/**
+	 * Runs a change which affects more than this room, such as a character
+	 * walking through a door. While the room is being simulated the change
+	 * is held until every room has updated; otherwise it happens immediately.
+	 * @param transfer The change to make
+	 */
+	public void deferTransfer(Runnable transfer) {
+		if (updating){
+			transfers.add(transfer);
+		} else {
+			transfer.run();
+		}
 	}
 
 	/**
 	 * Updates all NPCs in the room for the next frame
 	 */
 	private void updateNPCs() {
-		Set<NonPlayer> temp = new HashSet<NonPlayer>(npcs);
-		
-		for (NonPlayer npc : temp){
+		for (int i = 0; i < npcs.size(); i++){
+			NonPlayer npc = npcs.get(i);
 			npc.update();
 			if (npc.isDead()){
 				npcs.remove(npc);
+				grid.remove(npc);
+				npc.detach(characterStore);
 			}
-		}		
-
+		}
 	}
 
 	/**
 	 * Updates they current player for the next frame.
 	 */
 	private void updatePlayer() {
-		Set<Player> temp = new HashSet<Player>(players);
-		
-		for(Player p : temp){
+		for (int i = 0; i < players.size(); i++){
+			Player p = players.get(i);
 			if (p.isDead()){
 				players.remove(p); //Make the player invisible
+				grid.remove(p);
+				p.detach(characterStore);
 				
 				//Schedule a respawn event
-				CharacterSpawner spawner = ctrl.getSpawner();
-				//TODO: Change this to respawn somewhere that isn't the tile they died on
-				Event respawn = new RespawnEvent(p, spawner.getRoom(), spawner.getX(), spawner.getY());
-				GameClock.getInstance().scheduleEvent(respawn , Player.RESPAWN_TIME);
+				deferTransfer(new Runnable(){
+					@Override
+					public void run() {
+						CharacterSpawner spawner = ctrl.getSpawner();
+						//TODO: Change this to respawn somewhere that isn't the tile they died on
+						Event respawn = new RespawnEvent(p, spawner.getRoom(), spawner.getX(), spawner.getY());
+						ctrl.getClock().scheduleEvent(respawn , Player.RESPAWN_TIME);
+					}
+				});
 			}
 		}
 	}
@@ -849,29 +1446,101 @@ public class Room {
 	 * Updates all projectiles for the next frame.
 	 */
 	private void updateProjectiles() {
-		Set<Projectile> temp = new HashSet<Projectile>(projectiles);
-		
-		for(Projectile p : temp){
-			p.update();
-			// check if projectile is outside room bounds
-			if (p.getX() < 0 || p.getX() > width || p.getY() < 0 || p.getY() > height){
-				p.setActive(false);
-			}
-			
-			//Remove the projectile if it's inactive
-			if (!p.isActive()){
-				projectiles.remove(p);
-			}
+		ProjectileSystem.update(projectiles, this);
+	}
+	
+	/**
+	 * Hashes the state of everything which moves in this room.
+	 * Each entity is hashed on its own and the results summed, so the
+	 * hash does not depend on the order entities are stored in.
+	 * @return A hash of this room's current state
+	 */
+	public long stateHash() {
+		long hash = 0;
+		refreshCharacters();
+		for (int i = 0; i < characters.size(); i++){
+			Player p = characters.get(i);
+			long h = p.getX();
+			h = h*31 + p.getY();
+			h = h*31 + p.getHealth();
+			h = h*31 + p.getPoints();
+			h = h*31 + p.getGlobalDir();
+			hash += mix(h);
 		}
+		for (int i = 0; i < projectiles.size(); i++){
+			long h = projectiles.getX(i) >> Projectile.FIXED_SHIFT;
+			h = h*31 + (projectiles.getY(i) >> Projectile.FIXED_SHIFT);
+			hash += mix(~h); // kept apart from a character in the same place
+		}
+		return hash;
+	}
+	
+	/**
+	 * Spreads the bits of a value, so similar states hash very differently.
+	 * @param h The value to mix
+	 * @return The mixed value
+	 */
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+	
+	/**
+	 * Gets the random number generator for this room. Rooms may update
+	 * in parallel, so each has its own generator seeded from the game.
+	 * @return This room's random number generator
+	 */
+	public Random getRandom() {
+		return random;
 	}
 	
 	/**
 	 * Gets the Set of projectiles in this room
-	 * @return the Set of projectiles
+	 * @return A copy of the projectiles in this room, in the order they were added
 	 */
 	public Set<Projectile> getProjectiles() {
+		Set<Projectile> rtn = new LinkedHashSet<Projectile>();
+		for (int i = 0; i < projectiles.size(); i++){
+			rtn.add(projectiles.getProjectile(i));
+		}
+		return rtn;
+	}
+
+	/**
+	 * Gets the store holding the state of every character in this room.
+	 * @return The room's character store
+	 */
+	public CharacterStore getCharacterStore() {
+		return characterStore;
+	}
+
+	/**
+	 * Gets the store holding the state of every projectile in this room.
+	 * @return The room's projectile store
+	 */
+	public ProjectileStore getProjectileStore() {
 		return projectiles;
 	}
+
+	/**
+	 * Gets the width of this room.
+	 * @return The width in pixels
+	 */
+	public int getWidth(){
+		return width;
+	}
+
+	/**
+	 * Gets the height of this room.
+	 * @return The height in pixels
+	 */
+	public int getHeight(){
+		return height;
+	}
 	
 	/**
 	 * Gets the name of this room.
@@ -889,6 +1558,51 @@ public class Room {
 		return description;
 	}
 
+	/**
+	 * Gets how dark the room is. Rooms which follow the time of day are
+	 * as dark as the night currently is.
+	 * @return The darkness, from 0 for fully lit to 1 for pitch black
+	 */
+	public float getDarkness() {
+		if (darkness == RoomLighting.NIGHT){
+			return ctrl.getNightAlpha();
+		}
+		return darkness;
+	}
+
+	/**
+	 * Gets the doors leading out of this room.
+	 * @return The doors in this room
+	 */
+	public Set<Door> getDoors() {
+		return doors;
+	}
+
+	/**
+	 * Gets the id of this room, which is the same on every client.
+	 * @return The room's id, or -1 if it hasn't been registered
+	 */
+	public int getId(){
+		return id;
+	}
+
+	/**
+	 * Sets the id of this room. Only called by the RoomRegistry.
+	 * @param id The room's id
+	 */
+	void setId(int id){
+		this.id = id;
+	}
+
+	/**
+	 * Gets a number which changes whenever a square of this room changes,
+	 * such as when a door is unlocked or an item is put down.
+	 * @return The room's layer version
+	 */
+	public int getLayerVersion(){
+		return layerVersion;
+	}
+
 	/**
 	 * Gets the number of columns in this room.
 	 * @return The number of columns in this room
@@ -905,67 +1619,6 @@ public class Room {
 		return rows;
 	}
 
-	@Override
-	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + cols;
-		result = prime * result + Arrays.deepHashCode(contents);
-		result = prime * result + ((ctrl == null) ? 0 : ctrl.hashCode());
-		result = prime * result + ((description == null) ? 0 : description.hashCode());
-		result = prime * result + ((doors == null) ? 0 : doors.hashCode());
-		result = prime * result + height;
-		result = prime * result + Arrays.deepHashCode(images);
-		result = prime * result + ((name == null) ? 0 : name.hashCode());
-		result = prime * result + rows;
-		result = prime * result + width;
-		return result;
-	}
-
-	@Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		Room other = (Room) obj;
-		if (cols != other.cols)
-			return false;
-		if (!Arrays.deepEquals(contents, other.contents))
-			return false;
-		if (ctrl == null) {
-			if (other.ctrl != null)
-				return false;
-		} else if (!ctrl.equals(other.ctrl))
-			return false;
-		if (description == null) {
-			if (other.description != null)
-				return false;
-		} else if (!description.equals(other.description))
-			return false;
-		if (doors == null) {
-			if (other.doors != null)
-				return false;
-		} else if (!doors.equals(other.doors))
-			return false;
-		if (height != other.height)
-			return false;
-		if (!Arrays.deepEquals(images, other.images))
-			return false;
-		if (name == null) {
-			if (other.name != null)
-				return false;
-		} else if (!name.equals(other.name))
-			return false;
-		if (rows != other.rows)
-			return false;
-		if (width != other.width)
-			return false;
-		return true;
-	}
-	
 	public Controller getController(){
 		return ctrl;
 	}
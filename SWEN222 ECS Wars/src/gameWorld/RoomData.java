@@ -0,0 +1,285 @@
+package gameWorld;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * The layout of a room as written in its room file: the description,
+ * the size, and the 2 char code of every square.
+ *
+ * Rooms are written by hand as text files, Rooms/name.txt, and compiled
+ * into a binary file, Rooms/name.room, which can be read back without
+ * any parsing. Each compiled file records the modification time and
+ * length of the text file it was made from, and is ignored if the text
+ * file has changed since. A room with no up to date compiled file is
+ * parsed from text, and its compiled file is written out if the rooms
+ * are in a folder, so the next start up can use it.
+ *
+ * Squares are stored as indexes into a palette of the distinct codes in
+ * the room, so door ids and spawners are kept exactly as written.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomData {
+	public static final String TEXT_EXTENSION = ".txt";
+	public static final String COMPILED_EXTENSION = ".room";
+
+	private static final int MAGIC = 0x45435352; // "ECSR"
+	private static final int VERSION = 1;
+
+	private String description;
+	private int cols;
+	private int rows;
+	private String[] palette; // the distinct codes in the room
+	private byte[] squares; // the palette index of each square, by row*cols + col
+
+	private RoomData(String description, int cols, int rows, String[] palette, byte[] squares){
+		this.description = description;
+		this.cols = cols;
+		this.rows = rows;
+		this.palette = palette;
+		this.squares = squares;
+	}
+
+	/**
+	 * Loads a room's layout, from its compiled file if that is up to date
+	 * and from its text file otherwise.
+	 * @param name The name of the room
+	 * @return The room's layout, or null if it couldn't be loaded
+	 */
+	public static RoomData load(String name){
+		URL text = RoomData.class.getResource("/Rooms/"+name+TEXT_EXTENSION);
+		if (text == null){
+			System.out.println("Error loading room file: " + name);
+			return null;
+		}
+		try {
+			URLConnection conn = text.openConnection();
+			long modified = conn.getLastModified();
+			long length = conn.getContentLengthLong();
+
+			URL compiled = RoomData.class.getResource("/Rooms/"+name+COMPILED_EXTENSION);
+			if (compiled != null){
+				RoomData data = read(readAll(compiled.openStream()), modified, length);
+				if (data != null){
+					return data;
+				}
+			}
+
+			RoomData data = parse(readAll(conn.getInputStream()));
+			if ("file".equals(text.getProtocol())){
+				try {
+					File source = new File(text.toURI());
+					data.writeTo(compiledFile(source), modified, length);
+				} catch (URISyntaxException | IOException e){
+					// the cache is only an optimisation, carry on without it
+				}
+			}
+			return data;
+		} catch (IOException | RuntimeException e){
+			System.out.println("Error loading room file: " + name + " " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Compiles a room's text file, writing the compiled file beside it.
+	 * @param source The room's text file
+	 * @throws IOException If either file couldn't be read or written
+	 */
+	public static void compile(File source) throws IOException {
+		RoomData data = parse(readAll(new FileInputStream(source)));
+		data.writeTo(compiledFile(source), source.lastModified(), source.length());
+	}
+
+	/**
+	 * Compiles every room listed in the room index, so the game can start
+	 * without parsing any room files.
+	 * @param args The resources folder, "Resources" if not given
+	 */
+	public static void main(String[] args){
+		File resources = new File(args.length > 0 ? args[0] : "Resources");
+		try {
+			Scanner s = new Scanner(new File(resources, "RoomIndex.txt"));
+			while (s.hasNextLine()){
+				String name = s.nextLine();
+				if (name.isEmpty()){continue;}
+				compile(new File(resources, "Rooms/"+name+TEXT_EXTENSION));
+				System.out.println("Compiled " + name);
+			}
+			s.close();
+		} catch (IOException e){
+			System.out.println("Error compiling rooms: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gets the compiled file belonging to a room's text file.
+	 */
+	private static File compiledFile(File source){
+		String name = source.getName();
+		name = name.substring(0, name.length()-TEXT_EXTENSION.length());
+		return new File(source.getParentFile(), name+COMPILED_EXTENSION);
+	}
+
+	/**
+	 * Parses the contents of a room's text file.
+	 * @param bytes The whole text file
+	 * @return The room's layout
+	 * @throws IOException If the file isn't a valid room
+	 */
+	public static RoomData parse(byte[] bytes) throws IOException {
+		String[] lines = new String(bytes, StandardCharsets.UTF_8).split("\r?\n");
+		if (lines.length < 3){
+			throw new IOException("room file too short");
+		}
+		int cols;
+		int rows;
+		try {
+			cols = Integer.parseInt(lines[1].trim());
+			rows = Integer.parseInt(lines[2].trim());
+		} catch (NumberFormatException e){
+			throw new IOException("bad room size");
+		}
+		if (lines.length < 3+rows){
+			throw new IOException("room file has fewer than "+rows+" rows");
+		}
+
+		List<String> palette = new ArrayList<>();
+		byte[] squares = new byte[cols*rows];
+		for (int r = 0; r < rows; r++){
+			String line = lines[3+r];
+			if (line.length() < cols*2){
+				throw new IOException("row "+r+" is shorter than "+cols+" squares");
+			}
+			for (int c = 0; c < cols; c++){
+				String code = line.substring(c*2, c*2+2);
+				int index = palette.indexOf(code);
+				if (index < 0){
+					index = palette.size();
+					if (index > 255){
+						throw new IOException("more than 256 different codes in room");
+					}
+					palette.add(code);
+				}
+				squares[r*cols + c] = (byte)index;
+			}
+		}
+		return new RoomData(lines[0], cols, rows, palette.toArray(new String[palette.size()]), squares);
+	}
+
+	/**
+	 * Reads a compiled room.
+	 * @param bytes The whole compiled file
+	 * @param modified The modification time of the room's text file
+	 * @param length The length of the room's text file
+	 * @return The room's layout, or null if the compiled file is out of date
+	 * @throws IOException If the compiled file is cut short
+	 */
+	public static RoomData read(byte[] bytes, long modified, long length) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		if (in.readInt() != MAGIC || in.readInt() != VERSION){return null;}
+		if (in.readLong() != modified || in.readLong() != length){return null;}
+
+		String description = in.readUTF();
+		int cols = in.readInt();
+		int rows = in.readInt();
+		String[] palette = new String[in.readUnsignedShort()];
+		for (int i = 0; i < palette.length; i++){
+			palette[i] = in.readUTF();
+		}
+		byte[] squares = new byte[cols*rows];
+		in.readFully(squares);
+		return new RoomData(description, cols, rows, palette, squares);
+	}
+
+	/**
+	 * Writes this room as a compiled file.
+	 * @param file The file to write
+	 * @param modified The modification time of the room's text file
+	 * @param length The length of the room's text file
+	 * @throws IOException If the file couldn't be written
+	 */
+	private void writeTo(File file, long modified, long length) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(modified);
+		out.writeLong(length);
+		out.writeUTF(description);
+		out.writeInt(cols);
+		out.writeInt(rows);
+		out.writeShort(palette.length);
+		for (String code : palette){
+			out.writeUTF(code);
+		}
+		out.write(squares);
+		out.flush();
+
+		FileOutputStream fileOut = new FileOutputStream(file);
+		try {
+			bytes.writeTo(fileOut);
+		} finally {
+			fileOut.close();
+		}
+	}
+
+	/**
+	 * Reads the whole of a stream and closes it.
+	 */
+	private static byte[] readAll(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 256));
+			byte[] buffer = new byte[4096];
+			int n;
+			while ((n = in.read(buffer)) > 0){
+				out.write(buffer, 0, n);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Determines whether a code is a door: doors are written as their
+	 * 2 digit id.
+	 * @param code A 2 char code from a room file
+	 * @return true iff the code is a door id
+	 */
+	public static boolean isDoor(String code){
+		return code.length() == 2 && Character.isDigit(code.charAt(0)) && Character.isDigit(code.charAt(1));
+	}
+
+	/**
+	 * Gets the code of a square.
+	 * @param col The column of the square
+	 * @param row The row of the square
+	 * @return The 2 char code the square was written as
+	 */
+	public String getCode(int col, int row){
+		return palette[squares[row*cols + col] & 0xFF];
+	}
+
+	public String getDescription(){return description;}
+
+	public int getCols(){return cols;}
+
+	public int getRows(){return rows;}
+}
@@ -0,0 +1,316 @@
+package gameWorld;
+
+import gameWorld.gameObjects.Door;
+import gameWorld.gameObjects.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * How the rooms of a game connect through their doors, so characters
+ * can find their way from one room to another.
+ *
+ * The graph is built in two levels. Within each room, every open door has
+ * a distance field giving the number of squares from each square of the
+ * room to that door. Between rooms, the cost of reaching each room from
+ * each door is worked out once from those fields. A route to another
+ * room is then a single lookup per door in the current room, and each
+ * step along it just walks down the chosen door's distance field.
+ *
+ * Locking or unlocking a door marks the graph out of date. It is rebuilt
+ * between ticks, so every room sees the same graph for the whole tick.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomGraph {
+	private static final int SQUARE = 24; // pixels per square
+	private static final short FAR = Short.MAX_VALUE; // a square with no path to the door
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	// offsets of the neighbouring squares in each global direction: up, right, down, left
+	private static final int[] DCOL = {0, 1, 0, -1};
+	private static final int[] DROW = {-1, 0, 1, 0};
+
+	private final List<Room> rooms; // by id
+	private final Collection<Door> doors;
+	private volatile boolean dirty = true;
+
+	private List<List<Side>> sidesByRoom; // the open doors in each room, by room id
+	private int[][] exitCost; // squares from each side to reaching each room, by [side][room id]
+
+	/**
+	 * Creates the graph of a game's rooms.
+	 * @param rooms Every room, in id order
+	 * @param doors Every door
+	 */
+	public RoomGraph(List<Room> rooms, Collection<Door> doors){
+		this.rooms = rooms;
+		this.doors = doors;
+		refresh();
+	}
+
+	/**
+	 * Marks the graph as out of date, such as when a door is locked or
+	 * unlocked. Safe to call at any time.
+	 */
+	public void invalidate(){
+		dirty = true;
+	}
+
+	/**
+	 * Rebuilds the graph if it is out of date. Must only be called from
+	 * the game loop while no rooms are updating.
+	 */
+	public void refresh(){
+		if (!dirty){return;}
+		dirty = false;
+		build();
+	}
+
+	/**
+	 * Works out which way to move to head for another room.
+	 * @param from The room the character is in
+	 * @param x The character's x position
+	 * @param y The character's y position
+	 * @param to The room to head for
+	 * @return The global direction to move in, or -1 if there is no route
+	 */
+	public int nextMove(Room from, int x, int y, Room to){
+		Side side = bestSide(from, x, y, to);
+		if (side == null){return -1;}
+		int col = x / SQUARE;
+		int row = y / SQUARE;
+		int cols = from.getCols();
+		int here = side.field[row*cols + col];
+
+		int best = -1;
+		int bestDist = here;
+		for (int dir = 0; dir < 4; dir++){
+			int dist = fieldAt(side, from, col+DCOL[dir], row+DROW[dir]);
+			if (here == 0 && dist == 1){
+				// standing in the door: keep going the way we came in
+				return (dir+2) % 4;
+			}
+			if (dist < bestDist){
+				best = dir;
+				bestDist = dist;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Gets the number of squares to walk to reach another room.
+	 * @param from The room the character is in
+	 * @param x The character's x position
+	 * @param y The character's y position
+	 * @param to The room to reach
+	 * @return The length of the shortest route, 0 if already there,
+	 * or -1 if there is no route
+	 */
+	public int distance(Room from, int x, int y, Room to){
+		if (from == to){return 0;}
+		Side side = bestSide(from, x, y, to);
+		if (side == null){return -1;}
+		int tile = (y / SQUARE)*from.getCols() + x / SQUARE;
+		return side.field[tile] + exitCost[side.index][to.getId()];
+	}
+
+	/**
+	 * Finds the door in a room which leads soonest to another room.
+	 * @return The door's side in the room, or null if there is no route
+	 */
+	private Side bestSide(Room from, int x, int y, Room to){
+		int fromId = from.getId();
+		int toId = to.getId();
+		if (from == to || fromId < 0 || toId < 0 || fromId >= sidesByRoom.size()){return null;}
+		int col = x / SQUARE;
+		int row = y / SQUARE;
+		if (x < 0 || y < 0 || col >= from.getCols() || row >= from.getRows()){return null;}
+		int tile = row*from.getCols() + col;
+
+		Side best = null;
+		long min = UNREACHABLE;
+		List<Side> sides = sidesByRoom.get(fromId);
+		for (int i = 0; i < sides.size(); i++){
+			Side s = sides.get(i);
+			if (s.field[tile] == FAR || exitCost[s.index][toId] == UNREACHABLE){continue;}
+			long cost = (long)s.field[tile] + exitCost[s.index][toId];
+			if (cost < min){
+				best = s;
+				min = cost;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Gets the distance to a side's door from a square, or FAR if the
+	 * square is outside the room.
+	 */
+	private static int fieldAt(Side side, Room room, int col, int row){
+		if (col < 0 || row < 0 || col >= room.getCols() || row >= room.getRows()){return FAR;}
+		return side.field[row*room.getCols() + col];
+	}
+
+	/**
+	 * Builds the distance field of every open door, then the cost of
+	 * reaching every room from each of them.
+	 */
+	private void build(){
+		// doors are taken in id order so ties are broken the same way on every client
+		List<Door> sorted = new ArrayList<>(doors);
+		Collections.sort(sorted, new Comparator<Door>(){
+			@Override
+			public int compare(Door a, Door b) {
+				return a.getId().compareTo(b.getId());
+			}
+		});
+
+		List<Side> sides = new ArrayList<>();
+		List<List<Side>> byRoom = new ArrayList<>();
+		for (int i = 0; i < rooms.size(); i++){
+			byRoom.add(new ArrayList<Side>());
+		}
+		for (Door d : sorted){
+			Room r1 = d.getRoom1();
+			Room r2 = d.getRoom2();
+			if (r2 == null || !d.canWalk() || r1.getId() < 0 || r2.getId() < 0){continue;}
+			Side a = new Side(d, r1, r2, sides.size());
+			sides.add(a);
+			Side b = new Side(d, r2, r1, sides.size());
+			sides.add(b);
+			a.twin = b;
+			b.twin = a;
+			byRoom.get(r1.getId()).add(a);
+			byRoom.get(r2.getId()).add(b);
+		}
+		for (Side s : sides){
+			buildField(s);
+		}
+
+		// the cost of coming through one door and walking to another in the same room
+		int[][] across = new int[sides.size()][sides.size()];
+		for (Side s : sides){
+			Arrays.fill(across[s.index], UNREACHABLE);
+			for (Side next : byRoom.get(s.room.getId())){
+				if (next == s){continue;}
+				for (int tile : s.tiles){
+					if (next.field[tile] != FAR){
+						across[s.index][next.index] = Math.min(across[s.index][next.index], next.field[tile]);
+					}
+				}
+			}
+		}
+
+		// relax until no route gets any shorter; there are only a few dozen sides
+		int[][] cost = new int[sides.size()][rooms.size()];
+		for (Side s : sides){
+			Arrays.fill(cost[s.index], UNREACHABLE);
+			cost[s.index][s.other.getId()] = 1;
+		}
+		boolean changed = true;
+		while (changed){
+			changed = false;
+			for (Side s : sides){
+				Side arrived = s.twin;
+				for (Side next : byRoom.get(s.other.getId())){
+					if (next == arrived){continue;}
+					int walk = across[arrived.index][next.index];
+					if (walk == UNREACHABLE){continue;}
+					for (int room = 0; room < rooms.size(); room++){
+						int onward = cost[next.index][room];
+						if (onward == UNREACHABLE){continue;}
+						int total = 1 + walk + onward;
+						if (total < cost[s.index][room]){
+							cost[s.index][room] = total;
+							changed = true;
+						}
+					}
+				}
+			}
+		}
+
+		sidesByRoom = byRoom;
+		exitCost = cost;
+	}
+
+	/**
+	 * Fills in the distance from every square of a room to one of its
+	 * doors, by a breadth first search out from the door. Squares holding
+	 * other doors get a distance but the search doesn't carry on through them.
+	 * @param s The door's side in the room
+	 */
+	private static void buildField(Side s){
+		Room room = s.room;
+		int cols = room.getCols();
+		int rows = room.getRows();
+		Item[][] contents = room.getContents();
+		short[] field = new short[cols*rows];
+		Arrays.fill(field, FAR);
+
+		int[] queue = new int[cols*rows];
+		int head = 0;
+		int tail = 0;
+		List<Integer> tiles = new ArrayList<>();
+		for (int r = 0; r < rows; r++){
+			for (int c = 0; c < cols; c++){
+				if (contents[c][r] == s.door){
+					field[r*cols + c] = 0;
+					queue[tail++] = r*cols + c;
+					tiles.add(r*cols + c);
+				}
+			}
+		}
+		while (head < tail){
+			int tile = queue[head++];
+			int col = tile % cols;
+			int row = tile / cols;
+			for (int dir = 0; dir < 4; dir++){
+				int c = col + DCOL[dir];
+				int r = row + DROW[dir];
+				if (c < 0 || r < 0 || c >= cols || r >= rows){continue;}
+				int next = r*cols + c;
+				if (field[next] != FAR){continue;}
+				byte type = room.tileAt(c*SQUARE + SQUARE/2, r*SQUARE + SQUARE/2);
+				if (type == Room.TILE_FLOOR){
+					field[next] = (short)(field[tile] + 1);
+					queue[tail++] = next;
+				} else if (type == Room.TILE_DOOR){
+					field[next] = (short)(field[tile] + 1); // reachable, but leads elsewhere
+				}
+			}
+		}
+
+		s.field = field;
+		s.tiles = new int[tiles.size()];
+		for (int i = 0; i < s.tiles.length; i++){
+			s.tiles[i] = tiles.get(i);
+		}
+	}
+
+	/**
+	 * One side of an open door: the door as seen from one of its rooms.
+	 */
+	private static class Side {
+		private final Door door;
+		private final Room room; // the room this side is in
+		private final Room other; // the room through the door
+		private final int index;
+		private Side twin; // the same door from the other room
+		private int[] tiles; // the door's squares in this room
+		private short[] field; // squares from each square of the room to the door
+
+		Side(Door door, Room room, Room other, int index){
+			this.door = door;
+			this.room = room;
+			this.other = other;
+			this.index = index;
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package gameWorld;
+
+import gameWorld.gameObjects.Door;
+import gui.GUICanvas;
+
+import java.awt.Image;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The background and foreground images of the rooms which are being
+ * drawn, or are likely to be drawn soon.
+ *
+ * A room's images are only read when it is first drawn, or when the
+ * player walks up to a door leading into it, in which case they are read
+ * in the background before the player goes through. Only the most
+ * recently used rooms keep their images; the rest are let go and read
+ * again if they are needed.
+ *
+ * Scaling is lazy too: changing the view scale only records the new
+ * scale, and each room's images are scaled the next time the room is
+ * drawn. Items are scaled by the SpriteAtlas.
+ *
+ * Each loaded room also keeps a static layer per view direction: its
+ * background with all its furniture drawn on, a chunk at a time. The
+ * room draws each chunk when it first comes on screen and again when a
+ * square near it changes; the whole layer is only let go when the view
+ * scale changes.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomImageCache {
+	public static final int DEFAULT_CAPACITY = 4;
+	private static final int PREFETCH_RANGE = 24*4; // how close to a door to be before loading the next room
+	private static final String[] DIRECTIONS = {"North", "East", "South", "West"};
+
+	private final int capacity;
+	private int scale = 1;
+
+	// the loaded rooms, least recently used first
+	private final LinkedHashMap<Room, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Set<Room> loading = new HashSet<>(); // rooms queued for loading in the background
+	private final ExecutorService loader = Executors.newSingleThreadExecutor(new ThreadFactory(){
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "Room image loader");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
+	/**
+	 * Creates an empty cache.
+	 */
+	public RoomImageCache(){
+		this.capacity = Math.max(2, Integer.getInteger("ecs.roomImageCache", DEFAULT_CAPACITY));
+	}
+
+	/**
+	 * Gets a room's images at the current scale, reading and scaling
+	 * them first if need be.
+	 * @param room The room about to be drawn
+	 * @return The room's images, indexed by [view direction][0 for base, 1 for top]
+	 */
+	public Image[][] get(Room room){
+		Entry entry;
+		int scale;
+		synchronized (this){
+			entry = entries.get(room);
+			scale = this.scale;
+		}
+		if (entry == null){
+			entry = new Entry(read(room.getName()));
+		}
+		if (entry.scale != scale){
+			entry.scale(scale);
+		}
+		synchronized (this){
+			entries.put(room, entry);
+			evict();
+		}
+		return entry.scaled;
+	}
+
+	/**
+	 * Gets a room's static layer for a view direction at the current scale,
+	 * creating it first if need be. Only called while drawing the room.
+	 * @param room The room about to be drawn
+	 * @param viewDirection The direction the room is viewed from
+	 * @param c The canvas the room is drawn on
+	 * @return The layer, or null if the room's images aren't loaded at the canvas's scale
+	 */
+	StaticLayer getLayer(Room room, int viewDirection, GUICanvas c){
+		Entry entry;
+		synchronized (this){
+			entry = entries.get(room);
+		}
+		if (entry == null || entry.scale != c.getViewScale()){return null;}
+		if (entry.layers[viewDirection] == null){
+			entry.layers[viewDirection] = room.createStaticLayer(c, viewDirection, entry.scaled[viewDirection][0]);
+		}
+		return entry.layers[viewDirection];
+	}
+
+	/**
+	 * Starts reading the images of any room behind a door near a position,
+	 * so they are ready by the time the player walks through it.
+	 * @param room The room the position is in
+	 * @param x The x position, in pixels
+	 * @param y The y position, in pixels
+	 */
+	public void prefetchNear(Room room, int x, int y){
+		for (Door d : room.getDoors()){
+			Room other = d.getRoom2();
+			int col = d.getRoom1Col();
+			int row = d.getRoom1Row();
+			if (other == room || other == null){
+				other = d.getRoom1();
+				col = d.getRoom2Col();
+				row = d.getRoom2Row();
+			}
+			if (other == null || other == room){continue;}
+			int dx = x - (col*24 + 12);
+			int dy = y - (row*24 + 12);
+			if (dx*dx + dy*dy > PREFETCH_RANGE*PREFETCH_RANGE){continue;}
+			prefetch(other);
+		}
+	}
+
+	/**
+	 * Reads a room's images in the background, unless they are already
+	 * loaded or on the way.
+	 * @param room The room to load
+	 */
+	public synchronized void prefetch(final Room room){
+		if (entries.containsKey(room) || !loading.add(room)){return;}
+		loader.execute(new Runnable(){
+			@Override
+			public void run() {
+				try {
+					get(room);
+				} finally {
+					synchronized (RoomImageCache.this){
+						loading.remove(room);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Changes the scale rooms are drawn at. Rooms are rescaled when they
+	 * are next drawn.
+	 * @param scale The scale (1 or 2) to draw at
+	 */
+	public synchronized void setScale(int scale){
+		this.scale = scale;
+	}
+
+	/**
+	 * Determines whether a room's images are loaded.
+	 * @param room The room
+	 * @return true iff the room's images are in the cache
+	 */
+	public synchronized boolean isLoaded(Room room){
+		return entries.containsKey(room);
+	}
+
+	/**
+	 * Lets go of the least recently used rooms until the cache fits.
+	 */
+	private void evict(){
+		Iterator<Entry> it = entries.values().iterator();
+		while (entries.size() > capacity && it.hasNext()){
+			it.next();
+			it.remove();
+		}
+	}
+
+	/**
+	 * Reads the background and foreground images of a room.
+	 * @param name The name of the room
+	 * @return The images, indexed by [view direction][0 for base, 1 for top]
+	 */
+	private static Image[][] read(String name){
+		Image[][] images = new Image[4][2];
+		try {
+			for (int i = 0; i < 4; i++){
+				images[i][0] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/"+DIRECTIONS[i]+"Base.png"));
+				images[i][1] = ImageIO.read(Room.class.getResource("/Rooms/"+name+"/"+DIRECTIONS[i]+"Top.png"));
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			System.out.println("Error loading room images: "+e.getMessage());
+		}
+		return images;
+	}
+
+	/**
+	 * The images of one room, as read and as drawn.
+	 */
+	private class Entry {
+		private final Image[][] images;
+		private Image[][] scaled;
+		private int scale; // 0 until first scaled
+		private StaticLayer[] layers = new StaticLayer[4]; // the static layer of each view direction
+
+		Entry(Image[][] images){
+			this.images = images;
+			this.scaled = images;
+		}
+
+		/**
+		 * Scales the room's images from the originals, into images which
+		 * are quick to draw, and lets go of the layers drawn at the old scale.
+		 */
+		void scale(int scale){
+			Image[][] scaled = new Image[4][2];
+			for (int i = 0; i < 4; i++){
+				for (int j = 0; j < 2; j++){
+					if (images[i][j] != null){
+						scaled[i][j] = SpriteAtlas.scale(images[i][j], scale);
+					}
+				}
+			}
+			this.scaled = scaled;
+			this.layers = new StaticLayer[4];
+			this.scale = scale;
+		}
+	}
+}
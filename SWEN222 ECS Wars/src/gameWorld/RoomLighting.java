@@ -0,0 +1,62 @@
+package gameWorld;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * How dark each room is, as written in RoomLighting.txt.
+ *
+ * Each line of the file is a room's name and its darkness, from 0 for
+ * fully lit to 1 for pitch black, such as "Server Room: 1". A darkness
+ * of "night" makes the room as dark as the time of day. Rooms which
+ * aren't in the file are fully lit.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomLighting {
+	public static final float NIGHT = -1; // the darkness of a room which follows the time of day
+
+	private static Map<String, Float> darkness; // by room name, read when first needed
+
+	/**
+	 * Gets the darkness of a room.
+	 * @param roomName The name of the room
+	 * @return The room's darkness from 0 to 1, or NIGHT
+	 */
+	public static synchronized float getDarkness(String roomName){
+		if (darkness == null){
+			darkness = load();
+		}
+		Float level = darkness.get(roomName);
+		return level == null ? 0 : level;
+	}
+
+	/**
+	 * Reads the darkness of every room listed in the lighting file.
+	 * @return The darkness of each room, by name
+	 */
+	private static Map<String, Float> load(){
+		Map<String, Float> levels = new HashMap<>();
+		try {
+			Scanner s = new Scanner(RoomLighting.class.getResourceAsStream("/RoomLighting.txt"));
+			while (s.hasNextLine()){
+				String line = s.nextLine();
+				int split = line.lastIndexOf(':');
+				if (split < 0){continue;}
+				String name = line.substring(0, split).trim();
+				String level = line.substring(split+1).trim();
+				try {
+					levels.put(name, level.equals("night") ? NIGHT : Math.max(0, Math.min(1, Float.parseFloat(level))));
+				} catch (NumberFormatException e){
+					System.out.println("Parse error: could not parse darkness of " + name + " - " + level);
+				}
+			}
+			s.close();
+		} catch (NullPointerException e){
+			System.out.println("Error loading RoomLighting file: " + e.getMessage());
+		}
+		return levels;
+	}
+}
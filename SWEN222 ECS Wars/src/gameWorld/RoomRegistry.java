@@ -0,0 +1,67 @@
+package gameWorld;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every room in a game, looked up by id or by name.
+ *
+ * Rooms are given ids in the order they are registered, which is the
+ * order of the room index, so the same room has the same id on every
+ * client and in every game. Ids are what go over the network and into
+ * save files.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomRegistry {
+	private List<Room> byId = new ArrayList<>();
+	private Map<String, Room> byName = new HashMap<>();
+
+	/**
+	 * Adds a room, giving it the next id.
+	 * @param room The room to add
+	 * @return The room's id
+	 */
+	public int register(Room room){
+		int id = byId.size();
+		room.setId(id);
+		byId.add(room);
+		byName.put(room.getName(), room);
+		return id;
+	}
+
+	/**
+	 * Gets a room by its id.
+	 * @param id The room's id
+	 * @return The room, or null if there is no room with that id
+	 */
+	public Room get(int id){
+		if (id < 0 || id >= byId.size()){return null;}
+		return byId.get(id);
+	}
+
+	/**
+	 * Gets a room by its name.
+	 * @param name The room's name, as written in the room index
+	 * @return The room, or null if there is no room with that name
+	 */
+	public Room get(String name){
+		return byName.get(name);
+	}
+
+	/**
+	 * Gets every room, in id order.
+	 * @return An unmodifiable list of the rooms
+	 */
+	public List<Room> getRooms(){
+		return Collections.unmodifiableList(byId);
+	}
+
+	public int size(){
+		return byId.size();
+	}
+}
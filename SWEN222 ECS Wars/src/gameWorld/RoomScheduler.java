@@ -0,0 +1,156 @@
+package gameWorld;
+
+import gameWorld.gameEvents.GameClock;
+import gameWorld.gameObjects.Door;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which rooms are updated on each tick, based on how close
+ * they are to the players.
+ *
+ * Hot rooms hold at least one player and are updated every tick.
+ * Warm rooms are one door away from a hot room and are updated every
+ * few ticks, so they are close to current when a player walks in.
+ * Every other room is cold and only updated about once a second.
+ *
+ * Each update of a dormant room stands for every tick since its last
+ * one, so its characters walk as far as they would have in that time
+ * and it keeps pace with the rest of the game. Timers are read from the
+ * game clock, which is always current. A room moving to a hotter tier
+ * is updated straight away, covering the ticks since its last update,
+ * so waking a room costs no more than one update.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomScheduler {
+	public static final int HOT = 0;
+	public static final int WARM = 1;
+	public static final int COLD = 2;
+
+	public static final int WARM_PERIOD = 4; // ticks between warm updates
+	public static final int COLD_PERIOD = 60; // ticks between cold updates
+
+	private List<Room> rooms;
+	private IdentityHashMap<Room, Integer> index = new IdentityHashMap<>();
+	private int[][] adjacent; // indices of the rooms one door away from each room
+	private int[] tiers;
+	private long[] lastUpdate; // the tick each room was last updated on
+
+	private List<Room> due = new ArrayList<>();
+	private boolean[] hot;
+
+	/**
+	 * Creates a scheduler for the given rooms.
+	 * @param rooms Every room in the game
+	 * @param doors Every door in the game, which connect the rooms
+	 * @param clock The clock of the game the rooms are in
+	 */
+	public RoomScheduler(List<Room> rooms, Set<Door> doors, GameClock clock){
+		this.rooms = rooms;
+		tiers = new int[rooms.size()];
+		lastUpdate = new long[rooms.size()];
+		hot = new boolean[rooms.size()];
+		for (int i = 0; i < tiers.length; i++){
+			tiers[i] = COLD;
+			lastUpdate[i] = clock.getTick();
+		}
+
+		for (int i = 0; i < rooms.size(); i++){
+			index.put(rooms.get(i), i);
+		}
+		List<List<Integer>> links = new ArrayList<>();
+		for (int i = 0; i < rooms.size(); i++){
+			links.add(new ArrayList<Integer>());
+		}
+		for (Door d : doors){
+			connect(links, d.getRoom1(), d.getRoom2());
+			connect(links, d.getRoom2(), d.getRoom1());
+		}
+		adjacent = new int[rooms.size()][];
+		for (int i = 0; i < adjacent.length; i++){
+			List<Integer> next = links.get(i);
+			adjacent[i] = new int[next.size()];
+			for (int j = 0; j < next.size(); j++){
+				adjacent[i][j] = next.get(j);
+			}
+		}
+	}
+
+	/**
+	 * Records that one room can be reached from another.
+	 * @param links The rooms reachable from each room
+	 * @param from The room the door is in
+	 * @param to The room on the other side
+	 */
+	private void connect(List<List<Integer>> links, Room from, Room to){
+		Integer i = index.get(from);
+		Integer j = index.get(to);
+		if (i == null || j == null || i.equals(j)){return;}
+		if (!links.get(i).contains(j)){
+			links.get(i).add(j);
+		}
+	}
+
+	/**
+	 * Works out the tier of every room, and returns the rooms due this
+	 * tick, each set to cover the ticks since it was last updated.
+	 * The returned list is reused on the next call.
+	 * @param tick The tick about to be run, which is one after the clock's
+	 * @return The rooms to update this tick
+	 */
+	public List<Room> schedule(long tick){
+		// hot rooms hold players
+		for (int i = 0; i < rooms.size(); i++){
+			hot[i] = !rooms.get(i).getPlayers().isEmpty();
+		}
+
+		due.clear();
+		for (int i = 0; i < rooms.size(); i++){
+			Room r = rooms.get(i);
+			int tier = COLD;
+			if (hot[i]){
+				tier = HOT;
+			} else {
+				for (int next : adjacent[i]){
+					if (hot[next]){
+						tier = WARM;
+						break;
+					}
+				}
+			}
+
+			boolean update;
+			if (tier < tiers[i] || tier == HOT){
+				// woken up rooms are brought up to date straight away
+				update = true;
+			} else {
+				int period = tier == WARM ? WARM_PERIOD : COLD_PERIOD;
+				// offset by index so dormant rooms do not all update together
+				update = (tick+i) % period == 0;
+			}
+
+			tiers[i] = tier;
+			if (update){
+				r.setUpdateTicks((int)(tick-lastUpdate[i]));
+				lastUpdate[i] = tick;
+				due.add(r);
+			}
+		}
+		return due;
+	}
+
+	/**
+	 * Gets the tier a room was last scheduled in.
+	 * @param r The room to check
+	 * @return HOT, WARM or COLD
+	 */
+	public int getTier(Room r){
+		Integer i = index.get(r);
+		return i == null ? COLD : tiers[i];
+	}
+}
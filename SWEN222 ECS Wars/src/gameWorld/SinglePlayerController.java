@@ -1,5 +1,6 @@
 package gameWorld;
 
+import gameWorld.TickProfiler.Phase;
 import gameWorld.characters.Player;
 import gui.GUICanvas;
 
@@ -61,9 +62,13 @@ public class SinglePlayerController extends Controller {
 
 	@Override
 	protected void update() {
+		long start = profiler.start();
 		dealWithInput();// deal with user input
+		profiler.stop(Phase.INPUT, start);
+		start = profiler.start();
 		checkTooltip(player); // check if a tooltip should be displayed
-		player.update();
+		profiler.stop(Phase.TOOLTIP, start);
+		updateScheduledRooms();
 	}
 
 	/**
@@ -150,21 +155,19 @@ public class SinglePlayerController extends Controller {
 			gui.getCanvas().rotateViewRight();
 		}
 		if (e.getKeyCode() == KeyEvent.VK_1) {
-			player.inventoryItemAt(0).use(player, this);
+			useItem(0);
 		}
 		if (e.getKeyCode() == KeyEvent.VK_2) {
-			player.inventoryItemAt(1).use(player, this);
+			useItem(1);
 		}
 		if (e.getKeyCode() == KeyEvent.VK_3) {
-			player.inventoryItemAt(2).use(player, this);
+			useItem(2);
 		}
 		if (e.getKeyCode() == KeyEvent.VK_MINUS) {
-			gui.getCanvas().setViewScale(1);
-			scaleEverything(1);
+			setScale(1);
 		}
 		if (e.getKeyCode() == KeyEvent.VK_EQUALS) {
-			gui.getCanvas().setViewScale(2);
-			scaleEverything(2);
+			setScale(2);
 		}
 		if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
 			gui.getCanvas().toggleEscMenu();
@@ -172,6 +175,34 @@ public class SinglePlayerController extends Controller {
 		keyBits.clear(e.getKeyCode());
 	}
 
+	/**
+	 * Uses an item in the player's inventory on the next tick
+	 * @param index The inventory slot of the item
+	 */
+	private void useItem(int index) {
+		Controller ctrl = this;
+		submit(new Runnable(){
+			@Override
+			public void run() {
+				player.inventoryItemAt(index).use(player, ctrl);
+			}
+		});
+	}
+
+	/**
+	 * Changes the view scale on the next tick
+	 * @param scale The scale (1 or 2) to change to
+	 */
+	private void setScale(int scale) {
+		submit(new Runnable(){
+			@Override
+			public void run() {
+				gui.getCanvas().setViewScale(scale);
+				scaleEverything(scale);
+			}
+		});
+	}
+
 	/**
 	 * When mouse event is fired clear mouselocation get x, y position of mouse
 	 * add new xy to mouseLocation
@@ -196,7 +227,12 @@ public class SinglePlayerController extends Controller {
 		} else if (e.getButton() == 3) {
 			int x = e.getX();
 			int y = e.getY();
-			rightClickInteract(x, y, player);
+			submit(new Runnable(){
+				@Override
+				public void run() {
+					rightClickInteract(x, y, player);
+				}
+			});
 		}
 	}
 
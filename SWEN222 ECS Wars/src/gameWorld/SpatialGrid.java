@@ -0,0 +1,181 @@
+package gameWorld;
+
+import gameWorld.characters.Player;
+import gameWorld.characters.nonplayer.NonPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A uniform grid over a room which keeps track of which cell each
+ * character is standing in, so collision and targeting checks only
+ * look at the characters near a position rather than every character
+ * in the room.
+ *
+ * Characters are kept in the cell holding their centre. Queries look
+ * at every cell within reach of the area asked about, so a character
+ * overlapping a cell boundary is still found. None of the queries
+ * allocate.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class SpatialGrid {
+	public static final int CELL_SIZE = 48; // two squares
+
+	private int cols;
+	private int rows;
+	private List<List<Player>> cells = new ArrayList<>();
+	private int reach; // the largest hit box of any character added
+
+	private List<Player> found = new ArrayList<>();
+
+	/**
+	 * Creates an empty grid covering a room.
+	 * @param width The width of the room in pixels
+	 * @param height The height of the room in pixels
+	 */
+	public SpatialGrid(int width, int height){
+		cols = Math.max(1, (width + CELL_SIZE - 1) / CELL_SIZE);
+		rows = Math.max(1, (height + CELL_SIZE - 1) / CELL_SIZE);
+		for (int i = 0; i < cols*rows; i++){
+			cells.add(new ArrayList<Player>());
+		}
+	}
+
+	/**
+	 * Adds a character to the grid at its current position.
+	 * @param p The character to add
+	 */
+	public void insert(Player p){
+		if (p.getGridCell() >= 0){return;}
+		int cell = cellAt(p.getX(), p.getY());
+		cells.get(cell).add(p);
+		p.setGridCell(cell);
+		reach = Math.max(reach, p.getHitBox());
+	}
+
+	/**
+	 * Removes a character from the grid.
+	 * @param p The character to remove
+	 */
+	public void remove(Player p){
+		int cell = p.getGridCell();
+		if (cell < 0 || cell >= cells.size()){return;}
+		if (cells.get(cell).remove(p)){
+			p.setGridCell(-1);
+		}
+	}
+
+	/**
+	 * Moves a character to the cell of its current position.
+	 * Does nothing if the character isn't in the grid.
+	 * @param p The character which has moved
+	 */
+	public void move(Player p){
+		int old = p.getGridCell();
+		if (old < 0){return;}
+		int cell = cellAt(p.getX(), p.getY());
+		if (cell == old){return;}
+		cells.get(old).remove(p);
+		cells.get(cell).add(p);
+		p.setGridCell(cell);
+	}
+
+	/**
+	 * Finds every character whose hit box overlaps an area.
+	 * The returned list is reused on the next call.
+	 * @param x The left of the area
+	 * @param y The top of the area
+	 * @param w The width of the area
+	 * @param h The height of the area
+	 * @return The characters overlapping the area
+	 */
+	public List<Player> query(int x, int y, int w, int h){
+		found.clear();
+		int minCol = colAt(x - reach);
+		int maxCol = colAt(x + w + reach);
+		int minRow = rowAt(y - reach);
+		int maxRow = rowAt(y + h + reach);
+		for (int r = minRow; r <= maxRow; r++){
+			for (int c = minCol; c <= maxCol; c++){
+				List<Player> cell = cells.get(r*cols + c);
+				for (int i = 0; i < cell.size(); i++){
+					Player p = cell.get(i);
+					if (p.boxIntersects(x, y, w, h)){
+						found.add(p);
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Finds the player (not NPC) closest to a position, searching
+	 * outwards from it one ring of cells at a time.
+	 * @param x The x position to search from
+	 * @param y The y position to search from
+	 * @param range The furthest away a player can be
+	 * @return The closest player within range, or null if there is none
+	 */
+	public Player nearestPlayer(int x, int y, double range){
+		int col = colAt(x);
+		int row = rowAt(y);
+		int maxRing = Math.max(Math.max(col, cols-1-col), Math.max(row, rows-1-row));
+		Player nearest = null;
+		long min = Long.MAX_VALUE;
+
+		for (int ring = 0; ring <= maxRing; ring++){
+			// everything further out is at least this far away
+			double edge = (double)(ring-1)*CELL_SIZE;
+			if (edge > range || (nearest != null && edge*edge >= min)){
+				break;
+			}
+			for (int r = row-ring; r <= row+ring; r++){
+				if (r < 0 || r >= rows){continue;}
+				boolean edgeRow = r == row-ring || r == row+ring;
+				for (int c = col-ring; c <= col+ring; c++){
+					if (c < 0 || c >= cols){continue;}
+					// only the outside of the ring is new
+					if (!edgeRow && c != col-ring && c != col+ring){continue;}
+					List<Player> cell = cells.get(r*cols + c);
+					for (int i = 0; i < cell.size(); i++){
+						Player p = cell.get(i);
+						if (p instanceof NonPlayer){continue;}
+						long dx = x - p.getX();
+						long dy = y - p.getY();
+						long dist = dx*dx + dy*dy;
+						if (dist < min){
+							nearest = p;
+							min = dist;
+						}
+					}
+				}
+			}
+		}
+		if (nearest == null || min > range*range){
+			return null;
+		}
+		return nearest;
+	}
+
+	/**
+	 * Finds the cell a position is in.
+	 * Positions outside the room use the nearest cell.
+	 * @param x The pixel x position
+	 * @param y The pixel y position
+	 * @return The index of the cell
+	 */
+	private int cellAt(int x, int y){
+		return rowAt(y)*cols + colAt(x);
+	}
+
+	private int colAt(int x){
+		return x < 0 ? 0 : Math.min(x / CELL_SIZE, cols-1);
+	}
+
+	private int rowAt(int y){
+		return y < 0 ? 0 : Math.min(y / CELL_SIZE, rows-1);
+	}
+}
@@ -0,0 +1,135 @@
+package gameWorld;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Every sprite drawn in the game, at each scale it can be drawn at.
+ *
+ * The first time a sprite is asked for, a copy of it is made at every
+ * scale, in images which are quick to draw on screen. Changing the view
+ * scale then only changes which copy is handed out, so nothing has to be
+ * rescaled when zooming, and an item which moves to another room or
+ * player is always drawn at the current scale.
+ *
+ * Sprites are loaded through load(), which reads each file only once,
+ * so every desk, door and character drawn with the same file shares one
+ * image and one set of copies. Those are kept for the whole game. Any
+ * other image is held weakly, so its copies are let go along with
+ * whatever made it.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class SpriteAtlas {
+	public static final int MAX_SCALE = 2;
+
+	// copies of each sprite, by scale-1
+	private static final Map<Image, Image[]> copies = Collections.synchronizedMap(new WeakHashMap<Image, Image[]>());
+	private static final Map<String, Image> loaded = new HashMap<>(); // sprites read from files, by path
+	private static volatile int scale = 1;
+
+	/**
+	 * Loads a sprite from the game's resources, reading it only the first
+	 * time its path is asked for.
+	 * @param path The path of the sprite, such as "/Items/DeskHor.png"
+	 * @return The sprite, shared with everything else drawn with it
+	 * @throws IOException If the sprite couldn't be read
+	 */
+	public static Image load(String path) throws IOException {
+		synchronized (loaded){
+			Image sprite = loaded.get(path);
+			if (sprite == null){
+				URL url = SpriteAtlas.class.getResource(path);
+				if (url == null){
+					throw new IOException("missing sprite " + path);
+				}
+				sprite = ImageIO.read(url);
+				loaded.put(path, sprite);
+			}
+			return sprite;
+		}
+	}
+
+	/**
+	 * Gets a sprite at the current view scale.
+	 * @param sprite The sprite, as loaded
+	 * @return The sprite at the current scale, or null if sprite is null
+	 */
+	public static Image get(Image sprite){
+		return get(sprite, scale);
+	}
+
+	/**
+	 * Gets a sprite at a given scale.
+	 * @param sprite The sprite, as loaded
+	 * @param scale The scale (1 or 2) to get it at
+	 * @return The sprite at that scale, or null if sprite is null
+	 */
+	public static Image get(Image sprite, int scale){
+		if (sprite == null){return null;}
+		Image[] levels = copies.get(sprite);
+		if (levels == null){
+			levels = new Image[MAX_SCALE];
+			for (int s = 1; s <= MAX_SCALE; s++){
+				levels[s-1] = scale(sprite, s);
+			}
+			copies.put(sprite, levels);
+		}
+		return levels[Math.max(1, Math.min(MAX_SCALE, scale))-1];
+	}
+
+	/**
+	 * Changes the scale sprites are handed out at.
+	 * @param scale The scale (1 or 2) to draw at
+	 */
+	public static void setScale(int scale){
+		SpriteAtlas.scale = scale;
+	}
+
+	public static int getScale(){
+		return scale;
+	}
+
+	/**
+	 * Copies an image at a larger size, each pixel repeated to scale, into
+	 * an image which is quick to draw.
+	 * @param image The image to copy, which must be fully loaded
+	 * @param scale The scale to copy it at
+	 * @return The copy
+	 */
+	public static BufferedImage scale(Image image, int scale){
+		BufferedImage copy = createImage(image.getWidth(null)*scale, image.getHeight(null)*scale);
+		Graphics2D g = copy.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.drawImage(image, 0, 0, copy.getWidth(), copy.getHeight(), null);
+		g.dispose();
+		return copy;
+	}
+
+	/**
+	 * Creates a blank image which is quick to draw on screen.
+	 * @param width The width of the image
+	 * @param height The height of the image
+	 * @return The image
+	 */
+	public static BufferedImage createImage(int width, int height){
+		if (GraphicsEnvironment.isHeadless()){
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+}
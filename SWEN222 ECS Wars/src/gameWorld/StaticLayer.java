@@ -0,0 +1,53 @@
+package gameWorld;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * A room's static layer for one view direction and scale: its background
+ * with every item which doesn't move drawn on, so a frame can draw it in
+ * a few images rather than item by item.
+ *
+ * The layer is kept as one image per chunk of the room's view. Each is
+ * drawn when its chunk first comes on screen, and again only when a
+ * square in or near its chunk changes, so unlocking a door redraws the
+ * chunk around the door rather than the whole room. The chunks along
+ * the edges of the room also take in the margin around it, so the
+ * background above the room and furniture drawn past its edges aren't
+ * cut off.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+class StaticLayer {
+	final Rectangle[] areas; // the part of the layer each chunk covers, relative to the room's top left square
+	final BufferedImage[] images; // the image of each chunk, or null until it is drawn
+	final int[] versions; // the room's chunk version each image was drawn at
+
+	/**
+	 * Splits a layer into one area per chunk of a view.
+	 * @param view The room's contents as seen from the layer's view direction
+	 * @param size The size of a square on screen
+	 * @param left How far the layer reaches left of the room
+	 * @param top How far the layer reaches above the room
+	 * @param right The x position of the layer's right edge
+	 * @param bottom The y position of the layer's bottom edge
+	 */
+	StaticLayer(ChunkedView view, int size, int left, int top, int right, int bottom){
+		int chunkCols = view.getChunkCols();
+		int chunkRows = view.getChunkRows();
+		int chunkSize = ChunkedView.CHUNK_SIZE*size;
+		areas = new Rectangle[chunkCols*chunkRows];
+		images = new BufferedImage[areas.length];
+		versions = new int[areas.length];
+		for (int cy = 0; cy < chunkRows; cy++){
+			int y0 = cy == 0 ? -top : cy*chunkSize;
+			int y1 = cy == chunkRows-1 ? bottom : (cy+1)*chunkSize;
+			for (int cx = 0; cx < chunkCols; cx++){
+				int x0 = cx == 0 ? -left : cx*chunkSize;
+				int x1 = cx == chunkCols-1 ? right : (cx+1)*chunkSize;
+				areas[cy*chunkCols + cx] = new Rectangle(x0, y0, x1-x0, y1-y0);
+			}
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package gameWorld;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Times each phase of a game tick and of drawing a frame, keeping a
+ * histogram of the durations of every phase.
+ *
+ * Profiling is switched on with -Decs.profile=true. When it is off,
+ * timing a phase costs a single branch. When it is on, recording a time
+ * is lock free, so rooms updating in parallel and the render thread can
+ * all record at once.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class TickProfiler {
+
+	/**
+	 * The parts of a tick and a frame which are timed.
+	 */
+	public enum Phase {
+		TICK,
+		INPUT,
+		TOOLTIP,
+		PROJECTILES,
+		PLAYERS,
+		NPCS,
+		WINNER,
+		PAINT,
+		PAINT_ROOM,
+		PAINT_HUD,
+		PAINT_OVERLAYS,
+		PRESENT, // showing a drawn frame on screen
+		FRAME // the time between one frame being shown and the next
+	}
+
+	// the profiler reported on exit, and whether the hook to report it has been added
+	private static volatile TickProfiler exitProfiler;
+	private static boolean exitHook;
+
+	private final boolean enabled;
+	private final Histogram[] histograms;
+
+	/**
+	 * Creates a profiler, enabled if the ecs.profile property is set.
+	 */
+	public TickProfiler(){
+		this(Boolean.getBoolean("ecs.profile"));
+	}
+
+	/**
+	 * Creates a profiler.
+	 * @param enabled true to record timings
+	 */
+	public TickProfiler(boolean enabled){
+		this.enabled = enabled;
+		histograms = new Histogram[Phase.values().length];
+		for (int i = 0; i < histograms.length; i++){
+			histograms[i] = new Histogram();
+		}
+	}
+
+	/**
+	 * Gets the time a phase starts at.
+	 * @return The current time in ns, or 0 if profiling is off
+	 */
+	public long start(){
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the end of a phase.
+	 * @param phase The phase which has finished
+	 * @param start The time returned by start() when the phase began
+	 */
+	public void stop(Phase phase, long start){
+		if (!enabled){return;}
+		histograms[phase.ordinal()].record(System.nanoTime() - start);
+	}
+
+	public boolean isEnabled(){
+		return enabled;
+	}
+
+	/**
+	 * Gets the histogram of durations for a phase.
+	 * @param phase The phase to get
+	 * @return The histogram of that phase, in ns
+	 */
+	public Histogram getHistogram(Phase phase){
+		return histograms[phase.ordinal()];
+	}
+
+	/**
+	 * Prints the report when the program exits, if profiling is on.
+	 * Only one hook is ever added, which reports the last profiler this
+	 * was called on, so starting several games doesn't stack up reports.
+	 */
+	public void dumpOnExit(){
+		if (!enabled){return;}
+		synchronized (TickProfiler.class){
+			exitProfiler = this;
+			if (exitHook){return;}
+			exitHook = true;
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(){
+			@Override
+			public void run() {
+				System.out.println(exitProfiler.report());
+			}
+		});
+	}
+
+	/**
+	 * Summarises every phase which has been recorded.
+	 * @return A table of count, p50, p99 and max for each phase, in ms
+	 */
+	public String report(){
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-15s %10s %10s %10s %10s%n", "phase", "count", "p50 ms", "p99 ms", "max ms"));
+		for (Phase phase : Phase.values()){
+			Histogram h = getHistogram(phase);
+			if (h.getCount() == 0){continue;}
+			sb.append(String.format("%-15s %10d %10.3f %10.3f %10.3f%n", phase, h.getCount(),
+					h.getPercentile(0.5)/1e6, h.getPercentile(0.99)/1e6, h.getMax()/1e6));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * A histogram with logarithmic buckets, each split into linear
+	 * sub-buckets, so every recorded value is kept to within about 3%
+	 * whatever its size. Values are in ns, up to about 36 minutes.
+	 */
+	public static class Histogram {
+		private static final int SUB_BITS = 6;
+		private static final int HALF = 1 << (SUB_BITS-1); // sub-buckets per power of two
+		private static final int MAX_BIT = 41; // largest value is just under 2^MAX_BIT
+		private static final long MAX_VALUE = (1L << MAX_BIT) - 1;
+		private static final int BUCKETS = (MAX_BIT - SUB_BITS + 2) * HALF;
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+
+		/**
+		 * Adds a value to the histogram.
+		 * @param value The value to add, in ns
+		 */
+		public void record(long value){
+			if (value < 0){value = 0;}
+			if (value > MAX_VALUE){value = MAX_VALUE;}
+			counts.incrementAndGet(index(value));
+			count.incrementAndGet();
+			long m;
+			while (value > (m = max.get()) && !max.compareAndSet(m, value)){}
+		}
+
+		/**
+		 * Finds the bucket a value belongs in.
+		 * @param value The value, between 0 and MAX_VALUE
+		 * @return The index of its bucket
+		 */
+		private static int index(long value){
+			int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+			if (shift <= 0){
+				return (int)value;
+			}
+			return shift*HALF + (int)(value >>> shift);
+		}
+
+		/**
+		 * Gets the largest value a bucket holds.
+		 * @param index The index of the bucket
+		 * @return The top of the bucket's range
+		 */
+		private static long highest(int index){
+			if (index < 2*HALF){
+				return index;
+			}
+			int shift = index/HALF - 1;
+			long sub = index - shift*HALF;
+			return ((sub+1) << shift) - 1;
+		}
+
+		/**
+		 * Gets a value which the given fraction of recorded values are no more than.
+		 * @param fraction The percentile as a fraction, e.g. 0.99
+		 * @return The value at that percentile, in ns
+		 */
+		public long getPercentile(double fraction){
+			long total = count.get();
+			if (total == 0){return 0;}
+			long target = Math.max(1, (long)Math.ceil(fraction*total));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++){
+				seen += counts.get(i);
+				if (seen >= target){
+					return Math.min(highest(i), getMax());
+				}
+			}
+			return getMax();
+		}
+
+		public long getCount(){
+			return count.get();
+		}
+
+		public long getMax(){
+			return max.get();
+		}
+
+		/**
+		 * Removes every recorded value.
+		 */
+		public void reset(){
+			for (int i = 0; i < BUCKETS; i++){
+				counts.set(i, 0);
+			}
+			count.set(0);
+			max.set(0);
+		}
+	}
+}
@@ -3,11 +3,9 @@ package gameWorld.characters;
 
 import java.awt.Image;
 import java.io.IOException;
-import java.net.URL;
-
-import javax.imageio.ImageIO;
 
 import gameWorld.Room;
+import gameWorld.SpriteAtlas;
 
 
 /**
@@ -29,15 +27,12 @@ public class DavePlayer extends Player {
 		try {
 			for (int dir = 0; dir < 4; dir++){
 				for (int ani = 0; ani < 3; ani++){
-					URL url = DavePlayer.class.getResource("/Players/Dave"+dir+ani+".png");
-					
-					sprites[dir][ani] = ImageIO.read(url);
+					sprites[dir][ani] = SpriteAtlas.load("/Players/Dave"+dir+ani+".png");
 				}
 			}
 		} catch (IOException e) {
 			System.out.println("Error loading player images: " + e.getMessage());
 		}
-		scaledSprites = sprites;
 	}
 
 	@Override
@@ -3,11 +3,9 @@ package gameWorld.characters;
 
 import java.awt.Image;
 import java.io.IOException;
-import java.net.URL;
-
-import javax.imageio.ImageIO;
 
 import gameWorld.Room;
+import gameWorld.SpriteAtlas;
 
 
 /**
@@ -29,14 +27,12 @@ public class MarcoPlayer extends Player {
 		try {
 			for (int dir = 0; dir < 4; dir++){
 				for (int ani = 0; ani < 3; ani++){
-					URL url = MarcoPlayer.class.getResource("/Players/Marco"+dir+ani+".png");
-					sprites[dir][ani] = ImageIO.read(url);
+					sprites[dir][ani] = SpriteAtlas.load("/Players/Marco"+dir+ani+".png");
 				}
 			}
 		} catch (IOException e) {
 			System.out.println("Error loading player images: " + e.getMessage());
 		}
-		scaledSprites = sprites;
 	}
 
 	@Override
@@ -5,7 +5,9 @@ import java.awt.Rectangle;
 
 import gameWorld.PointValues;
 import gameWorld.Room;
-import gameWorld.gameObjects.Door;
+import gameWorld.SpriteAtlas;
+import gameWorld.ecs.CharacterStore;
+import gameWorld.ecs.CharacterSystem;
 import gameWorld.gameObjects.Floor;
 import gameWorld.gameObjects.Item;
 import gameWorld.gameObjects.Wall;
@@ -18,6 +20,11 @@ import gui.GUICanvas;
 /**
  * An abstract class representing a playable character
  * 
+ * A player's position, velocity and health live in a CharacterStore:
+ * the store of the room they are in, or a store of their own while
+ * they aren't in one. This object is a handle onto that slot, and
+ * CharacterSystem does the moving and damage.
+ * 
  * @author Jah Seng Lee 300279468
  * @author Chris Read 300254724
  * @author Sarah Dobie 300315033
@@ -47,26 +54,19 @@ public abstract class Player {
 	//fields describing state of player
 	protected Weapon currentWeapon;
 	protected Item[] inventory = new Item[INVENTORY_SIZE];
-	protected int maxHealth = HEALTH_MAX;
-
-	protected int health = HEALTH_MAX;
 	protected int points = 500;
 
+	// the store holding this player's position (the centre of the
+	// player), velocity and health, and the slot they are in
+	private final CharacterStore own = new CharacterStore(1); // used while not in a room
+	private CharacterStore store = own;
+	private int slot;
+	private int gridCell = -1; // the cell of the room's spatial grid holding this player
 
-	//position describing the centre of a player object
-	protected int posX;
-	protected int posY;
-	protected int hitBox = 10;
-
-	protected int tempX;
-	protected int tempY;
-
-	protected int lastDirMoved;
 	protected int animState; // the current animation frame
 	protected int animModifier; // flicks between 1 and -1 to loop animation
 	protected int animCounter; // counts each frame the player has moved
 	protected Room currentRoom;
-	protected int currentRow; // view dependant row - for drawing correctly
 	
 	protected boolean disconnected;
 
@@ -75,11 +75,9 @@ public abstract class Player {
 
 	// Player sprite images
 	protected Image[][] sprites;
-	protected Image[][] scaledSprites;
 
-	//player's speed is this constant * Player.SPEED
+	//player's speed is this constant + Player.BASE_SPEED
 	protected int speedModifier = 0;
-	protected int speed = speedModifier + Player.BASE_SPEED;
 
 	/**
 	 * Constructor for class Player.
@@ -89,9 +87,7 @@ public abstract class Player {
 	 */
 	public Player(Room room, int posX, int posY){
 		this.currentRoom = room;
-		this.posX = posX;
-		this.posY = posY;
-		this.lastDirMoved = 2;
+		this.slot = own.add(this, posX, posY, 2, BASE_SPEED, HEALTH_MAX, HEALTH_MAX, 10, 0);
 		this.animState = 0;
 		this.animModifier = 1;
 		this.animCounter = 0;
@@ -131,38 +127,32 @@ public abstract class Player {
 	/**
 	 * Update player's position by "speed" amount
 	 * Direction is specified by dir (up, down, left, right)
+	 * A room which isn't updated every tick moves its characters a step
+	 * for each tick since its last update.
 	 */
 	public void move(int dir) {
-		if (isDead()){return;}
-		animate();
-		// Convert movement direction to global coordinates
-		movePlayer(dir);
-	}
-
-	/**
-	 * Moves the player relative to the global coordinates
-	 * @param dir Global direction to move
-	 */
-	private void movePlayer(int dir) {
-		tempX = posX;
-		tempY = posY;
-		lastDirMoved = dir;
-		switch(dir){
-		case 1: tempX += speed;
-		break;
-		case 3: tempX -= speed;
-		break;
-		case 2: tempY += speed;
-		break;
-		default: tempY -= speed;
-		break;
-		}
-		if (canMove(tempX, tempY)){
-			posX = tempX;
-			posY = tempY;
+		Room room = currentRoom;
+		int ticks = room == null ? 1 : room.getUpdateTicks();
+		for (int i = 0; i < ticks; i++){
+			if (!step(dir)){return;}
+			// stop in a door, so it is only walked through once
+			if (room == null || currentRoom != room || room.tileAt(getX(), getY()) == Room.TILE_DOOR){return;}
 		}
 	}
 
+	/**
+	 * Moves the player a single step, the distance they cover in one tick.
+	 * @param dir The direction to move in
+	 * @return true iff the player moved
+	 */
+	protected boolean step(int dir) {
+		if (isDead()){return false;}
+		animate();
+		if (!CharacterSystem.move(store, slot, dir, currentRoom)){return false;}
+		moved();
+		return true;
+	}
+
 	/**
 	 * Modifies the player's health.
 	 * Negative values cause damage
@@ -172,11 +162,7 @@ public abstract class Player {
 	 * if they were not shot.
 	 */
 	public void modifyHealth(int amt, Projectile p){
-		health += amt;
-		if(health > HEALTH_MAX){
-			health = HEALTH_MAX;
-		} else if(health <= 0){
-			health = 0;
+		if(CharacterSystem.modifyHealth(store, slot, amt)){
 			// give points to the player that killed me
 			if(p != null && p.getPlayer() != this){
 				p.getPlayer().givePoints(PointValues.KILL_PLAYER);
@@ -207,54 +193,7 @@ public abstract class Player {
 	 * @return true iff the player can move to (x,y)
 	 */
 	public boolean canMove(int x, int y){
-		boolean inDoor = true;
-		// Checks top right corner
-		Item item = currentRoom.itemAt(x+hitBox, y+hitBox);
-		if (!item.canWalk()){return false;
-		} else {
-			if (!(item instanceof Door)){inDoor = false;}
-		}
-		// Checks bottom right corner
-		item = currentRoom.itemAt(x+hitBox, y-hitBox);
-		if (!item.canWalk()){return false;
-		} else {
-			if (!(item instanceof Door)){inDoor = false;}
-		}
-		// Checks bottom left corner
-		item = currentRoom.itemAt(x-hitBox, y-hitBox);
-		if (!item.canWalk()){return false;
-		} else {
-			if (!(item instanceof Door)){inDoor = false;}
-		}
-		// Checks top left corner
-		item = currentRoom.itemAt(x-hitBox, y+hitBox);
-		if (!item.canWalk()){return false;
-		} else {
-			if (!(item instanceof Door)){inDoor = false;}
-		}
-		if (inDoor){
-			((Door)item).walkThrough(this);
-		}
-		
-		//Get the bounding box at the new position
-		Rectangle box = this.getBoundingBox();
-		box.translate(x-posX, y-posY);
-		
-		for (Player p : currentRoom.getAllCharacters()){
-			if (p == this){continue;}
-			//Check if the player intersects with another player
-			if (box.intersects(p.getBoundingBox())){
-				//If this player is already intersecting (such as spawning inside them)
-				//let them move
-				if (this.getBoundingBox().intersects(p.getBoundingBox())){
-					return true;
-				}
-				
-				return false;
-			}
-		}
-		
-		return true;
+		return CharacterSystem.canMove(store, slot, x, y, currentRoom);
 	}
 
 	/**
@@ -271,7 +210,7 @@ public abstract class Player {
 
 		double dy = point2Y-point1Y;
 		double dx = point2X-point1X;
-		double theta = Math.atan2(dy,dx);
+		double theta = StrictMath.atan2(dy,dx);
 
 		return theta;
 	}
@@ -383,7 +322,7 @@ public abstract class Player {
 			return;
 		}
 		// try to add to the floor tile the player is on
-		Item square = currentRoom.itemAt((int)posX, (int)posY);
+		Item square = currentRoom.itemAt(getX(), getY());
 		if (square instanceof Floor){
 			if (((Floor) square).getItem() == null){
 				((Floor) square).setItem(inventory[index]);
@@ -412,10 +351,11 @@ public abstract class Player {
 	}
 	
 	/**
-	 * Give points to the player.
+	 * Give points to the player. Synchronized, as a projectile left in
+	 * another room can still score for them while rooms update in parallel.
 	 * @param points The points to give
 	 */
-	public void givePoints(int points){
+	public synchronized void givePoints(int points){
 		this.points += points;
 	}
 	
@@ -423,7 +363,7 @@ public abstract class Player {
 	 * Take points from the player.
 	 * @param points The points to take
 	 */
-	public void removePoints(int points){
+	public synchronized void removePoints(int points){
 		this.points -= points;
 	}
 
@@ -444,7 +384,7 @@ public abstract class Player {
 	 * @return true iff the player is dead
 	 */
 	public boolean isDead(){
-		return health <= 0;
+		return store.getHealth(slot) <= 0;
 	}
 
 	/**
@@ -454,9 +394,9 @@ public abstract class Player {
 	public abstract PlayerType getType();
 
 	//Getters
-	public int getX() {return posX;}
+	public int getX() {return store.getX(slot);}
 
-	public int getY() {return posY;}
+	public int getY() {return store.getY(slot);}
 
 	public Room getCurrentRoom() {return currentRoom;}
 
@@ -469,28 +409,31 @@ public abstract class Player {
 	}
 
 	/**
-	 * Calculates the direction to shoot from
+	 * Calculates the direction to shoot from.
+	 * (x,y) is a position on the player's canvas, or a position in the
+	 * room if the player has no canvas (for example in a headless game).
 	 * @param x
 	 * @param y
 	 * @return
 	 */
 	public double getTheta(int x, int y){
+		if (canvas == null){
+			return Player.angleBetweenPlayerAndMouse(getX(), getY(), x, y);
+		}
 		Double theta = Player.angleBetweenPlayerAndMouse(canvas.getWidth()/2, canvas.getHeight()/2,
 				x, y);
 		theta += Math.toRadians(90)*canvas.getViewDirection();
 		return theta;
 	}
 
-	public int getRow() {return currentRow;}
-
-	public int getHealth(){return health;}
+	public int getHealth(){return store.getHealth(slot);}
 	
-	public int getMaxHealth() {return maxHealth;}
+	public int getMaxHealth() {return store.getMaxHealth(slot);}
 
 	public int getPoints() {return points;}
 	
 	public int getGlobalDir() {
-		return lastDirMoved;
+		return store.getDir(slot);
 	}
 	
 	public GUICanvas getCanvas(){
@@ -502,14 +445,20 @@ public abstract class Player {
 
 	public Image[][] getImages() {return sprites;}
 
+	/**
+	 * Gets the current animation frame of this player.
+	 * @return The index of the current animation frame
+	 */
+	public int getAnimState() {return animState;}
+
 	/**
 	 * Gets the appropriate image for the given room direction
 	 * @param viewDir The view direction
 	 * @return The sprite image appropriate to player and view direction.
 	 */
 	public Image getImage(int viewDir) {	
-		int spriteDir = GUICanvas.convertToViewDir(lastDirMoved, viewDir);
-		return scaledSprites[spriteDir][animState];
+		int spriteDir = GUICanvas.convertToViewDir(getGlobalDir(), viewDir);
+		return SpriteAtlas.get(sprites[spriteDir][animState]);
 	}
 
 	/**
@@ -517,7 +466,8 @@ public abstract class Player {
 	 * @return The direction the player is facing
 	 */
 	public int getFacing(){
-		return GUICanvas.convertToViewDir(lastDirMoved, canvas.getViewDirection());
+		if (canvas == null){return getGlobalDir();}
+		return GUICanvas.convertToViewDir(getGlobalDir(), canvas.getViewDirection());
 	}
 
 	/**
@@ -525,19 +475,120 @@ public abstract class Player {
 	 * @return The minimal rectangle that encloses the whole player.
 	 */
 	public Rectangle getBoundingBox(){
-		return new Rectangle(posX-hitBox, posY-hitBox, hitBox*2, hitBox*2);
+		int hitBox = getHitBox();
+		return new Rectangle(getX()-hitBox, getY()-hitBox, hitBox*2, hitBox*2);
+	}
+
+	/**
+	 * Determines whether this player's bounding box overlaps an area,
+	 * without creating a Rectangle.
+	 * @param x The left of the area
+	 * @param y The top of the area
+	 * @param w The width of the area
+	 * @param h The height of the area
+	 * @return true iff the areas overlap
+	 */
+	public boolean boxIntersects(int x, int y, int w, int h){
+		int posX = store.getX(slot);
+		int posY = store.getY(slot);
+		int hitBox = store.getHitBox(slot);
+		return x < posX+hitBox && posX-hitBox < x+w
+				&& y < posY+hitBox && posY-hitBox < y+h;
+	}
+
+	/**
+	 * Determines whether this player's bounding box wholly contains an
+	 * area, without creating a Rectangle.
+	 * @param x The left of the area
+	 * @param y The top of the area
+	 * @param w The width of the area
+	 * @param h The height of the area
+	 * @return true iff the area is inside this player's bounding box
+	 */
+	public boolean boxContains(int x, int y, int w, int h){
+		int posX = store.getX(slot);
+		int posY = store.getY(slot);
+		int hitBox = store.getHitBox(slot);
+		return x >= posX-hitBox && y >= posY-hitBox
+				&& x+w <= posX+hitBox && y+h <= posY+hitBox;
+	}
+
+	public int getHitBox(){
+		return store.getHitBox(slot);
+	}
+
+	public int getGridCell(){
+		return gridCell;
+	}
+
+	public void setGridCell(int gridCell){
+		this.gridCell = gridCell;
+	}
+
+	/**
+	 * Moves this player's components into a room's store, when they
+	 * are added to the room.
+	 * @param to The room's store
+	 */
+	public void attach(CharacterStore to){
+		if (store == to){return;}
+		CharacterStore from = store;
+		slot = from.transfer(slot, to);
+		store = to;
+		if (from == own){
+			own.compact();
+		}
+	}
+
+	/**
+	 * Moves this player's components out of a room's store, when they
+	 * are removed from the room.
+	 * @param from The room's store
+	 */
+	public void detach(CharacterStore from){
+		if (store != from){return;}
+		slot = from.transfer(slot, own);
+		store = own;
+	}
+
+	/**
+	 * Called by the store holding this player when it moves them to
+	 * another slot.
+	 * @param slot The player's new slot
+	 */
+	public void setSlot(int slot){
+		this.slot = slot;
+	}
+
+	/**
+	 * Keeps the room's spatial grid up to date after this player's
+	 * position has changed.
+	 */
+	protected void moved(){
+		if (currentRoom != null){
+			currentRoom.getGrid().move(this);
+		}
 	}
 
 	public void setPoints(int points) {this.points = points;}
 
 	//Setters
+	public void setHealth(int health){store.setHealth(slot, health);}
+
+	protected void setMaxHealth(int maxHealth){store.setMaxHealth(slot, maxHealth);}
+
 	/**
-	 * Sets the row variable for the current room relative to the view direction 
-	 * @param row the row variable to set
+	 * Sets how many pixels the player moves each step, regardless of
+	 * any speed modifier.
+	 * @param speed The new speed
 	 */
-	public void setRow(int row) {currentRow = row;}
+	protected void setSpeed(int speed){store.setSpeed(slot, speed);}
 
-	public void setHealth(int health){this.health = health;}
+	/**
+	 * Sets how the player moves, as any of the CharacterStore flags.
+	 * @param flags The new flags
+	 */
+	protected void setFlags(int flags){store.setFlags(slot, flags);}
 
 	/**
 	 * Change the player the room is in.
@@ -551,13 +602,17 @@ public abstract class Player {
 		}
 		newRoom.addPlayer(this);
 		this.currentRoom = newRoom;
+		place(newX, newY);
+	}
 
-		this.posX = newX;
-		this.posY = newY;
-
-		//Prevent the pesky move updates from overwriting the pos change
-		this.tempX = newX;
-		this.tempY = newY;	
+	/**
+	 * Puts the player at a position, without animating them.
+	 * @param x The new x position
+	 * @param y The new y position
+	 */
+	protected void place(int x, int y){
+		store.setPosition(slot, x, y);
+		moved();
 	}
 
 	/**
@@ -566,7 +621,7 @@ public abstract class Player {
 	 */
 	public void setFacing(int dir){
 		if (dir < 0 || dir > 3){ return; }
-		lastDirMoved = dir;
+		store.setDir(slot, dir);
 	}
 
 	/**
@@ -575,24 +630,15 @@ public abstract class Player {
 	 * @param y The new y position
 	 */
 	public void setXY(int x, int y){
-		posX = x;
-		posY = y;
+		place(x, y);
 		animate();
 	}
 
 	public void setCanvas(GUICanvas canvas){this.canvas = canvas;}
 
-	/**
-	 * replace player sprites with images scaled to the current view direction
-	 * @param newImages
-	 */
-	public void setScaledImages(Image[][] newImages) {
-		scaledSprites = newImages;
-	}
-
 	public void setSpeedModifier(int modifier){
 		speedModifier = modifier;
-		speed = Player.BASE_SPEED+speedModifier;
+		setSpeed(Player.BASE_SPEED+speedModifier);
 	}
 	
 	public Weapon getWeapon(){
@@ -617,8 +663,7 @@ public abstract class Player {
 			setCurrentRoom(room, x, y);
 		//else just update their position
 		} else{
-			posX = x;
-			posY = y;
+			place(x, y);
 		}
 		setFacing(direction);
 		animate();
@@ -3,9 +3,8 @@ package gameWorld.characters;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Room;
+import gameWorld.SpriteAtlas;
 
 /**
  * Represents the Pondy playable character
@@ -26,13 +25,12 @@ public class PondyPlayer extends Player {
 		try {
 			for (int dir = 0; dir < 4; dir++) {
 				for (int ani = 0; ani < 3; ani++) {
-					sprites[dir][ani] = ImageIO.read(PondyPlayer.class.getResource("/Players/Pondy"+dir+ani+".png"));
+					sprites[dir][ani] = SpriteAtlas.load("/Players/Pondy"+dir+ani+".png");
 				}
 			}
 		} catch (IOException e) {
 			System.out.println("Error loading player images: " + e.getMessage());
 		}
-		scaledSprites = sprites;
 	}
 
 	@Override
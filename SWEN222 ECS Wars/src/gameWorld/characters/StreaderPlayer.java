@@ -4,9 +4,8 @@ package gameWorld.characters;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Room;
+import gameWorld.SpriteAtlas;
 
 
 /**
@@ -28,13 +27,12 @@ public class StreaderPlayer extends Player {
 		try {
 			for (int dir = 0; dir < 4; dir++){
 				for (int ani = 0; ani < 3; ani++){
-					sprites[dir][ani] = ImageIO.read(StreaderPlayer.class.getResource("/Players/Streader"+dir+ani+".png"));
+					sprites[dir][ani] = SpriteAtlas.load("/Players/Streader"+dir+ani+".png");
 				}
 			}
 		} catch (IOException e) {
 			System.out.println("Error loading player images: " + e.getMessage());
 		}
-		scaledSprites = sprites;
 	}
 
 	@Override
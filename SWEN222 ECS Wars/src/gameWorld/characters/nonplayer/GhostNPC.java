@@ -3,13 +3,13 @@ package gameWorld.characters.nonplayer;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.PointValues;
 import gameWorld.Room;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 import gameWorld.characters.nonplayer.strategy.GhostStrategy;
 import gameWorld.characters.nonplayer.strategy.RespawnStrategy;
+import gameWorld.ecs.CharacterStore;
 
 /**
  * NPC describing a Ghost
@@ -24,7 +24,8 @@ public class GhostNPC extends NonPlayer {
 	public GhostNPC(Room room, int posX, int posY) {
 		super(room, posX, posY, new GhostStrategy(240));
 		
-		this.speed = 1;
+		this.setSpeed(1);
+		this.setFlags(CharacterStore.PASSES_WALLS);
 		this.setStrategy(Events.DEATH, new RespawnStrategy(10000));
 	}
 	
@@ -35,13 +36,12 @@ public class GhostNPC extends NonPlayer {
 		try {
 			for (int dir = 0; dir < 4; dir++){
 				for (int ani = 0; ani < 3; ani++){
-					sprites[dir][ani] = ImageIO.read(NonPlayer.class.getResource("/NPC/npc5"+dir+ani+".png"));
+					sprites[dir][ani] = SpriteAtlas.load("/NPC/npc5"+dir+ani+".png");
 				}
 			}
 		} catch (IOException e) {
 			System.out.println("Error loading player images: " + e.getMessage());
 		}
-		scaledSprites = sprites;
 	}
 	
 	@Override
@@ -49,9 +49,4 @@ public class GhostNPC extends NonPlayer {
 		p.givePoints(PointValues.NPC_HOSTILE_DEATH);
 		active.interact(null, this);
 	}
-	
-	@Override
-	public boolean canMove(int x, int y){
-		return true;
-	}
 }
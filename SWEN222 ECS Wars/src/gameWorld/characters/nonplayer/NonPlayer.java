@@ -5,10 +5,10 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.PointValues;
 import gameWorld.Room;
+import gameWorld.RoomGraph;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 import gameWorld.characters.nonplayer.strategy.NonPlayerStrategy;
 import gameWorld.characters.nonplayer.strategy.WaitStrategy;
@@ -42,8 +42,8 @@ public class NonPlayer extends Player {
 
 	public NonPlayer(Room room, int posX, int posY, NonPlayerStrategy initial) {
 		super(room, posX, posY);
-		super.health = NPC_HEALTH_MAX;
-		super.maxHealth = NPC_HEALTH_MAX;
+		setHealth(NPC_HEALTH_MAX);
+		setMaxHealth(NPC_HEALTH_MAX);
 		active = initial;
 		strategies = new HashMap<Events, NonPlayerStrategy>();
 		
@@ -60,17 +60,16 @@ public class NonPlayer extends Player {
 	protected void loadSprites(){
 		// Load sprites
 				sprites = new Image[4][3];
-				int spriteNo = (int) (Math.random()*3)+1;
+				int spriteNo = currentRoom.getRandom().nextInt(3)+1;
 				try {
 					for (int dir = 0; dir < 4; dir++){
 						for (int ani = 0; ani < 3; ani++){
-							sprites[dir][ani] = ImageIO.read(NonPlayer.class.getResource("/NPC/npc"+spriteNo+dir+ani+".png"));
+							sprites[dir][ani] = SpriteAtlas.load("/NPC/npc"+spriteNo+dir+ani+".png");
 						}
 					}
 				} catch (IOException e) {
 					System.out.println("Error loading player images: " + e.getMessage());
 				}
-				scaledSprites = sprites;
 	}
 	
 	@Override
@@ -89,6 +88,51 @@ public class NonPlayer extends Player {
 		currentRoom.addProjectile(currentWeapon.fire(this, theta));
 	}
 	
+	/**
+	 * Takes a step along the shortest route to another room, through
+	 * whichever doors lead there soonest. A room which isn't updated every
+	 * tick takes a step for each tick since its last update, following
+	 * the route around corners as it goes.
+	 * @param room The room to head for
+	 * @return true iff there is a route to the room
+	 */
+	public boolean moveTowards(Room room){
+		RoomGraph graph = currentRoom.getController().getRoomGraph();
+		if (graph == null){return false;}
+		Room from = currentRoom;
+		int ticks = from.getUpdateTicks();
+		for (int i = 0; i < ticks; i++){
+			int posX = getX();
+			int posY = getY();
+			int dir = graph.nextMove(from, posX, posY, room);
+			if (dir < 0){return i > 0;}
+			
+			int hitBox = getHitBox();
+			// keep the hit box inside the path's squares so corners don't catch it
+			int left = (posX/24)*24 + hitBox;
+			int top = (posY/24)*24 + hitBox;
+			int right = (posX/24)*24 + 23 - hitBox;
+			int bottom = (posY/24)*24 + 23 - hitBox;
+			if (dir == 0 || dir == 2){
+				if (posX < left){
+					step(1);
+				} else if (posX > right){
+					step(3);
+				}
+			} else {
+				if (posY < top){
+					step(2);
+				} else if (posY > bottom){
+					step(0);
+				}
+			}
+			step(dir); // last, so going through a door uses this direction
+			// stop in a door, so it is only walked through once
+			if (currentRoom != from || from.tileAt(getX(), getY()) == Room.TILE_DOOR){break;}
+		}
+		return true;
+	}
+	
 	/**
 	 * Player interacts with this character.
 	 * @param p The player interacting with me
@@ -150,13 +194,7 @@ public class NonPlayer extends Player {
 		currentRoom.removeNPC(this);
 		newRoom.addNPC(this);
 		this.currentRoom = newRoom;
-		
-		this.posX = newX;
-		this.posY = newY;
-	
-		//Prevent the pesky move updates from overwriting the pos change
-		this.tempX = newX;
-		this.tempY = newY;	
+		place(newX, newY);
 	}
 
 	public NonPlayerStrategy getStrategy(){
@@ -6,7 +6,7 @@ import gameWorld.characters.nonplayer.NonPlayer;
 /**
  * If an NPC is provoked, will invoke this strategy
  * Will follow player and attempt to kill player until:
- * 	-player leaves room
+ * 	-player gets somewhere the npc can't follow
  * 	-player dies
  *  -npc dies
  * 
@@ -26,13 +26,29 @@ public class ChaseCombatStrategy extends WaitStrategy {
 	
 	@Override
 	public void update() {
-		//check to see if we found a target, or if the target has left the room
-		if (target == null || target.isDead() || target.getCurrentRoom() != npc.getCurrentRoom()){
-			target = null;
+		//check to see if we found a target
+		if (target == null){
 			npc.respond(NonPlayer.Events.DEFAULT);
 			return; 
 		}
 		
+		//follow the target through the doors if they have left the room.
+		//only their room is looked at, as other rooms may be updating at the same time
+		if (target.getCurrentRoom() != npc.getCurrentRoom()){
+			if (!npc.moveTowards(target.getCurrentRoom())){
+				target = null;
+				npc.respond(NonPlayer.Events.DEFAULT);
+			}
+			return;
+		}
+		
+		//now the target is in this room its health can be read
+		if (target.isDead()){
+			target = null;
+			npc.respond(NonPlayer.Events.DEFAULT);
+			return;
+		}
+		
 		double min = Double.MAX_VALUE;
 
 		int dx = npc.getX() - target.getX();
@@ -1,6 +1,7 @@
 package gameWorld.characters.nonplayer.strategy;
 
 import main.SoundManager;
+import gameWorld.Controller;
 import gameWorld.Room;
 import gameWorld.characters.Player;
 import gameWorld.characters.nonplayer.NonPlayer;
@@ -29,33 +30,30 @@ public class GhostStrategy extends WaitStrategy {
 	@Override
 	public void update() {
 		Room room = npc.getCurrentRoom();
-		double min = Double.MAX_VALUE;
 		
 		//If we have no target, search for a target in range
 		if (target == null && !npc.isDead()){
 			//Find the closest player in the room
-			for (Player p : room.getPlayers() ){			
-				int dx = npc.getX() - p.getX();
-				int dy = npc.getY() - p.getY();
-				double dist = Math.sqrt((double)(dx*dx)+(double)(dy*dy));
-				
-				if (target == null || dist < min){
-					target = p;
-					min = dist;
-				}
-			}
-			
-			if (min > range){ 
-				target = null;
-			}
+			target = room.getGrid().nearestPlayer(npc.getX(), npc.getY(), range);
 			
 			//Play a sound if the ghost has acquired the current player as a target
-			if (target != null && target == npc.getCurrentRoom().getController().getCurrentPlayer()){
+			Controller ctrl = room.getController();
+			if (target != null && !ctrl.isHeadless() && target == ctrl.getCurrentPlayer()){
 				SoundManager.playSound("mgs_alert.mp3");
 			}
 		}
 		
-		if (target == null || target.isDead() || target.getCurrentRoom() != npc.getCurrentRoom()){
+		//follow the target through the doors if they have left the room.
+		//only their room is looked at, as other rooms may be updating at the same time
+		if (target != null && target.getCurrentRoom() != room){
+			if (npc.moveTowards(target.getCurrentRoom())){
+				return;
+			}
+			target = null;
+		}
+		
+		//a dead target isn't worth chasing; its health is only read now it is in this room
+		if (target != null && target.isDead()){
 			target = null;
 		}
 		
@@ -64,10 +62,6 @@ public class GhostStrategy extends WaitStrategy {
 			return;
 		}
 		
-		int dx = npc.getX() - target.getX();
-		int dy = npc.getY() - target.getY();
-		min = Math.sqrt((double)(dx*dx)+(double)(dy*dy));
-		
 		//Cause the npc to move towards the target
 		double theta = Math.toDegrees(Player.angleBetweenPlayerAndMouse(target.getX(), target.getY(),
 				npc.getX(), npc.getY()));
@@ -93,7 +87,8 @@ public class GhostStrategy extends WaitStrategy {
 	@Override
 	public void interact(Player p, NonPlayer npc){
 		//Play alert sound if there is new target, and it's the current player
-		if (p != target && npc.getCurrentRoom().getController().getCurrentPlayer() == p){
+		Controller ctrl = npc.getCurrentRoom().getController();
+		if (p != target && !ctrl.isHeadless() && ctrl.getCurrentPlayer() == p){
 			SoundManager.playSound("mgs_alert.mp3");
 		}
 		target = p;
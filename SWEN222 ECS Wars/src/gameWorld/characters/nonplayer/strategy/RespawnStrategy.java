@@ -1,8 +1,8 @@
 package gameWorld.characters.nonplayer.strategy;
 
+import gameWorld.Room;
 import gameWorld.characters.nonplayer.NonPlayer.Events;
 import gameWorld.gameEvents.Event;
-import gameWorld.gameEvents.GameClock;
 import gameWorld.gameEvents.RespawnEvent;
 
 
@@ -21,8 +21,14 @@ public class RespawnStrategy extends WaitStrategy {
 	@Override
 	public void initialize() {
 		//Schedule a respawn event		
-		Event respawn = new RespawnEvent(npc, npc.getCurrentRoom(), npc.getX(), npc.getY());
-		GameClock.getInstance().scheduleEvent(respawn , time);
+		Room room = npc.getCurrentRoom();
+		Event respawn = new RespawnEvent(npc, room, npc.getX(), npc.getY());
+		room.deferTransfer(new Runnable(){
+			@Override
+			public void run() {
+				room.getController().getClock().scheduleEvent(respawn , time);
+			}
+		});
 		
 		npc.respond(Events.DEFAULT);
 	}
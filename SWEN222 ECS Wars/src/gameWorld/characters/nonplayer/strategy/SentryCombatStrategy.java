@@ -24,20 +24,9 @@ public class SentryCombatStrategy extends WaitStrategy {
 	@Override
 	public void update() {
 		Room room = npc.getCurrentRoom();
-		Player target = null;
-		double min = Double.MAX_VALUE;
 		
 		//Find the closest player in the room
-		for (Player p : room.getPlayers() ){			
-			int dx = npc.getX() - p.getX();
-			int dy = npc.getY() - p.getY();
-			double dist = Math.sqrt((double)(dx*dx)+(double)(dy*dy));
-			
-			if (target == null || dist < min){
-				target = p;
-				min = dist;
-			}
-		}
+		Player target = room.getGrid().nearestPlayer(npc.getX(), npc.getY(), Double.MAX_VALUE);
 		
 		//we didn't find a target, so give up
 		if (target == null){return; }
@@ -59,7 +48,7 @@ public class SentryCombatStrategy extends WaitStrategy {
 		}
 		
 		// If the player is in range, shoot at them
-		if (min < range){
+		if ((double)dx*dx + (double)dy*dy < range*range){
 			npc.shoot(target.getX(), target.getY());
 		}
 	}
@@ -8,6 +8,8 @@ import gameWorld.gameObjects.MedicineBottle;
 import gameWorld.gameObjects.PillBottle;
 import gameWorld.gameObjects.Sellable;
 
+import java.util.Random;
+
 /**
  * A strategy representing a merchant NPC, from
  * which the player can buy recovery items
@@ -20,9 +22,13 @@ public class WanderingMerchantStrategy extends WanderingStrategy {
 	
 	private Sellable inventoryItem;
 	
-	public WanderingMerchantStrategy(){
+	/**
+	 * Creates a merchant selling a randomly chosen item
+	 * @param random The random number generator of the merchant's room
+	 */
+	public WanderingMerchantStrategy(Random random){
 		// decide which item this npc should sell
-		double chance = Math.random();
+		double chance = random.nextDouble();
 		if(chance < 0.7){
 			inventoryItem = new MedicineBottle();
 			description = "I sell medicine!";
@@ -1,10 +1,9 @@
 package gameWorld.characters.nonplayer.strategy;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 import gameWorld.characters.Player;
 import gameWorld.characters.nonplayer.NonPlayer;
+import gameWorld.gameEvents.Cooldown;
+import gameWorld.gameEvents.GameClock;
 
 /**
  * NPC strategy describing random movement
@@ -23,8 +22,9 @@ public class WanderingStrategy extends WaitStrategy {
 	private int state = WAIT;
 	private int direction = 0;
 	
-	private Timer timer = new Timer();
+	private Cooldown timer = new Cooldown();
 	private boolean activeTimer = false;
+	private int goalState;
 	
 	public WanderingStrategy(){}
 	
@@ -34,35 +34,40 @@ public class WanderingStrategy extends WaitStrategy {
 	
 	@Override
 	public void update(){
+		GameClock clock = npc.getCurrentRoom().getController().getClock();
+		if (activeTimer && timer.isReady(clock)){
+			state = goalState;
+			activeTimer = false;
+		}
+		
 		//Alternate between two states
 		if (state == WAIT){
 			
 			if (activeTimer){return;}
-			startTimer(WANDER, MAX_WAIT_TIME);
+			startTimer(clock, WANDER, MAX_WAIT_TIME);
 			
 		} else if (state == WANDER) {
 			if (!activeTimer){
 				//Start a timer, and pick a random direction to travel
-				startTimer(WAIT, MAX_WANDER_TIME);
-				direction = (int)(Math.random()*4);
+				startTimer(clock, WAIT, MAX_WANDER_TIME);
+				direction = npc.getCurrentRoom().getRandom().nextInt(4);
 			}
 			
 			npc.move(direction);
 		}
 	}
 	
-	private void startTimer(int goalState, int max_delay){
+	/**
+	 * Switches to the goal state after a random delay
+	 * @param clock The clock of the npc's game
+	 * @param goalState The state to switch to
+	 * @param max_delay The longest delay in ms
+	 */
+	private void startTimer(GameClock clock, int goalState, int max_delay){
 		if (!activeTimer){
 			activeTimer = true;
-			timer.schedule(new TimerTask(){
-
-			@Override
-			public void run() {
-				state = goalState;
-				activeTimer = false;
-			}
-			
-			}, (int)(Math.random()*max_delay));
+			this.goalState = goalState;
+			timer.startMs(clock, npc.getCurrentRoom().getRandom().nextInt(max_delay));
 		}
 	}
 	
@@ -0,0 +1,213 @@
+package gameWorld.ecs;
+
+import gameWorld.characters.Player;
+
+import java.util.Arrays;
+
+/**
+ * The components of every character in a room, kept in parallel
+ * primitive arrays like ProjectileStore: position, velocity (the
+ * direction last moved in and the speed), health and hit box. The
+ * systems in CharacterSystem move characters and change their health
+ * through these arrays.
+ *
+ * Each Player object is a handle onto one slot of a store. While a
+ * character is in a room its slot is in the room's store; otherwise
+ * the character keeps a store of its own, so its state always lives
+ * in a store. Taking a character out of a store only marks its slot,
+ * so the other characters keep their slots until the room calls
+ * compact() at the end of its update, when nothing else can be
+ * looking at them.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class CharacterStore {
+	// flags
+	public static final int PASSES_WALLS = 1; // walks through walls, doors and other characters
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	// position, in pixels
+	int[] x;
+	int[] y;
+
+	// velocity: the direction last moved in, and pixels per step
+	int[] dir;
+	int[] speed;
+
+	// health, collision and behaviour
+	int[] health;
+	int[] maxHealth;
+	int[] hitBox; // half the width of the character's bounding box
+	int[] flags;
+
+	boolean[] active;
+	Player[] handle;
+
+	int size;
+	private int removed; // slots taken out since the last compaction
+
+	/**
+	 * Creates an empty store.
+	 */
+	public CharacterStore(){
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty store with room for the given number of characters.
+	 * @param capacity The number of characters to make room for
+	 */
+	public CharacterStore(int capacity){
+		capacity = Math.max(1, capacity);
+		x = new int[capacity];
+		y = new int[capacity];
+		dir = new int[capacity];
+		speed = new int[capacity];
+		health = new int[capacity];
+		maxHealth = new int[capacity];
+		hitBox = new int[capacity];
+		flags = new int[capacity];
+		active = new boolean[capacity];
+		handle = new Player[capacity];
+	}
+
+	/**
+	 * Adds a character to the store.
+	 * @param p The character which will refer to this slot
+	 * @param x The x position
+	 * @param y The y position
+	 * @param dir The direction the character last moved in
+	 * @param speed The number of pixels the character moves each step
+	 * @param health The character's health
+	 * @param maxHealth The character's maximum health
+	 * @param hitBox Half the width of the character's bounding box
+	 * @param flags Any of PASSES_WALLS
+	 * @return The slot the character was put in
+	 */
+	public int add(Player p, int x, int y, int dir, int speed,
+			int health, int maxHealth, int hitBox, int flags){
+		if (size == this.x.length){
+			grow();
+		}
+		int i = size++;
+		this.x[i] = x;
+		this.y[i] = y;
+		this.dir[i] = dir;
+		this.speed[i] = speed;
+		this.health[i] = health;
+		this.maxHealth[i] = maxHealth;
+		this.hitBox[i] = hitBox;
+		this.flags[i] = flags;
+		this.active[i] = true;
+		this.handle[i] = p;
+		return i;
+	}
+
+	/**
+	 * Moves a character's components into another store. The slot it
+	 * leaves behind is removed the next time this store is compacted.
+	 * @param slot The character's slot in this store
+	 * @param to The store to move the character to
+	 * @return The character's slot in the other store
+	 */
+	public int transfer(int slot, CharacterStore to){
+		int i = to.add(handle[slot], x[slot], y[slot], dir[slot], speed[slot],
+				health[slot], maxHealth[slot], hitBox[slot], flags[slot]);
+		active[slot] = false;
+		handle[slot] = null;
+		removed++;
+		return i;
+	}
+
+	/**
+	 * Doubles the capacity of every component array.
+	 */
+	private void grow(){
+		int capacity = x.length*2;
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		dir = Arrays.copyOf(dir, capacity);
+		speed = Arrays.copyOf(speed, capacity);
+		health = Arrays.copyOf(health, capacity);
+		maxHealth = Arrays.copyOf(maxHealth, capacity);
+		hitBox = Arrays.copyOf(hitBox, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		active = Arrays.copyOf(active, capacity);
+		handle = Arrays.copyOf(handle, capacity);
+	}
+
+	/**
+	 * Removes the slots of every character which has been moved out,
+	 * moving the rest down so they stay in order.
+	 */
+	public void compact(){
+		if (removed == 0){return;}
+		int live = 0;
+		for (int i = 0; i < size; i++){
+			if (!active[i]){continue;}
+			if (live != i){
+				x[live] = x[i];
+				y[live] = y[i];
+				dir[live] = dir[i];
+				speed[live] = speed[i];
+				health[live] = health[i];
+				maxHealth[live] = maxHealth[i];
+				hitBox[live] = hitBox[i];
+				flags[live] = flags[i];
+				active[live] = true;
+				handle[live] = handle[i];
+				handle[live].setSlot(live);
+			}
+			live++;
+		}
+		Arrays.fill(active, live, size, false);
+		Arrays.fill(handle, live, size, null);
+		size = live;
+		removed = 0;
+	}
+
+	public int size(){return size;}
+
+	public boolean isActive(int slot){return active[slot];}
+
+	public Player getCharacter(int slot){return handle[slot];}
+
+	public int getX(int slot){return x[slot];}
+
+	public int getY(int slot){return y[slot];}
+
+	public int getDir(int slot){return dir[slot];}
+
+	public int getSpeed(int slot){return speed[slot];}
+
+	public int getHealth(int slot){return health[slot];}
+
+	public int getMaxHealth(int slot){return maxHealth[slot];}
+
+	public int getHitBox(int slot){return hitBox[slot];}
+
+	public int getFlags(int slot){return flags[slot];}
+
+	/**
+	 * Sets the position of a character.
+	 * @param slot The character's slot
+	 * @param x The new x position
+	 * @param y The new y position
+	 */
+	public void setPosition(int slot, int x, int y){
+		this.x[slot] = x;
+		this.y[slot] = y;
+	}
+
+	public void setDir(int slot, int dir){this.dir[slot] = dir;}
+
+	public void setSpeed(int slot, int speed){this.speed[slot] = speed;}
+
+	public void setHealth(int slot, int health){this.health[slot] = health;}
+
+	public void setMaxHealth(int slot, int maxHealth){this.maxHealth[slot] = maxHealth;}
+
+	public void setFlags(int slot, int flags){this.flags[slot] = flags;}
+}
@@ -0,0 +1,122 @@
+package gameWorld.ecs;
+
+import gameWorld.Room;
+import gameWorld.characters.Player;
+import gameWorld.gameObjects.Door;
+
+import java.util.List;
+
+/**
+ * The systems which change the characters in a CharacterStore:
+ * movement with collision against walls, doors and other characters,
+ * and damage and healing. Player and NonPlayer hand their moves and
+ * health changes to these, while their strategies decide what to do.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public final class CharacterSystem {
+
+	private CharacterSystem(){}
+
+	/**
+	 * Moves a character one step in a direction, unless something is
+	 * in the way. Stepping wholly into a door walks the character
+	 * through it.
+	 * @param s The store the character is in
+	 * @param i The character's slot
+	 * @param dir The direction to move in (0 up, 1 right, 2 down, 3 left)
+	 * @param room The room the character is in
+	 * @return true iff the character moved
+	 */
+	public static boolean move(CharacterStore s, int i, int dir, Room room){
+		s.dir[i] = dir;
+		int x = s.x[i];
+		int y = s.y[i];
+		switch(dir){
+		case 1: x += s.speed[i];
+		break;
+		case 3: x -= s.speed[i];
+		break;
+		case 2: y += s.speed[i];
+		break;
+		default: y -= s.speed[i];
+		break;
+		}
+		if (!canMove(s, i, x, y, room)){
+			return false;
+		}
+		// a door outside of an update moves the character straight away,
+		// which has already put it in its new room
+		if (s.active[i]){
+			s.x[i] = x;
+			s.y[i] = y;
+		}
+		return true;
+	}
+
+	/**
+	 * Determines whether a character can move to a position, walking it
+	 * through a door if every corner of it would be in one.
+	 * @param s The store the character is in
+	 * @param i The character's slot
+	 * @param x The x position to move to
+	 * @param y The y position to move to
+	 * @param room The room the character is in
+	 * @return true iff the character can move to (x,y)
+	 */
+	public static boolean canMove(CharacterStore s, int i, int x, int y, Room room){
+		if ((s.flags[i] & CharacterStore.PASSES_WALLS) != 0){return true;}
+		int hitBox = s.hitBox[i];
+		// Checks each corner: top right, bottom right, bottom left, top left
+		if (!room.canWalk(x+hitBox, y+hitBox) || !room.canWalk(x+hitBox, y-hitBox)
+				|| !room.canWalk(x-hitBox, y-hitBox) || !room.canWalk(x-hitBox, y+hitBox)){
+			return false;
+		}
+		Player self = s.handle[i];
+		// Walk through a door if every corner is in one
+		if (room.tileAt(x+hitBox, y+hitBox) == Room.TILE_DOOR
+				&& room.tileAt(x+hitBox, y-hitBox) == Room.TILE_DOOR
+				&& room.tileAt(x-hitBox, y-hitBox) == Room.TILE_DOOR
+				&& room.tileAt(x-hitBox, y+hitBox) == Room.TILE_DOOR){
+			((Door)room.itemAt(x-hitBox, y+hitBox)).walkThrough(self);
+		}
+
+		//Check if the character intersects with another character at the new position
+		int posX = self.getX();
+		int posY = self.getY();
+		List<Player> near = room.getGrid().query(x-hitBox, y-hitBox, hitBox*2, hitBox*2);
+		for (int j = 0; j < near.size(); j++){
+			Player p = near.get(j);
+			if (p == self){continue;}
+			//If this character is already intersecting (such as spawning inside them)
+			//let them move
+			if (p.boxIntersects(posX-hitBox, posY-hitBox, hitBox*2, hitBox*2)){
+				return true;
+			}
+
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Changes a character's health, keeping it between 0 and
+	 * Player.HEALTH_MAX. Negative amounts are damage.
+	 * @param s The store the character is in
+	 * @param i The character's slot
+	 * @param amount The amount to change the health by
+	 * @return true iff the character has no health left
+	 */
+	public static boolean modifyHealth(CharacterStore s, int i, int amount){
+		s.health[i] += amount;
+		if (s.health[i] > Player.HEALTH_MAX){
+			s.health[i] = Player.HEALTH_MAX;
+		} else if (s.health[i] <= 0){
+			s.health[i] = 0;
+			return true;
+		}
+		return false;
+	}
+}
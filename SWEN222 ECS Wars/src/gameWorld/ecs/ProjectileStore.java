@@ -0,0 +1,196 @@
+package gameWorld.ecs;
+
+import gameWorld.characters.Player;
+import gameWorld.gameObjects.weapons.projectiles.Projectile;
+
+import java.util.Arrays;
+
+/**
+ * The components of every projectile in a room, kept in parallel
+ * primitive arrays (one entry per projectile) rather than in one object
+ * per projectile. The systems in ProjectileSystem run straight down
+ * these arrays, so updating projectiles touches memory in order and
+ * makes no virtual calls.
+ *
+ * Each Projectile object is a handle onto one slot of a store while it
+ * is in a room. Slots are kept in the order projectiles were added, so
+ * every client updates them in the same order.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class ProjectileStore {
+	// flags
+	public static final int REFLECTS = 1; // bounces off walls
+	public static final int HITS_OWNER = 2; // can hit its owner once it has bounced
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	// position and velocity, fixed point (see Projectile.FIXED_SHIFT)
+	int[] x = new int[INITIAL_CAPACITY];
+	int[] y = new int[INITIAL_CAPACITY];
+	int[] dx = new int[INITIAL_CAPACITY];
+	int[] dy = new int[INITIAL_CAPACITY];
+
+	// collision and damage
+	int[] hitBox = new int[INITIAL_CAPACITY];
+	int[] damage = new int[INITIAL_CAPACITY];
+	int[] bounces = new int[INITIAL_CAPACITY]; // bounces left
+	int[] maxBounces = new int[INITIAL_CAPACITY];
+	int[] flags = new int[INITIAL_CAPACITY];
+
+	// lifetime and ownership
+	boolean[] active = new boolean[INITIAL_CAPACITY];
+	Player[] owner = new Player[INITIAL_CAPACITY];
+	Projectile[] handle = new Projectile[INITIAL_CAPACITY];
+
+	int size;
+
+	/**
+	 * Adds a projectile to the store.
+	 * @param p The projectile object which will refer to this slot
+	 * @param owner The player who fired it
+	 * @param x The fixed point x position
+	 * @param y The fixed point y position
+	 * @param dx The fixed point x velocity
+	 * @param dy The fixed point y velocity
+	 * @param hitBox Half the width of the projectile's bounding box
+	 * @param damage The change to the health of a player it hits
+	 * @param bounces The number of times it can bounce
+	 * @param flags Any of REFLECTS and HITS_OWNER
+	 * @return The slot the projectile was put in
+	 */
+	public int add(Projectile p, Player owner, int x, int y, int dx, int dy,
+			int hitBox, int damage, int bounces, int flags){
+		if (size == this.x.length){
+			grow();
+		}
+		int i = size++;
+		this.x[i] = x;
+		this.y[i] = y;
+		this.dx[i] = dx;
+		this.dy[i] = dy;
+		this.hitBox[i] = hitBox;
+		this.damage[i] = damage;
+		this.bounces[i] = bounces;
+		this.maxBounces[i] = bounces;
+		this.flags[i] = flags;
+		this.active[i] = true;
+		this.owner[i] = owner;
+		this.handle[i] = p;
+		return i;
+	}
+
+	/**
+	 * Doubles the capacity of every component array.
+	 */
+	private void grow(){
+		int capacity = x.length*2;
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		dx = Arrays.copyOf(dx, capacity);
+		dy = Arrays.copyOf(dy, capacity);
+		hitBox = Arrays.copyOf(hitBox, capacity);
+		damage = Arrays.copyOf(damage, capacity);
+		bounces = Arrays.copyOf(bounces, capacity);
+		maxBounces = Arrays.copyOf(maxBounces, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		active = Arrays.copyOf(active, capacity);
+		owner = Arrays.copyOf(owner, capacity);
+		handle = Arrays.copyOf(handle, capacity);
+	}
+
+	/**
+	 * Removes every inactive projectile, moving the rest down so they
+	 * stay in order. Removed projectiles are detached from the store.
+	 */
+	public void compact(){
+		int live = 0;
+		for (int i = 0; i < size; i++){
+			if (!active[i]){
+				handle[i].detach();
+				continue;
+			}
+			if (live != i){
+				x[live] = x[i];
+				y[live] = y[i];
+				dx[live] = dx[i];
+				dy[live] = dy[i];
+				hitBox[live] = hitBox[i];
+				damage[live] = damage[i];
+				bounces[live] = bounces[i];
+				maxBounces[live] = maxBounces[i];
+				flags[live] = flags[i];
+				active[live] = true;
+				owner[live] = owner[i];
+				handle[live] = handle[i];
+				handle[live].setSlot(live);
+			}
+			live++;
+		}
+		// let go of the removed objects
+		Arrays.fill(owner, live, size, null);
+		Arrays.fill(handle, live, size, null);
+		size = live;
+	}
+
+	/**
+	 * Removes a projectile straight away. Must not be called while a
+	 * system is running over the store.
+	 * @param p The projectile to remove
+	 */
+	public void remove(Projectile p){
+		for (int i = 0; i < size; i++){
+			if (handle[i] == p){
+				active[i] = false;
+				compact();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes every projectile.
+	 */
+	public void clear(){
+		for (int i = 0; i < size; i++){
+			active[i] = false;
+		}
+		compact();
+	}
+
+	public int size(){return size;}
+
+	public int getX(int slot){return x[slot];}
+
+	public int getY(int slot){return y[slot];}
+
+	public int getDx(int slot){return dx[slot];}
+
+	public int getDy(int slot){return dy[slot];}
+
+	public int getBounces(int slot){return bounces[slot];}
+
+	public boolean isActive(int slot){return active[slot];}
+
+	public Projectile getProjectile(int slot){return handle[slot];}
+
+	/**
+	 * Sets the velocity of a projectile.
+	 * @param slot The projectile's slot
+	 * @param dx The fixed point x velocity
+	 * @param dy The fixed point y velocity
+	 */
+	public void setVelocity(int slot, int dx, int dy){
+		this.dx[slot] = dx;
+		this.dy[slot] = dy;
+	}
+
+	/**
+	 * Marks a projectile to be removed at the end of the tick.
+	 * @param slot The projectile's slot
+	 */
+	public void kill(int slot){
+		active[slot] = false;
+	}
+}
@@ -0,0 +1,115 @@
+package gameWorld.ecs;
+
+import gameWorld.Room;
+import gameWorld.characters.Player;
+import gameWorld.gameObjects.weapons.projectiles.Projectile;
+
+import java.util.List;
+
+/**
+ * The systems which update the projectiles in a room: collision with
+ * characters (dealing damage), then movement and bouncing off walls,
+ * then removal of spent projectiles. Each runs over every slot of a
+ * ProjectileStore in turn.
+ *
+ * Running collision for every projectile before moving any of them
+ * gives the same result as updating each projectile in full one at a
+ * time, as projectiles never affect one another.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public final class ProjectileSystem {
+	private static final int SHIFT = Projectile.FIXED_SHIFT;
+
+	private ProjectileSystem(){}
+
+	/**
+	 * Runs every projectile system over a room's projectiles for one tick.
+	 * @param s The room's projectiles
+	 * @param room The room they are in
+	 */
+	public static void update(ProjectileStore s, Room room){
+		for (int i = 0; i < s.size; i++){
+			collide(s, i, room);
+		}
+		for (int i = 0; i < s.size; i++){
+			move(s, i, room);
+		}
+		s.compact();
+	}
+
+	/**
+	 * Updates a single projectile for one tick, without removing it.
+	 * @param s The store the projectile is in
+	 * @param slot The projectile's slot
+	 * @param room The room the store belongs to
+	 */
+	public static void step(ProjectileStore s, int slot, Room room){
+		collide(s, slot, room);
+		move(s, slot, room);
+	}
+
+	/**
+	 * Damages any character the projectile is inside. Projectiles which
+	 * don't bounce stop at the first character they hit.
+	 */
+	private static void collide(ProjectileStore s, int i, Room room){
+		if (!s.active[i]){return;}
+		int hitBox = s.hitBox[i];
+		int left = (s.x[i] >> SHIFT) - hitBox;
+		int top = (s.y[i] >> SHIFT) - hitBox;
+		boolean reflects = (s.flags[i] & ProjectileStore.REFLECTS) != 0;
+		// a projectile can only hit its owner after it has bounced, if at all
+		boolean hitsOwner = (s.flags[i] & ProjectileStore.HITS_OWNER) != 0
+				&& s.bounces[i] != s.maxBounces[i];
+
+		List<Player> near = room.getGrid().query(left, top, hitBox*2, hitBox*2);
+		for (int j = 0; j < near.size(); j++){
+			Player p = near.get(j);
+			if (p == s.owner[i] && !hitsOwner){continue;}
+			if (!p.isDead() && p.boxContains(left, top, hitBox*2, hitBox*2)){
+				p.modifyHealth(s.damage[i], s.handle[i]);
+				s.active[i] = false;
+				if (!reflects){return;}
+			}
+		}
+	}
+
+	/**
+	 * Moves the projectile on by its velocity, bouncing it off walls or
+	 * stopping it when it hits one, and stops it if it leaves the room.
+	 */
+	private static void move(ProjectileStore s, int i, Room room){
+		boolean reflects = (s.flags[i] & ProjectileStore.REFLECTS) != 0;
+		// a projectile which stopped in a character goes no further, but
+		// one which bounces carries on moving for the rest of this tick
+		if (!s.active[i] && !reflects){return;}
+		int newX = s.x[i] + s.dx[i];
+		int newY = s.y[i] + s.dy[i];
+
+		if (room.blocksProjectile(newX >> SHIFT, newY >> SHIFT)){
+			if (!reflects || s.bounces[i] == 0){
+				s.active[i] = false;
+			} else {
+				//check if we hit on the horizontal, otherwise we must have hit vertical
+				if (room.blocksProjectile(s.x[i] >> SHIFT, newY >> SHIFT)){
+					s.dy[i] = -s.dy[i];
+				} else {
+					s.dx[i] = -s.dx[i];
+				}
+				s.bounces[i]--;
+			}
+		} else {
+			s.x[i] = newX;
+			s.y[i] = newY;
+		}
+
+		// check if projectile is outside room bounds
+		int x = s.x[i] >> SHIFT;
+		int y = s.y[i] >> SHIFT;
+		if (x < 0 || x > room.getWidth() || y < 0 || y > room.getHeight()){
+			s.active[i] = false;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package gameWorld.gameEvents;
+
+/**
+ * A per-entity delay counted in game ticks, such as the time between
+ * shots of a weapon. A cooldown only remembers the tick it is next ready
+ * on, so starting and checking one allocates nothing and needs no
+ * thread; it simply compares against the game's clock.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public final class Cooldown {
+	private long readyAt;
+
+	/**
+	 * Creates a cooldown which is ready immediately.
+	 */
+	public Cooldown(){
+		readyAt = 0;
+	}
+
+	/**
+	 * Determines whether the cooldown has finished.
+	 * @param clock The clock of the game this cooldown is used in
+	 * @return true iff the cooldown has run out
+	 */
+	public boolean isReady(GameClock clock){
+		return clock.getTick() >= readyAt;
+	}
+
+	/**
+	 * Starts the cooldown, so it is ready again after the given
+	 * number of ticks.
+	 * @param clock The clock of the game this cooldown is used in
+	 * @param ticks The number of ticks until the cooldown is ready
+	 */
+	public void start(GameClock clock, long ticks){
+		readyAt = clock.getTick() + ticks;
+	}
+
+	/**
+	 * Starts the cooldown, so it is ready again after the given delay.
+	 * @param clock The clock of the game this cooldown is used in
+	 * @param delay The delay in ms
+	 */
+	public void startMs(GameClock clock, long delay){
+		start(clock, GameClock.msToTicks(delay));
+	}
+
+	/**
+	 * Makes the cooldown ready immediately.
+	 */
+	public void reset(){
+		readyAt = 0;
+	}
+}
@@ -25,7 +25,9 @@ public class DayNightEvent implements Event{
 //		if (time % duration == 0){
 //			controller.setDayTime(!controller.isDayTime());	
 //		}
-		controller.getGUI().getCanvas().rotateSundial(180/duration);
+		if (!controller.isHeadless()){
+			controller.getGUI().getCanvas().rotateSundial(180/duration);
+		}
 	}
 
 	@Override
@@ -1,55 +1,59 @@
 package gameWorld.gameEvents;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import gameWorld.Controller;
+import gameWorld.gameEvents.TimingWheel.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * A clock which times clock based events
- * 
+ * A clock which times clock based events.
+ * Each game owns its own clock, which is advanced by the game loop once
+ * per tick, so every event runs on the simulation thread in a
+ * deterministic order.
+ *
  * @author Carl Anderson 300264124
  */
 public final class GameClock {
 	public static final int CLOCK_TICK = 1000; //in ms
 	public static final int START_TIME = 0;
-	private static GameClock _instance = null;
-	
-	private Timer clockTimer;
+	public static final int TICKS_PER_SECOND = (int)Math.round(1/Controller.FRAME_RATE);
+	private static final int TICKS_PER_CLOCK_TICK = TICKS_PER_SECOND*CLOCK_TICK/1000;
+
 	private int time;
-	private Set<Event> events;
-	
-	private GameClock(){
+	private long tick;
+	private List<Event> events;
+	private TimingWheel delayed;
+
+	public GameClock(){
 		time = START_TIME;
-		events = new HashSet<Event>();
-		clockTimer = new Timer();
+		tick = 0;
+		events = new ArrayList<Event>();
+		delayed = new TimingWheel();
 	}
-	
+
 	/**
-	 * Starts the clock
+	 * Moves the clock forward one game tick, activating any delayed
+	 * events that are due, and notifying the timed events whenever
+	 * a clock tick has passed.
 	 */
-	public void start(){
-		clockTimer.scheduleAtFixedRate(new TimerTask(){
-
-			@Override
-			public void run() {
-				time++;
-				Iterator<Event> iter = events.iterator();
-				
-				while(iter.hasNext()){
-					Event e = iter.next();
-					e.notify(time);
-					
-					if (e.isComplete()){
-						iter.remove();
-					}
+	public void advance(){
+		tick++;
+		delayed.advance();
+
+		if (tick % TICKS_PER_CLOCK_TICK == 0){
+			time++;
+			for (int i = 0; i < events.size(); i++){
+				Event e = events.get(i);
+				e.notify(time);
+
+				if (e.isComplete()){
+					events.remove(i--);
 				}
 			}
-			
-		}, CLOCK_TICK, CLOCK_TICK);
+		}
 	}
-	
+
 	/**
 	 * Adds an event that runs at a specific time
 	 * @param e
@@ -57,56 +61,56 @@ public final class GameClock {
 	public void scheduleEvent(Event e){
 		events.add(e);
 	}
-	
+
 	/**
 	 * Adds an event that runs a single time after a time delay
 	 * @param e
-	 * @param delay
+	 * @param delay The delay in ms
+	 * @return A handle which can be used to cancel the event
 	 */
-	public void scheduleEvent(Event e, int delay){
-		clockTimer.schedule(new TimerTask(){
-
-			@Override
-			public void run() {
-				e.activate();
-			}
-			
-		}, delay);
+	public Timeout scheduleEvent(Event e, int delay){
+		return delayed.schedule(e, msToTicks(delay));
 	}
-	
+
 	/**
-	 * Stops the clock timer
+	 * Removes all events from the clock
 	 */
 	public void stop(){
-		clockTimer.cancel();
+		events.clear();
+		delayed.clear();
 	}
-	
+
 	public void reset(){
 		time = 0;
 	}
-	
+
 	public int getTime(){
 		return time;
 	}
-	
+
 	public void setTime(int time){
 		this.time = time;
 	}
-	
+
 	/**
-	 * Returns the instance of the game clock
-	 * @return
+	 * Gets the number of game ticks this clock has been advanced.
+	 * @return The current game tick
 	 */
-	public static GameClock getInstance(){
-		if (_instance == null){
-			_instance = new GameClock();
-			_instance.start();
-		}
-		
-		return _instance;
+	public long getTick(){
+		return tick;
 	}
-	
+
 	public static int secondsToTicks(int seconds){
 		return seconds*1000/CLOCK_TICK;
 	}
+
+	/**
+	 * Converts a delay in milliseconds to a number of game ticks,
+	 * rounding up.
+	 * @param ms The delay in ms
+	 * @return The number of game ticks
+	 */
+	public static long msToTicks(long ms){
+		return (ms*TICKS_PER_SECOND + 999)/1000;
+	}
 }
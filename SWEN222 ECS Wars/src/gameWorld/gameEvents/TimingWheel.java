@@ -0,0 +1,228 @@
+package gameWorld.gameEvents;
+
+/**
+ * A hierarchical timing wheel holding one-off events, counted in game
+ * ticks. Scheduling and cancelling an event are both O(1); advancing the
+ * wheel by a tick only touches the events due on that tick, plus an
+ * occasional cascade of a coarser slot down into the finer wheels.
+ *
+ * Events due on the same tick fire in the order they were scheduled, so
+ * two games fed the same schedule fire their events identically. Each
+ * slot is kept in scheduling order, so an event cascading down from a
+ * coarser wheel still fires before any event scheduled after it.
+ *
+ * Not thread safe: it must only be used from the simulation thread.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public final class TimingWheel {
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS; // slots per wheel
+	private static final int MASK = SLOTS-1;
+	private static final int LEVELS = 4; // covers 2^24 ticks, over 77 hours at 60Hz
+
+	private final Timeout[][] wheels; // sentinel of each slot's list
+	private final Timeout overflow; // events too far away for any wheel
+	private long current; // the last tick that was processed
+	private long scheduled; // the number of events ever scheduled, to order them
+	private int size;
+
+	/**
+	 * Creates an empty timing wheel starting at tick 0.
+	 */
+	public TimingWheel(){
+		wheels = new Timeout[LEVELS][SLOTS];
+		for (int level = 0; level < LEVELS; level++){
+			for (int slot = 0; slot < SLOTS; slot++){
+				wheels[level][slot] = new Timeout(null, 0, 0);
+			}
+		}
+		overflow = new Timeout(null, 0, 0);
+		current = 0;
+	}
+
+	/**
+	 * Schedules an event to be activated after the given number of ticks.
+	 * @param e The event to activate
+	 * @param delay The number of ticks to wait; at least 1
+	 * @return A handle which can cancel the event
+	 */
+	public Timeout schedule(Event e, long delay){
+		Timeout t = new Timeout(e, current + Math.max(1, delay), ++scheduled);
+		insert(t);
+		size++;
+		return t;
+	}
+
+	/**
+	 * Moves the wheel forward one tick and activates every event which
+	 * is now due.
+	 */
+	public void advance(){
+		current++;
+		// cascade coarser wheels down as the finer ones wrap around
+		for (int level = 1; level < LEVELS; level++){
+			if (((current >> ((level-1)*SLOT_BITS)) & MASK) != 0){
+				break;
+			}
+			cascade(wheels[level][(int)((current >> (level*SLOT_BITS)) & MASK)]);
+			if (level == LEVELS-1 && ((current >> (level*SLOT_BITS)) & MASK) == 0){
+				cascade(overflow);
+			}
+		}
+		// fire everything in the current slot
+		Timeout slot = wheels[0][(int)(current & MASK)];
+		while (slot.next != slot){
+			Timeout t = slot.next;
+			t.unlink();
+			size--;
+			t.event.activate();
+		}
+	}
+
+	/**
+	 * Gets the number of events waiting to fire.
+	 * @return The number of scheduled events
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Gets the last tick the wheel has processed.
+	 * @return The current tick
+	 */
+	public long getTick(){
+		return current;
+	}
+
+	/**
+	 * Removes every scheduled event without firing it.
+	 */
+	public void clear(){
+		for (Timeout[] wheel : wheels){
+			for (Timeout slot : wheel){
+				clear(slot);
+			}
+		}
+		clear(overflow);
+		size = 0;
+	}
+
+	/**
+	 * Unlinks every timeout in a slot.
+	 * @param slot The sentinel of the slot to empty
+	 */
+	private void clear(Timeout slot){
+		while (slot.next != slot){
+			slot.next.unlink();
+		}
+	}
+
+	/**
+	 * Reinserts every timeout in a slot according to its deadline.
+	 * @param slot The sentinel of the slot to cascade
+	 */
+	private void cascade(Timeout slot){
+		// detach the whole list first, as entries may land back in this slot
+		Timeout first = slot.next;
+		Timeout last = slot.prev;
+		if (first == slot){return;}
+		slot.next = slot;
+		slot.prev = slot;
+		last.next = null;
+		for (Timeout t = first; t != null;){
+			Timeout next = t.next;
+			t.next = null;
+			t.prev = null;
+			insert(t);
+			t = next;
+		}
+	}
+
+	/**
+	 * Puts a timeout into the slot its deadline belongs to, after every
+	 * timeout in the slot which was scheduled before it. A newly scheduled
+	 * timeout always goes straight on the end.
+	 * @param t The timeout to insert
+	 */
+	private void insert(Timeout t){
+		long delta = t.deadline - current;
+		Timeout slot = overflow;
+		for (int level = 0; level < LEVELS; level++){
+			if (delta < (1L << ((level+1)*SLOT_BITS))){
+				slot = wheels[level][(int)((t.deadline >> (level*SLOT_BITS)) & MASK)];
+				break;
+			}
+		}
+		Timeout after = slot.prev;
+		while (after != slot && after.order > t.order){
+			after = after.prev;
+		}
+		t.linkBefore(after.next);
+	}
+
+	/**
+	 * A handle to an event scheduled on a TimingWheel.
+	 */
+	public final class Timeout {
+		private final Event event;
+		private final long deadline;
+		private final long order; // when the event was scheduled
+		private Timeout prev;
+		private Timeout next;
+
+		private Timeout(Event event, long deadline, long order){
+			this.event = event;
+			this.deadline = deadline;
+			this.order = order;
+			// sentinels point at themselves
+			prev = this;
+			next = this;
+		}
+
+		/**
+		 * Stops the event from firing, if it has not fired already.
+		 * @return true iff the event was still waiting to fire
+		 */
+		public boolean cancel(){
+			if (!isPending()){
+				return false;
+			}
+			unlink();
+			size--;
+			return true;
+		}
+
+		/**
+		 * Determines whether the event is still waiting to fire.
+		 * @return true iff the event is scheduled
+		 */
+		public boolean isPending(){
+			return next != null && next != this;
+		}
+
+		/**
+		 * Gets the tick this event is due on.
+		 * @return The tick the event fires on
+		 */
+		public long getDeadline(){
+			return deadline;
+		}
+
+		private void linkBefore(Timeout other){
+			prev = other.prev;
+			next = other;
+			other.prev.next = this;
+			other.prev = this;
+		}
+
+		private void unlink(){
+			prev.next = next;
+			next.prev = prev;
+			prev = null;
+			next = null;
+		}
+	}
+}
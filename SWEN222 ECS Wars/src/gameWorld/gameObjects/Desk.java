@@ -3,9 +3,8 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -18,8 +17,6 @@ public class Desk implements Item {
 	
 	private Image imageHz;
 	private Image imageVt;
-	private Image scaledImageHz;
-	private Image scaledImageVt;
 	private boolean horizontal; // true if the desk is horizontal when looking North
 	
 	/**
@@ -36,10 +33,8 @@ public class Desk implements Item {
 	 */
 	private void loadImages() {
 		try {
-			imageHz = ImageIO.read(Desk.class.getResource("/Items/DeskHor.png"));
-			scaledImageHz = imageHz;
-			imageVt = ImageIO.read(Desk.class.getResource("/Items/DeskVer.png"));
-			scaledImageVt = imageVt;
+			imageHz = SpriteAtlas.load("/Items/DeskHor.png");
+			imageVt = SpriteAtlas.load("/Items/DeskVer.png");
 		} catch (IOException e) {
 			System.out.println("Failed to read Desk image file: " + e.getMessage());
 		}
@@ -115,39 +110,9 @@ public class Desk implements Item {
 		}
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		if(this.horizontal){
-			// the desk is horizontal when facing north/south
-			switch(viewDirection){
-			case 0: case 2: this.scaledImageHz = scaledImage; return; // north/south
-			case 1: case 3: this.scaledImageVt = scaledImage; return; // east/west
-			}
-		} else {
-			// the desk is vertical when facing north/south
-			switch(viewDirection){
-			case 0: case 2: this.scaledImageVt = scaledImage; return; // north/south
-			case 1: case 3: this.scaledImageHz = scaledImage; return; // east/west
-			}
-		}
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		if(this.horizontal){
-			// the desk is horizontal when facing north/south
-			switch(viewDirection){
-			case 0: case 2: return scaledImageHz; // north/south
-			case 1: case 3: return scaledImageVt; // east/west
-			}
-		} else {
-			// the desk is vertical when facing north/south
-			switch(viewDirection){
-			case 0: case 2: return scaledImageVt; // north/south
-			case 1: case 3: return scaledImageHz; // east/west
-			}
-		}
-		return scaledImageHz;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
@@ -3,10 +3,10 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
 import gameWorld.Room;
+import gameWorld.RoomGraph;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -31,7 +31,6 @@ public class Door implements Item {
 								  // or is unlocked by default
 	// Door images - only displayed if locked
 	private Image doorImage;
-	private Image scaledDoorImage;
 	
 	/**
 	 * Constructor for class door.
@@ -54,8 +53,7 @@ public class Door implements Item {
 	 */
 	private void loadImages() {
 		try{
-			doorImage = ImageIO.read(Door.class.getResource("/Items/DoorLocked.png"));
-			scaledDoorImage = doorImage;
+			doorImage = SpriteAtlas.load("/Items/DoorLocked.png");
 		} catch(IOException e){
 			System.out.println("Error loading Door image file: "+e.getMessage());
 		}
@@ -96,7 +94,7 @@ public class Door implements Item {
 	public void use(Player p, Controller ctrl) {
 		Item keyCard = p.inventoryContains(new KeyCard());
 		if(keyCard != null){
-			tempUnlocked = true;
+			setTempUnlocked(true);
 			//System.out.println("Unlocked the door"); // TODO implement properly
 		}
 		
@@ -104,6 +102,7 @@ public class Door implements Item {
 
 	/**
 	 * Transports a player through this door and into the other room.
+	 * The player is moved once every room has finished updating.
 	 * @param p The player to transport
 	 */
 	public void walkThrough(Player p) {
@@ -121,21 +120,58 @@ public class Door implements Item {
 		yDiff = dir == 0 ? -1 : yDiff;
 		yDiff = dir == 2 ? 1 : yDiff;
 		
+		Room from = p.getCurrentRoom();
+		Room to;
 		// check which room the player is currently in
-		if(room1 == p.getCurrentRoom()){
+		if(room1 == from){
 			// player is being moved to room2
+			to = room2;
 			x = p.getX()-(room1Col*24);
 			y = p.getY()-(room1Row*24);
-			p.setCurrentRoom(room2, ((room2Col+xDiff)*24)+x, ((room2Row+yDiff)*24)+y);
-		} else if(room2 == p.getCurrentRoom()){
+			x = ((room2Col+xDiff)*24)+x;
+			y = ((room2Row+yDiff)*24)+y;
+		} else if(room2 == from){
 			// player is being moved to room1
+			to = room1;
 			x = p.getX()-(room2Col*24);
 			y = p.getY()-(room2Row*24);
-			p.setCurrentRoom(room1, ((room1Col+xDiff)*24)+x, ((room1Row+yDiff)*24)+y);
+			x = ((room1Col+xDiff)*24)+x;
+			y = ((room1Row+yDiff)*24)+y;
+		} else {
+			return;
 		}
-		// reset temporary unlocked status if the door was unlocked with a keycard
-		if(!unlocked){
-			tempUnlocked = false;
+		
+		final int newX = x;
+		final int newY = y;
+		from.deferTransfer(new Runnable(){
+			@Override
+			public void run() {
+				// the player may have already left this tick
+				if (p.getCurrentRoom() == from){
+					p.setCurrentRoom(to, newX, newY);
+				}
+				// reset temporary unlocked status if the door was unlocked with a keycard
+				if(!unlocked){
+					setTempUnlocked(false);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Locks or unlocks the door, and updates the tile grids of both rooms
+	 * so collision checks see the change.
+	 * @param tempUnlocked true to unlock the door
+	 */
+	private void setTempUnlocked(boolean tempUnlocked){
+		this.tempUnlocked = tempUnlocked;
+		room1.updateTile(room1Col, room1Row);
+		if (room2 != null){
+			room2.updateTile(room2Col, room2Row);
+		}
+		RoomGraph graph = room1.getController().getRoomGraph();
+		if (graph != null){
+			graph.invalidate();
 		}
 	}
 
@@ -176,7 +212,7 @@ public class Door implements Item {
 	@Override
 	public Image getScaledImage(int viewDirection) {
 		if (!tempUnlocked && (viewDirection == 0 || viewDirection == 2)){
-			return scaledDoorImage;
+			return SpriteAtlas.get(doorImage);
 		}
 		return null;
 	}
@@ -249,10 +285,5 @@ public class Door implements Item {
 	public Type getType() {
 		return null;
 	}
-
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		scaledDoorImage = scaledImage;
-	}
 	
 }
@@ -73,13 +73,6 @@ public class Floor implements Item, ItemSpawner {
 		return 0;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		if(item != null){
-			item.setScaledImage(viewDirection, scaledImage);
-		}
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
 		if(item != null){
@@ -66,14 +66,8 @@ public interface Item {
 	public int xOffset(int viewDirection);
 
 	/**
-	 * Sets the scaled image of this item to the given image.
-	 * @param viewDirection The direction the item is being viewed in
-	 * @param scaledImage The image to set the scaled image as.
-	 */
-	public void setScaledImage(int viewDirection, Image scaledImage);
-	
-	/**
-	 * Returns the appropriately scaled copy of this item's image.
+	 * Returns the appropriately scaled copy of this item's image, as
+	 * held by the SpriteAtlas for the current view scale.
 	 * @param viewDirection The direction the item is being viewed from
 	 * @return An appropriately scaled copy of this item's image.
 	 */
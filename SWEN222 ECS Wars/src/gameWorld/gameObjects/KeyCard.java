@@ -3,9 +3,8 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -18,7 +17,6 @@ import gameWorld.characters.Player;
 public class KeyCard implements Item {
 
 	private Image image;
-	private Image scaledImage;
 	private String description;
 	
 	/**
@@ -34,8 +32,7 @@ public class KeyCard implements Item {
 	 */
 	private void loadImages() {
 		try{
-			image = ImageIO.read(KeyCard.class.getResource("/Items/IDCard.png"));
-			scaledImage = image;
+			image = SpriteAtlas.load("/Items/IDCard.png");
 		} catch(IOException e){
 			System.out.println("Error loading KeyCard file: "+e.getMessage());
 		}
@@ -65,14 +62,9 @@ public class KeyCard implements Item {
 		return 0;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		this.scaledImage = scaledImage;
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
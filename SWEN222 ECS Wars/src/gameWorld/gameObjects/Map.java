@@ -3,9 +3,8 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -16,7 +15,6 @@ import gameWorld.characters.Player;
 public class Map implements Item {
 	
 	private Image mapImage;
-	private Image scaledMapImage;
 	private boolean mapOpen;
 	private String description;
 
@@ -27,11 +25,10 @@ public class Map implements Item {
 		mapOpen = false;
 		description = "A map displaying the room layout";
 		try {
-			mapImage = ImageIO.read(Map.class.getResource("/Items/MapIcon.png"));
+			mapImage = SpriteAtlas.load("/Items/MapIcon.png");
 		} catch (IOException e ) {
 			System.out.println("Error reading Map image: " + e.getMessage());
 		}
-		scaledMapImage = mapImage;
 	}
 
 	/**
@@ -63,15 +60,9 @@ public class Map implements Item {
 		return 0;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		scaledMapImage = scaledImage;
-
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return scaledMapImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
@@ -3,10 +3,9 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
 import gameWorld.PointValues;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -19,7 +18,6 @@ public class MedicineBottle extends Sellable implements Item {
 	private String description = "Medicine: Restores half your health.";
 	private int health = Player.HEALTH_MAX/2;
 	private Image image;
-	private Image scaledImage;
 	
 	public MedicineBottle(){
 		super(PointValues.MEDICINE_COST);
@@ -28,8 +26,7 @@ public class MedicineBottle extends Sellable implements Item {
 
 	private void loadImages() {
 		try{
-			image = ImageIO.read(MedicineBottle.class.getResource("/Items/Medicine.png"));
-			scaledImage = image;
+			image = SpriteAtlas.load("/Items/Medicine.png");
 		} catch(IOException e){
 			System.out.println("Error loading image file: "+e.getMessage());
 		}
@@ -61,14 +58,9 @@ public class MedicineBottle extends Sellable implements Item {
 		return 0;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		this.scaledImage = scaledImage;
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
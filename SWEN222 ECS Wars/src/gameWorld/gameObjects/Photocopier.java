@@ -3,9 +3,8 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -23,11 +22,6 @@ public class Photocopier implements Item {
 	private Image imageSouth;
 	private Image imageWest;
 	private Image imageEast;
-	// scaled images
-	private Image scaledImageNorth;
-	private Image scaledImageSouth;
-	private Image scaledImageWest;
-	private Image scaledImageEast;
 	
 	private int[] xoffset; // x offset for the index view direction
 	private String description;
@@ -42,10 +36,6 @@ public class Photocopier implements Item {
 	 */
 	public Photocopier(char dir) {
 		loadImages(dir);
-		scaledImageNorth = imageNorth;
-		scaledImageSouth = imageSouth;
-		scaledImageWest = imageWest;
-		scaledImageEast = imageEast;
 		setupOffset(dir);
 		this.description = "A photocopier. What does it do?";
 	}
@@ -88,10 +78,10 @@ public class Photocopier implements Item {
 		Image r = null;
 		// read image files
 		try {
-			f = ImageIO.read(Photocopier.class.getResource("/Items/CopierF.png"));
-			b = ImageIO.read(Photocopier.class.getResource("/Items/CopierB.png"));
-			l = ImageIO.read(Photocopier.class.getResource("/Items/CopierL.png"));
-			r = ImageIO.read(Photocopier.class.getResource("/Items/CopierR.png"));
+			f = SpriteAtlas.load("/Items/CopierF.png");
+			b = SpriteAtlas.load("/Items/CopierB.png");
+			l = SpriteAtlas.load("/Items/CopierL.png");
+			r = SpriteAtlas.load("/Items/CopierR.png");
 		} catch (IOException e) {
 			System.out.println("Failed to read Photocopier image file: " + e.getMessage());
 		}
@@ -150,24 +140,9 @@ public class Photocopier implements Item {
 		return 1;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		switch(viewDirection){
-		case 1 : scaledImageEast = scaledImage; return; // EAST
-		case 2 : scaledImageSouth = scaledImage; return; // SOUTH
-		case 3 : scaledImageWest = scaledImage; return; // WEST
-		default : scaledImageNorth = scaledImage; return; // NORTH
-		}
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		switch(viewDirection){
-		case 1 : return scaledImageEast; // EAST
-		case 2 : return scaledImageSouth; // SOUTH
-		case 3 : return scaledImageWest; // WEST
-		default : return scaledImageNorth; // NORTH
-		}
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
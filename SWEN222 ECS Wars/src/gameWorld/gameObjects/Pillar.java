@@ -3,9 +3,8 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -19,7 +18,6 @@ import gameWorld.characters.Player;
 public class Pillar implements Item {
 
 	private Image image;
-	private Image scaledImage;
 	private int yOffset = 3;
 	
 	/**
@@ -34,8 +32,7 @@ public class Pillar implements Item {
 	 */
 	private void loadImages() {
 		try {
-			image = ImageIO.read(Pillar.class.getResource("/Items/Pillar.png"));
-			scaledImage = image;
+			image = SpriteAtlas.load("/Items/Pillar.png");
 		} catch (IOException e) {
 			System.out.println("Failed to read Pillar image file: " + e.getMessage());
 		}
@@ -66,14 +63,9 @@ public class Pillar implements Item {
 		return yOffset;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		this.scaledImage = scaledImage;
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
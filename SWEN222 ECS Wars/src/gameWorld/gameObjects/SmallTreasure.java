@@ -2,11 +2,11 @@ package gameWorld.gameObjects;
 
 import java.awt.Image;
 import java.io.IOException;
-
-import javax.imageio.ImageIO;
+import java.util.Random;
 
 import gameWorld.Controller;
 import gameWorld.PointValues;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -19,7 +19,6 @@ import gameWorld.characters.Player;
 public class SmallTreasure implements Item {
 
 	private Image image;
-	private Image scaledImage;
 	private String description;
 	private int points;
 	String quality;
@@ -32,8 +31,19 @@ public class SmallTreasure implements Item {
 	 * giving a large range of possible values
 	 */
 	public SmallTreasure(){
-		double randomQuality = Math.random();
-		double randomType = Math.random();
+		this(new Random());
+	}
+	
+	/**
+	 * Constructor for class SmallTreasure.
+	 * 
+	 * Randomises both type and quality of the treasure
+	 * using the given random number generator
+	 * @param random The game's random number generator
+	 */
+	public SmallTreasure(Random random){
+		double randomQuality = random.nextDouble();
+		double randomType = random.nextDouble();
 		quality = "rough";
 		type = "Sapphire";
 		points = PointValues.TREASURE_BASE;
@@ -82,8 +92,7 @@ public class SmallTreasure implements Item {
 	 */
 	private void loadImages(String fileName) {
 		try{
-			image = ImageIO.read(SmallTreasure.class.getResource("/Items/"+fileName+".png"));
-			scaledImage = image;
+			image = SpriteAtlas.load("/Items/"+fileName+".png");
 		} catch(IOException e){
 			System.out.println("Error loading treasure image file: "+e.getMessage());
 		}
@@ -112,14 +121,9 @@ public class SmallTreasure implements Item {
 		return 0;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		this.scaledImage = scaledImage;
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
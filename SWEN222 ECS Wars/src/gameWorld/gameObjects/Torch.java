@@ -3,9 +3,8 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -19,8 +18,6 @@ public class Torch implements Item {
 	
 	private Image torchImage;
 	private Image torchImageOn;
-	private Image scaledTorchImage;
-	private Image scaledTorchImageOn;
 	private String description;
 	
 	private boolean isOn;
@@ -39,10 +36,8 @@ public class Torch implements Item {
 	 */
 	private void loadImages() {
 		try{
-		torchImage = ImageIO.read(Torch.class.getResource("/Items/Torch.png"));
-		torchImageOn = ImageIO.read(Torch.class.getResource("/Items/TorchOn.png"));
-		scaledTorchImage = torchImage;
-		scaledTorchImageOn = torchImageOn;
+		torchImage = SpriteAtlas.load("/Items/Torch.png");
+		torchImageOn = SpriteAtlas.load("/Items/TorchOn.png");
 		} catch(IOException e){
 			System.out.println("Error loading Torch file: "+e.getMessage());
 		}
@@ -76,20 +71,12 @@ public class Torch implements Item {
 		return 0;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		if (viewDirection == 0){
-			this.scaledTorchImage = scaledImage;
-		}
-		this.scaledTorchImageOn = scaledImage;
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
 		if (isOn){
-			return scaledTorchImageOn;
+			return SpriteAtlas.get(torchImageOn);
 		}
-		return scaledTorchImage;
+		return SpriteAtlas.get(torchImage);
 	}
 
 	@Override
@@ -3,9 +3,8 @@ package gameWorld.gameObjects;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -20,11 +19,6 @@ public class VanishingCabinet implements Item {
 	private Image imageSouth;
 	private Image imageWest;
 	private Image imageEast;
-	// scaled images
-	private Image scaledImageNorth;
-	private Image scaledImageSouth;
-	private Image scaledImageWest;
-	private Image scaledImageEast;
 	
 	private String description = "A Vanishing Cabinet, it seems to like certain items...";
 
@@ -35,10 +29,6 @@ public class VanishingCabinet implements Item {
 	 */
 	public VanishingCabinet(char dir) {
 		loadImages(dir);
-		scaledImageNorth = imageNorth;
-		scaledImageSouth = imageSouth;
-		scaledImageWest = imageWest;
-		scaledImageEast = imageEast;
 	}
 	
 	/**
@@ -53,10 +43,10 @@ public class VanishingCabinet implements Item {
 		Image r = null;
 		// read image files
 		try {
-			f = ImageIO.read(VanishingCabinet.class.getResource("/Items/CabinetBlueF.png"));
-			b = ImageIO.read(VanishingCabinet.class.getResource("/Items/CabinetBlueB.png"));
-			l = ImageIO.read(VanishingCabinet.class.getResource("/Items/CabinetBlueL.png"));
-			r = ImageIO.read(VanishingCabinet.class.getResource("/Items/CabinetBlueR.png"));
+			f = SpriteAtlas.load("/Items/CabinetBlueF.png");
+			b = SpriteAtlas.load("/Items/CabinetBlueB.png");
+			l = SpriteAtlas.load("/Items/CabinetBlueL.png");
+			r = SpriteAtlas.load("/Items/CabinetBlueR.png");
 		} catch (IOException e) {
 			System.out.println("Failed to read Photocopier image file: " + e.getMessage());
 		}
@@ -111,7 +101,7 @@ public class VanishingCabinet implements Item {
 				SmallTreasure treasure = (SmallTreasure) item;
 				p.givePoints(treasure.getPoints());
 				p.removeItem(treasure);
-				ctrl.reSpawnItem(new SmallTreasure());
+				ctrl.reSpawnItem(new SmallTreasure(ctrl.getRandom()));
 				return;
 			}
 		}
@@ -142,24 +132,9 @@ public class VanishingCabinet implements Item {
 		return 0;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		switch(viewDirection){
-		case 1 : scaledImageEast = scaledImage; return; // EAST
-		case 2 : scaledImageSouth = scaledImage; return; // SOUTH
-		case 3 : scaledImageWest = scaledImage; return; // WEST
-		default : scaledImageNorth = scaledImage; return; // NORTH
-		}
-	}
-
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		switch(viewDirection){
-		case 1 : return scaledImageEast; // EAST
-		case 2 : return scaledImageSouth; // SOUTH
-		case 3 : return scaledImageWest; // WEST
-		default : return scaledImageNorth; // NORTH
-		}
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
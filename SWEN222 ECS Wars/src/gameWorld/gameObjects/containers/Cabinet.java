@@ -3,9 +3,8 @@ package gameWorld.gameObjects.containers;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 import gameWorld.gameObjects.Item;
 import gameWorld.gameObjects.ItemSpawner;
@@ -24,11 +23,6 @@ public class Cabinet extends Container implements ItemSpawner {
 	private Image imageSouth;
 	private Image imageWest;
 	private Image imageEast;
-	// scaled images
-	private Image scaledImageNorth;
-	private Image scaledImageSouth;
-	private Image scaledImageWest;
-	private Image scaledImageEast;
 	
 	private String description = "A cabinet, may contain items.";
 	
@@ -40,10 +34,6 @@ public class Cabinet extends Container implements ItemSpawner {
 	public Cabinet(char dir) {
 		super(CAPACITY);
 		loadImages(dir);
-		scaledImageNorth = imageNorth;
-		scaledImageSouth = imageSouth;
-		scaledImageWest = imageWest;
-		scaledImageEast = imageEast;
 	}
 	
 	/**
@@ -58,10 +48,10 @@ public class Cabinet extends Container implements ItemSpawner {
 		Image r = null;
 		// read image files
 		try {
-			f = ImageIO.read(Cabinet.class.getResource("/Items/CabinetF.png"));
-			b = ImageIO.read(Cabinet.class.getResource("/Items/CabinetB.png"));
-			l = ImageIO.read(Cabinet.class.getResource("/Items/CabinetL.png"));
-			r = ImageIO.read(Cabinet.class.getResource("/Items/CabinetR.png"));
+			f = SpriteAtlas.load("/Items/CabinetF.png");
+			b = SpriteAtlas.load("/Items/CabinetB.png");
+			l = SpriteAtlas.load("/Items/CabinetL.png");
+			r = SpriteAtlas.load("/Items/CabinetR.png");
 		} catch (IOException e) {
 			System.out.println("Failed to read Photocopier image file: " + e.getMessage());
 		}
@@ -105,7 +95,9 @@ public class Cabinet extends Container implements ItemSpawner {
 
 	@Override
 	public void use(Player p, Controller ctrl) {
-		ctrl.getGUI().getCanvas().setCurrentContainer(this);
+		if (!ctrl.isHeadless()){
+			ctrl.getGUI().getCanvas().setCurrentContainer(this);
+		}
 	}
 
 	@Override
@@ -140,12 +132,7 @@ public class Cabinet extends Container implements ItemSpawner {
 
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		switch(viewDirection){
-		case 1 : return scaledImageEast; // EAST
-		case 2 : return scaledImageSouth; // SOUTH
-		case 3 : return scaledImageWest; // WEST
-		default : return scaledImageNorth; // NORTH
-		}
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
@@ -162,15 +149,5 @@ public class Cabinet extends Container implements ItemSpawner {
 	public Type getType() {
 		return Type.Cabinet;
 	}
-
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		switch(viewDirection){
-		case 1 : scaledImageEast = scaledImage; return; // EAST
-		case 2 : scaledImageSouth = scaledImage; return; // SOUTH
-		case 3 : scaledImageWest = scaledImage; return; // WEST
-		default : scaledImageNorth = scaledImage; return; // NORTH
-		}
-	}
 	
 }
@@ -3,9 +3,8 @@ package gameWorld.gameObjects.containers;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 import gameWorld.gameObjects.Item;
 import gameWorld.gameObjects.ItemSpawner;
@@ -18,7 +17,6 @@ import gameWorld.gameObjects.ItemSpawner;
 public class Pouch extends Container implements ItemSpawner {
 	
 	private Image image;
-	private Image scaledImage;
 	private String description;
 
 	/**
@@ -35,8 +33,7 @@ public class Pouch extends Container implements ItemSpawner {
 	 */
 	private void loadImages() {
 		try{
-			image = ImageIO.read(Pouch.class.getResource("/Items/Pouch.png"));
-			scaledImage = image;
+			image = SpriteAtlas.load("/Items/Pouch.png");
 		} catch(IOException e){
 			System.out.println("Error loading KeyCard file: "+e.getMessage());
 		}
@@ -48,7 +45,9 @@ public class Pouch extends Container implements ItemSpawner {
 	 */
 	@Override
 	public void use(Player p, Controller ctrl) {
-		ctrl.getGUI().getCanvas().setCurrentContainer(this);
+		if (!ctrl.isHeadless()){
+			ctrl.getGUI().getCanvas().setCurrentContainer(this);
+		}
 	}
 
 	@Override
@@ -73,7 +72,7 @@ public class Pouch extends Container implements ItemSpawner {
 
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
@@ -94,9 +93,4 @@ public class Pouch extends Container implements ItemSpawner {
 		return Type.Pouch;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		this.scaledImage = scaledImage;
-	}
-
 }
@@ -1,6 +1,7 @@
 package gameWorld.gameObjects.weapons;
 
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 import gameWorld.gameObjects.weapons.projectiles.LtsaBullet;
 import gameWorld.gameObjects.weapons.projectiles.Projectile;
@@ -8,8 +9,6 @@ import gameWorld.gameObjects.weapons.projectiles.Projectile;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 /**
  * An LTSAGun Weapon that fires LTSA Bullets
  * @author Sarah Dobie 300315033
@@ -28,8 +27,7 @@ public class LTSAGun extends Weapon {
 	
 	private void loadImages(){
 		try{
-			super.image = ImageIO.read(LTSAGun.class.getResource("/Items/gun3.png"));
-			super.scaledImage = image;
+			super.image = SpriteAtlas.load("/Items/gun3.png");
 		} catch(IOException e){
 			System.out.println("Error loading weapon image file: "+e.getMessage());
 		}
@@ -37,8 +35,8 @@ public class LTSAGun extends Weapon {
 	
 	@Override
 	public Projectile fire(Player p, double theta){
-		double spread = Math.toRadians((Math.random()*BULLET_SPREAD)-BULLET_SPREAD/2);
-		if (this.canFire && projectile instanceof LtsaBullet){
+		double spread = Math.toRadians((p.getCurrentRoom().getRandom().nextDouble()*BULLET_SPREAD)-BULLET_SPREAD/2);
+		if (canFire(p) && projectile instanceof LtsaBullet){
 			((LtsaBullet)projectile).nextState();
 		}
 		return super.fire(p, theta+spread);
@@ -64,7 +62,7 @@ public class LTSAGun extends Weapon {
 
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return super.scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
@@ -77,9 +75,4 @@ public class LTSAGun extends Weapon {
 		return WeaponType.LTSAGun;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		super.scaledImage = scaledImage;
-	}
-
 }
@@ -1,6 +1,7 @@
 package gameWorld.gameObjects.weapons;
 
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 import gameWorld.gameObjects.weapons.projectiles.PaintBall;
 import gameWorld.gameObjects.weapons.projectiles.Projectile;
@@ -8,8 +9,6 @@ import gameWorld.gameObjects.weapons.projectiles.Projectile;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 public class PaintballGun extends Weapon {
 	public static final double BULLET_SPREAD = 10;
 	private String description;
@@ -23,8 +22,7 @@ public class PaintballGun extends Weapon {
 	
 	private void loadImages(){
 		try{
-			super.image = ImageIO.read(PaintballGun.class.getResource("/Items/gun1.png"));
-			super.scaledImage = image;
+			super.image = SpriteAtlas.load("/Items/gun1.png");
 		} catch(IOException e){
 			System.out.println("Error loading weapon image file: "+e.getMessage());
 		}
@@ -32,7 +30,7 @@ public class PaintballGun extends Weapon {
 	
 	@Override
 	public Projectile fire(Player p, double theta){
-		double spread = Math.toRadians((Math.random()*BULLET_SPREAD)-BULLET_SPREAD/2);
+		double spread = Math.toRadians((p.getCurrentRoom().getRandom().nextDouble()*BULLET_SPREAD)-BULLET_SPREAD/2);
 		return super.fire(p, theta+spread);
 	}
 
@@ -56,7 +54,7 @@ public class PaintballGun extends Weapon {
 
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return super.scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
@@ -69,9 +67,4 @@ public class PaintballGun extends Weapon {
 		return WeaponType.PaintballGun;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		super.scaledImage = scaledImage;
-	}
-
 }
@@ -3,9 +3,8 @@ package gameWorld.gameObjects.weapons;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 import gameWorld.gameObjects.weapons.projectiles.PistolBullet;
 import gameWorld.gameObjects.weapons.projectiles.Projectile;
@@ -28,8 +27,7 @@ public class Pistol extends Weapon {
 	
 	private void loadImages(){
 		try{
-			super.image = ImageIO.read(Pistol.class.getResource("/Items/gun0.png"));
-			super.scaledImage = image;
+			super.image = SpriteAtlas.load("/Items/gun0.png");
 		} catch(IOException e){
 			System.out.println("Error loading weapon image file: "+e.getMessage());
 		}
@@ -37,7 +35,7 @@ public class Pistol extends Weapon {
 	
 	@Override
 	public Projectile fire(Player p, double theta){
-		double spread = Math.toRadians((Math.random()*BULLET_SPREAD)-BULLET_SPREAD/2);
+		double spread = Math.toRadians((p.getCurrentRoom().getRandom().nextDouble()*BULLET_SPREAD)-BULLET_SPREAD/2);
 		return super.fire(p, theta+spread);
 	}
 
@@ -61,7 +59,7 @@ public class Pistol extends Weapon {
 
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return super.scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
@@ -74,9 +72,4 @@ public class Pistol extends Weapon {
 		return WeaponType.Pistol;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		super.scaledImage = scaledImage;
-	}
-
 }
@@ -2,10 +2,10 @@ package gameWorld.gameObjects.weapons;
 
 import java.awt.Image;
 import java.io.IOException;
-
-import javax.imageio.ImageIO;
+import java.util.Random;
 
 import gameWorld.Controller;
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 import gameWorld.gameObjects.weapons.projectiles.Projectile;
 import gameWorld.gameObjects.weapons.projectiles.RubberBullet;
@@ -27,8 +27,7 @@ public class ScatterGun extends Weapon{
 	
 	private void loadImages(){
 		try{
-			super.image = ImageIO.read(ScatterGun.class.getResource("/Items/gun2.png"));
-			super.scaledImage = image;
+			super.image = SpriteAtlas.load("/Items/gun2.png");
 		} catch(IOException e){
 			System.out.println("Error loading weapon image file: "+e.getMessage());
 		}
@@ -36,15 +35,16 @@ public class ScatterGun extends Weapon{
 	
 	@Override
 	public Projectile fire(Player p, double theta){
-		if (canFire){
-			int max = (int)(Math.random()*(MAX_SHOTS-MIN_SHOTS))+MIN_SHOTS;
+		Random random = p.getCurrentRoom().getRandom();
+		if (canFire(p)){
+			int max = random.nextInt(MAX_SHOTS-MIN_SHOTS)+MIN_SHOTS;
 			for (int i = 0; i < max; i++){
-				double t = theta+(Math.random()*MAX_SPREAD - MAX_SPREAD/2);
+				double t = theta+(random.nextDouble()*MAX_SPREAD - MAX_SPREAD/2);
 				p.getCurrentRoom().addProjectile(projectile.newInstance(p, t));
 			}
 		}
 		
-		return super.fire(p, theta+(Math.random()*MAX_SPREAD - MAX_SPREAD/2));
+		return super.fire(p, theta+(random.nextDouble()*MAX_SPREAD - MAX_SPREAD/2));
 	}
 
 	@Override
@@ -67,7 +67,7 @@ public class ScatterGun extends Weapon{
 
 	@Override
 	public Image getScaledImage(int viewDirection) {
-		return super.scaledImage;
+		return SpriteAtlas.get(getImage(viewDirection));
 	}
 
 	@Override
@@ -80,9 +80,4 @@ public class ScatterGun extends Weapon{
 		return WeaponType.ScatterGun;
 	}
 
-	@Override
-	public void setScaledImage(int viewDirection, Image scaledImage) {
-		super.scaledImage = scaledImage;
-	}
-
 }
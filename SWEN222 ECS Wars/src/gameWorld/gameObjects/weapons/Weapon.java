@@ -1,10 +1,11 @@
 package gameWorld.gameObjects.weapons;
 
 import java.awt.Image;
-import java.util.Timer;
-import java.util.TimerTask;
 
+import gameWorld.Room;
 import gameWorld.characters.Player;
+import gameWorld.gameEvents.Cooldown;
+import gameWorld.gameEvents.GameClock;
 import gameWorld.gameObjects.Item;
 import gameWorld.gameObjects.weapons.projectiles.Projectile;
 
@@ -18,10 +19,9 @@ public abstract class Weapon implements Item {
 	protected double fireRate = 0;
 	protected Projectile projectile;
 	protected Image image;
-	protected Image scaledImage;
 	protected String name;
 	
-	protected boolean canFire;
+	private Cooldown fireDelay;
 	
 	public enum WeaponType{
 		PaintballGun,
@@ -33,7 +33,7 @@ public abstract class Weapon implements Item {
 	public Weapon(double fireRate, Projectile projectile){
 		this.fireRate = fireRate;
 		this.projectile = projectile;
-		canFire = true;
+		fireDelay = new Cooldown();
 	}
 	
 	/**
@@ -44,33 +44,42 @@ public abstract class Weapon implements Item {
 	 * @param theta
 	 */
 	public Projectile fire(Player p, double theta) {
-		if (!canFire){return null;}
+		if (!canFire(p)){return null;}
 		
 		Projectile proj = projectile.newInstance(p, theta);
 
-		canFire = false;
-		startFireDelay((long)(1000/fireRate));
+		fireDelay.startMs(getClock(p), (long)(1000/fireRate));
 		
 		return proj;
 	}
+	
+	/**
+	 * Determines whether the fire delay from the last shot has run out.
+	 * A weapon can't be fired by a player who isn't in a game's room.
+	 * @param p The player holding this weapon
+	 * @return true iff the weapon can fire this tick
+	 */
+	protected boolean canFire(Player p){
+		GameClock clock = getClock(p);
+		return clock != null && fireDelay.isReady(clock);
+	}
+	
+	/**
+	 * Gets the clock of the game the player is in
+	 * @param p The player holding this weapon
+	 * @return The game's clock, or null if the player isn't in a room of a game
+	 */
+	private GameClock getClock(Player p){
+		Room room = p.getCurrentRoom();
+		if (room == null || room.getController() == null){return null;}
+		return room.getController().getClock();
+	}
 
 	@Override
 	public boolean canWalk() {
 		return true;
 	}
 	
-	protected void startFireDelay(long delay){
-		Timer timer = new Timer();
-		timer.schedule(new TimerTask(){
-
-			@Override
-			public void run() {
-				canFire = true;
-			}
-			
-		}, delay);
-	}
-	
 	@Override
 	public Item.Type getType(){
 		return Item.Type.Weapon;
@@ -4,11 +4,16 @@ import java.awt.Rectangle;
 
 import gameWorld.Room;
 import gameWorld.characters.Player;
+import gameWorld.ecs.ProjectileStore;
+import gameWorld.ecs.ProjectileSystem;
 
 /**
  * A basic projectile which this weapon can fire
  * Should travel in a linear fashion in theta angle last x, y position
  * 
+ * While in a room, this object is a handle onto the projectile's slot in
+ * the room's ProjectileStore, and ProjectileSystem does the updating.
+ * 
  * @author Jah Seng Lee
  * @author Carl Anderson
  *
@@ -19,25 +24,34 @@ public abstract class BasicProjectile implements Projectile {
 	protected Room room;
 	protected boolean isActive;
 	
-	protected double x;
-	protected double y;
-	protected int row;
+	// fixed point position and velocity, see Projectile.FIXED_SHIFT.
+	// Only used while the projectile isn't in a room; once added to one
+	// its state lives in the room's ProjectileStore
+	protected int x;
+	protected int y;
+	protected int dx;
+	protected int dy;
 	protected int hitBox = 2;
 	protected double theta;
 	
 	protected int damage = -10;
+	protected int bounces = 0; // times this projectile can bounce off walls
+	protected int flags = 0; // see ProjectileStore
 	
 	protected double speedMulti = 1;
 	protected double speed = BASE_SPEED * speedMulti;	//pixels per frame
 	
+	private ProjectileStore store; // the store holding this projectile, or null
+	private int slot = -1; // this projectile's slot in the store
+	
 	/**
 	 * A basic constructor for producing new projectiles
 	 */
 	public BasicProjectile(){		
 		//Assign non-values to all the fields
 		player = null;
-		x = -1;
-		y = -1;
+		x = -Projectile.FIXED_ONE;
+		y = -Projectile.FIXED_ONE;
 		theta = Double.NaN;
 		isActive = false;
 	}
@@ -51,77 +65,94 @@ public abstract class BasicProjectile implements Projectile {
 	protected BasicProjectile(Player p, int x, int y, double theta){
 		this.player = p;
 		this.room = p.getCurrentRoom();
-		this.x = x;
-		this.y = y;
+		this.x = x << Projectile.FIXED_SHIFT;
+		this.y = y << Projectile.FIXED_SHIFT;
 		this.theta = theta;
 		this.isActive = true;
+		setVelocity();
+	}
+	
+	/**
+	 * Works out the fixed point velocity from the direction and speed.
+	 */
+	protected void setVelocity(){
+		dx = Projectile.xDiff(theta, speed);
+		dy = Projectile.yDiff(theta, speed);
+		if (store != null){
+			store.setVelocity(slot, dx, dy);
+		}
 	}
 
+	/**
+	 * Updates this projectile on its own. Rooms update all of their
+	 * projectiles at once through ProjectileSystem instead.
+	 */
 	@Override
 	public void update() {
-		
-		double dx = Projectile.xDiff(theta, speed);
-		double dy = Projectile.yDiff(theta, speed);
-		double newX = x + dx;
-		double newY = y + dy;
-		
-		//Check to see if we've hit a player
-		for (Player p : room.getAllCharacters()){
-			if (p == player){continue;} //Players can't shoot themselves
-			if (!p.isDead() && p.getBoundingBox().contains(this.getBoundingBox())){
-				p.modifyHealth(damage, this);
-				this.setActive(false);
-				return;
-			}
-		}
-		
-		//Check to see if we've collided with an object
-		if (!room.itemAt((int)newX, (int)newY).canWalk()){
-			this.setActive(false);
-		} else {
-			x = newX;
-			y = newY;
+		if (store != null){
+			ProjectileSystem.step(store, slot, room);
 		}
 	}
 	
+	@Override
+	public void attach(ProjectileStore store){
+		if (this.store != null){return;}
+		slot = store.add(this, player, x, y, dx, dy, hitBox, damage, bounces, flags);
+		this.store = store;
+	}
+	
+	@Override
+	public void detach(){
+		if (store == null){return;}
+		x = store.getX(slot);
+		y = store.getY(slot);
+		dx = store.getDx(slot);
+		dy = store.getDy(slot);
+		bounces = store.getBounces(slot);
+		isActive = store.isActive(slot);
+		store = null;
+		slot = -1;
+	}
+	
+	@Override
+	public void setSlot(int slot){
+		this.slot = slot;
+	}
+	
 	public boolean isActive(){
-		return isActive;
+		return store == null ? isActive : store.isActive(slot);
 	}
 
 	@Override
 	public Rectangle getBoundingBox(){
-		return new Rectangle((int)x-hitBox, (int)y-hitBox, hitBox*2, hitBox*2);
+		return new Rectangle(getX()-hitBox, getY()-hitBox, hitBox*2, hitBox*2);
 	}
 	
 	@Override
 	public int getX(){
-		return (int)x;
+		return (store == null ? x : store.getX(slot)) >> Projectile.FIXED_SHIFT;
 	}
 	
 	@Override
 	public int getY(){
-		return (int)y;
-	}
-
-	public int getRow() {
-		return row;
+		return (store == null ? y : store.getY(slot)) >> Projectile.FIXED_SHIFT;
 	}
 
 	public Player getPlayer(){
 		return this.player;
 	}
 
-	public void setRow(int row) {
-		this.row = row;
-	}
-	
 	public void setActive(boolean active){
 		this.isActive = active;
+		if (store != null && !active){
+			store.kill(slot);
+		}
 	}
 	
 	public void setSpeedMultiplier(double multi){
 		this.speedMulti = multi;
 		this.speed = BASE_SPEED * multi;
+		setVelocity();
 	}
 
 }
@@ -3,8 +3,7 @@ package gameWorld.gameObjects.weapons.projectiles;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -30,7 +29,7 @@ public class LtsaBullet extends BasicProjectile{
 		state = 0;
 		try {
 			for(int i=0; i<images.length; i++){
-				largeImages[i] = ImageIO.read(LtsaBullet.class.getResource("/Projectiles/ltsa_"+(i-1)+".png"));
+				largeImages[i] = SpriteAtlas.load("/Projectiles/ltsa_"+(i-1)+".png");
 				images[i] = largeImages[i].getScaledInstance(bulletSize, bulletSize, Image.SCALE_FAST);
 			}
 		} catch (IOException e) {
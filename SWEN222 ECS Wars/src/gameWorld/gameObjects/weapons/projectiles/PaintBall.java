@@ -3,8 +3,7 @@ package gameWorld.gameObjects.weapons.projectiles;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 public class PaintBall extends BasicProjectile{
@@ -18,10 +17,10 @@ public class PaintBall extends BasicProjectile{
 	public PaintBall(){
 		super();
 		try {
-			image = ImageIO.read(PaintBall.class.getResource("/Projectiles/Paintball0.png"));
-			largeImage = image.getScaledInstance(bulletSize*2, bulletSize*2, Image.SCALE_FAST);
-			imageOtherColor = ImageIO.read(PaintBall.class.getResource("/Projectiles/Paintball1.png"));
-			largeImageOtherColor = imageOtherColor.getScaledInstance(bulletSize*2, bulletSize*2, Image.SCALE_FAST);
+			image = SpriteAtlas.load("/Projectiles/Paintball0.png");
+			largeImage = SpriteAtlas.get(image, 2);
+			imageOtherColor = SpriteAtlas.load("/Projectiles/Paintball1.png");
+			largeImageOtherColor = SpriteAtlas.get(imageOtherColor, 2);
 		} catch (IOException e) {
 			System.out.println("Error loading projectile image: " + e.getMessage());
 		}
@@ -35,7 +34,7 @@ public class PaintBall extends BasicProjectile{
 
 	@Override
 	public Projectile newInstance(Player p, double theta) {
-		int randomCol = (int) (Math.random()*2);
+		int randomCol = p.getCurrentRoom().getRandom().nextInt(2);
 		if (randomCol == 1){
 			return new PaintBall(p, p.getX(), p.getY(), theta, imageOtherColor, largeImageOtherColor);
 		} else {
@@ -3,8 +3,7 @@ package gameWorld.gameObjects.weapons.projectiles;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
 
 /**
@@ -24,8 +23,8 @@ public class PistolBullet extends BasicProjectile{
 	public PistolBullet(){
 		super();
 		try {
-			image = ImageIO.read(PistolBullet.class.getResource("/Projectiles/WhiteBullet.png"));
-			largeImage = image.getScaledInstance(bulletSize*2, bulletSize*2, Image.SCALE_FAST);
+			image = SpriteAtlas.load("/Projectiles/WhiteBullet.png");
+			largeImage = SpriteAtlas.get(image, 2);
 		} catch (IOException e) {
 			System.out.println("Error loading projectile image: " + e.getMessage());
 		}
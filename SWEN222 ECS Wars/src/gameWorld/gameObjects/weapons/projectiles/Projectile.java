@@ -4,6 +4,7 @@ import java.awt.Image;
 import java.awt.Rectangle;
 
 import gameWorld.characters.Player;
+import gameWorld.ecs.ProjectileStore;
 
 /**
  * A projectile object, which moves through the map in a particular direction
@@ -14,6 +15,10 @@ import gameWorld.characters.Player;
 public interface Projectile {
 	
 	public static final int BASE_SPEED = 5;
+	// positions and velocities are fixed point numbers with this many
+	// fractional bits, so every client moves projectiles identically
+	public static final int FIXED_SHIFT = 16;
+	public static final int FIXED_ONE = 1 << FIXED_SHIFT;
 
 	/**
 	 * Causes this projectile to update it's position
@@ -31,12 +36,24 @@ public interface Projectile {
 	 */
 	public Projectile newInstance(Player p, double theta);
 	
-	public static double xDiff(double theta, double speed){
-		return Math.cos(theta)*speed;
+	/**
+	 * Gets the horizontal velocity of a projectile
+	 * @param theta The direction of travel
+	 * @param speed The speed in pixels per tick
+	 * @return The fixed point x velocity
+	 */
+	public static int xDiff(double theta, double speed){
+		return (int)Math.round(StrictMath.cos(theta)*speed*FIXED_ONE);
 	}
 
-	public static double yDiff(double theta, double speed){
-		return Math.sin(theta)*speed;
+	/**
+	 * Gets the vertical velocity of a projectile
+	 * @param theta The direction of travel
+	 * @param speed The speed in pixels per tick
+	 * @return The fixed point y velocity
+	 */
+	public static int yDiff(double theta, double speed){
+		return (int)Math.round(StrictMath.sin(theta)*speed*FIXED_ONE);
 	}
 
 	public boolean isActive();
@@ -61,8 +78,6 @@ public interface Projectile {
 	 */
 	public Player getPlayer();
 	
-	public int getRow();
-
 	public Image getImage(int scale);
 
 	public int getSize();
@@ -75,5 +90,22 @@ public interface Projectile {
 	 */
 	public void setSpeedMultiplier(double multi);
 
-	public void setRow(int x);
+	/**
+	 * Moves this projectile's state into a room's projectile store,
+	 * which updates it from then on.
+	 * @param store The store of the room the projectile is added to
+	 */
+	public void attach(ProjectileStore store);
+
+	/**
+	 * Copies this projectile's state back out of the store it is in,
+	 * when it is removed from the store.
+	 */
+	public void detach();
+
+	/**
+	 * Records that this projectile has moved to another slot of its store.
+	 * @param slot The new slot
+	 */
+	public void setSlot(int slot);
 }
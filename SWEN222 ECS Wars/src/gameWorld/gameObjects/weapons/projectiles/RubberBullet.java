@@ -3,9 +3,9 @@ package gameWorld.gameObjects.weapons.projectiles;
 import java.awt.Image;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
+import gameWorld.SpriteAtlas;
 import gameWorld.characters.Player;
+import gameWorld.ecs.ProjectileStore;
 
 public class RubberBullet extends ReflectingProjectile {
 	public static final int MAX_BOUNCES = 3;
@@ -17,8 +17,8 @@ public class RubberBullet extends ReflectingProjectile {
 	public RubberBullet(){
 		super(MAX_BOUNCES);
 		try {
-			image = ImageIO.read(RubberBullet.class.getResource("/Projectiles/RedBullet.png"));
-			largeImage = image.getScaledInstance(bulletSize*2, bulletSize*2, Image.SCALE_FAST);
+			image = SpriteAtlas.load("/Projectiles/RedBullet.png");
+			largeImage = SpriteAtlas.get(image, 2);
 		} catch (IOException e) {
 			System.out.println("Error loading projectile image: " + e.getMessage());
 		}
@@ -26,6 +26,8 @@ public class RubberBullet extends ReflectingProjectile {
 	
 	private RubberBullet(Player p, int x, int y, double theta, Image image, Image largeImage){
 		super(p, x, y, theta, MAX_BOUNCES);
+		//Remove this to stop damaging owner player
+		this.flags |= ProjectileStore.HITS_OWNER;
 		this.setSpeedMultiplier(0.8);
 		this.image = image;
 		this.largeImage = largeImage;
@@ -36,17 +38,6 @@ public class RubberBullet extends ReflectingProjectile {
 		return new RubberBullet(p, p.getX(), p.getY(), theta, image, largeImage);
 	}
 	
-	@Override
-	protected void playerCollision(Player p){
-		//if (p == this.player){return;} //Uncomment this to stop damaging owner player
-		if (p == this.player && bounces == MAX_BOUNCES){
-			return;
-		}
-		
-		p.modifyHealth(damage, this);
-		this.setActive(false);
-	}
-
 	@Override
 	public Image getImage(int scale) {
 		if (scale >= 2){
@@ -188,12 +188,19 @@ public class EscMenu implements MouseListener, MouseMotionListener{
 			return;
 		}
 		
-		if(!chooser.getSelectedFile().getName().contains(".xml")){
-			SaveManager.saveGame(controller, chooser.getSelectedFile().getName() + ".xml");
-		}
-		else{
-			SaveManager.saveGame(controller, chooser.getSelectedFile().getName());
+		String fileName = chooser.getSelectedFile().getName();
+		if(!fileName.contains(".xml")){
+			fileName += ".xml";
 		}
+		
+		//save between ticks, so the world is not changing while it is written
+		final String saveName = fileName;
+		controller.submit(new Runnable(){
+			@Override
+			public void run() {
+				SaveManager.saveGame(controller, saveName);
+			}
+		});
 	}
 
 	@Override
@@ -1,34 +1,46 @@
 package gui;
 
 import gameWorld.Controller;
+import gameWorld.FrameSnapshot;
+import gameWorld.FrameSnapshot.CharacterFrame;
+import gameWorld.FrameSnapshot.ProjectileFrame;
 import gameWorld.Room;
+import gameWorld.SpriteAtlas;
+import gameWorld.TickProfiler;
+import gameWorld.TickProfiler.Phase;
 import gameWorld.characters.Player;
 import gameWorld.gameObjects.Item;
-import gameWorld.gameObjects.Map;
-import gameWorld.gameObjects.Torch;
 import gameWorld.gameObjects.containers.Container;
 import gameWorld.gameObjects.weapons.Weapon;
 
-import java.awt.AlphaComposite;
+import java.awt.Canvas;
 import java.awt.Color;
-import java.awt.Composite;
 import java.awt.Dimension;
+import java.awt.DisplayMode;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
 import javax.imageio.ImageIO;
-import javax.swing.JComponent;
 
 import main.SoundManager;
 
 /**
  * The main canvas inside the game window in which the game is drawn.
  * 
+ * The canvas is drawn actively: the redraw thread draws each frame into
+ * a back buffer and flips it onto the screen itself, rather than asking
+ * Swing to repaint, so every frame it draws is shown. Frames are paced
+ * to the display's refresh rate if -Decs.vsync=true, and to the game's
+ * frame rate otherwise.
+ * 
  * @author Jah Seng Lee 300279468
  * @author Sarah Dobie 300315033
  * @author Chris Read 300254724
@@ -36,11 +48,12 @@ import main.SoundManager;
  *
  */
 @SuppressWarnings("serial")
-public class GUICanvas extends JComponent{
+public class GUICanvas extends Canvas{
 	public static final int NORTH = 0;
 	public static final int EAST = 1;
 	public static final int SOUTH = 2;
 	public static final int WEST = 3;
+	public static final int BUFFERS = 3; // the front buffer and two to draw into
 	
 	private GUIFrame frame; // the frame containing this
 	private Controller controller;
@@ -50,7 +63,7 @@ public class GUICanvas extends JComponent{
 	private Sundial sundial; // the sundial being displayed
 	private Container currentContainer; // the container being used by the player
 	
-	private String toolTip; // current tooltip text
+	private volatile String toolTip; // current tooltip text, set by the game thread
 	private int toolTipX; // current tooltip position
 	private int toolTipY; //
 	
@@ -66,6 +79,8 @@ public class GUICanvas extends JComponent{
 	private boolean playerSelectView; // true if looking at player select menu
 	private PlayerSelectMenu playerSelectMenu; // the player select menu to display
 	private static RedrawThread redraw;
+	private final Object renderLock = new Object(); // held while drawing, so only one thread draws at a time
+	private long lastShown; // when the last frame was shown, for the profiler
 	
 
 	// Static UI Images
@@ -89,6 +104,8 @@ public class GUICanvas extends JComponent{
 	private Image mapImage;
 	private Image scaledMapImage;
 	
+	private LightMap lightMap = new LightMap(); // the darkness over dark rooms
+	
 	/**
 	 * Constructor for class GUICanvas.
 	 * @param frame The frame containing this canvas
@@ -99,6 +116,8 @@ public class GUICanvas extends JComponent{
 		this.compass = new Compass();
 		this.sundial = new Sundial(this);
 		this.toolTip = null;
+		// keys go to the frame, as they did before the canvas was heavyweight
+		setFocusable(false);
 				
 		torchLight = new Image[4];
 		
@@ -132,7 +151,8 @@ public class GUICanvas extends JComponent{
 		this.escMenuView = false;
 		this.escMenu = new EscMenu(this, controller);
 		
-		setRedrawLoop(false);
+		// the game is redrawn from published snapshots on the redraw thread
+		setRedrawLoop(true);
 		controller.startGame();
 	}
 
@@ -171,20 +191,71 @@ public class GUICanvas extends JComponent{
 	}
 
 	@Override
-	protected void paintComponent(Graphics g){
-		super.paintComponent(g);
+	public void update(Graphics g){
+		paint(g); // every pixel is drawn, so there is no need to clear first
 	}
 	
 	@Override
+	public void paint(Graphics g){
+		// the window has been uncovered or resized
+		synchronized (renderLock){
+			if (!render()){
+				draw((Graphics2D) g);
+			}
+		}
+	}
+	
+	/**
+	 * Draws a frame into the back buffer and shows it on screen.
+	 * @return false if the canvas isn't on screen yet, so has no buffers
+	 */
+	public boolean render(){
+		synchronized (renderLock){
+			if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0){return false;}
+			BufferStrategy strategy = getBufferStrategy();
+			if (strategy == null){
+				createBufferStrategy(BUFFERS);
+				strategy = getBufferStrategy();
+			}
+			Controller controller = this.controller;
+			TickProfiler profiler = controller == null ? null : controller.getProfiler();
+			// a buffer's contents can be lost at any time, in which case the frame is drawn again
+			do {
+				do {
+					Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+					try {
+						draw(g);
+					} finally {
+						g.dispose();
+					}
+				} while (strategy.contentsRestored());
+				long start = profiler == null ? 0 : profiler.start();
+				strategy.show();
+				Toolkit.getDefaultToolkit().sync();
+				if (profiler != null){
+					profiler.stop(Phase.PRESENT, start);
+				}
+			} while (strategy.contentsLost());
+			if (profiler != null){
+				long shown = profiler.start();
+				if (lastShown != 0){
+					profiler.stop(Phase.FRAME, lastShown);
+				}
+				lastShown = shown;
+			}
+			return true;
+		}
+	}
+	
 	/**
 	 * Draws the game screen
 	 * If the player is in a menu, displays that,
 	 * otherwise draws the game state.
 	 * Draws room and contents first then draws
 	 * HUD and UI elements on top
+	 * @param g The graphics object with which to draw
 	 */
-	public void paint(Graphics graphics){
-		Graphics2D g = (Graphics2D) graphics;
+	private void draw(Graphics2D g){
 		// paint other menu if one is active
 		if(mainMenuView){
 			mainMenu.paint(g);
@@ -199,13 +270,32 @@ public class GUICanvas extends JComponent{
 		//paint background
 		g.setColor(Color.BLACK);
 		g.fillRect(0, 0, getWidth(), getHeight());
-		Room r = controller.getCurrentPlayer().getCurrentRoom();
-		r.draw(g, this, controller.getCurrentPlayer(), viewDirection);
-		drawHUD(g, r);
+		FrameSnapshot frame = controller.getFrame();
+		if (frame == null){return;} // no tick has been run yet
+		TickProfiler profiler = controller.getProfiler();
+		long paintStart = profiler.start();
+		double alpha = frame.getAlpha(System.nanoTime(), controller.getTickLength());
+		Room r = frame.getRoom();
+		long start = profiler.start();
+		r.draw(g, this, frame, viewDirection, alpha);
+		profiler.stop(Phase.PAINT_ROOM, start);
+		
+		// darken dark rooms
+		start = profiler.start();
+		float darkness = frame.getDarkness();
+		if (darkness > 0){
+			drawDarknessOverlay(r, g, frame, alpha, darkness);
+		}
+		profiler.stop(Phase.PAINT_OVERLAYS, start);
+		
+		start = profiler.start();
+		drawHUD(g, r, frame);
+		profiler.stop(Phase.PAINT_HUD, start);
 		
 		if(escMenuView){
 			escMenu.paint(g);
 		}
+		profiler.stop(Phase.PAINT, paintStart);
 	}
 
 	/**
@@ -213,15 +303,9 @@ public class GUICanvas extends JComponent{
 	 * Includes elements like the compass and sundial
 	 * @param g The graphics object with which to draw
 	 * @param r The room to draw
+	 * @param frame The snapshot holding the player's current state
 	 */
-	private void drawHUD(Graphics2D g, Room r) {
-		// draw server room overlays
-		String roomName = r.getName();
-		if (roomName.equals("Server Room") ||
-				roomName.equals("Courtyard")){
-			drawDarknessOverlay(r, g);
-		}
-		
+	private void drawHUD(Graphics2D g, Room r, FrameSnapshot frame) {
 		// Draw Sundial
 		sundial.update();
 		g.drawImage(sundial.getImage(), getWidth()-(96*viewScale)-20, 20, this);
@@ -233,29 +317,29 @@ public class GUICanvas extends JComponent{
 		
 		// draw health and inventory displays
 		g.drawImage(scaledHealthBack, 0, 24*viewScale, this);
-		drawHealth(g);
-		drawInventory(g);
+		drawHealth(g, frame);
+		drawInventory(g, frame);
 		g.drawImage(scaledHealthFront, 0, 24*viewScale, this);
 		
 		// draw room information
 		drawRoomInfo(g, r);
 		
 		// draw points
-		drawPoints(g);
+		drawPoints(g, frame);
 		
 		// draw container inventory if one is selected
 		if(currentContainer != null){
 			drawContainer(g);
 		}
 		
-		// draw tooltip
-		if (toolTip != null){
-			showToolTip(g);
+		// draw tooltip, taking a copy as the game thread may clear it meanwhile
+		String tip = toolTip;
+		if (tip != null){
+			showToolTip(g, tip, toolTipX, toolTipY);
 		}
 		
 		// draw Map overlay
-		Item map = controller.getCurrentPlayer().inventoryContains(new Map());
-		if (map != null && ((Map)map).isOpen()){
+		if (frame.isMapOpen()){
 			drawMap(g);
 		}
 	}
@@ -325,10 +409,11 @@ public class GUICanvas extends JComponent{
 	 * Draws the number of points the player has in the bottom-right
 	 * corner.
 	 * @param g The graphics object with which to draw.
+	 * @param frame The snapshot holding the player's points
 	 */
-	private void drawPoints(Graphics g) {
+	private void drawPoints(Graphics g, FrameSnapshot frame) {
 		g.setColor(Color.WHITE);
-		String points = ""+controller.getCurrentPlayer().getPoints();
+		String points = ""+frame.getPoints();
 		int textSize = 15;
 		g.setFont(new Font("pixelmix", Font.PLAIN, textSize));
 		int textWidth = g.getFontMetrics().stringWidth(points);
@@ -338,57 +423,69 @@ public class GUICanvas extends JComponent{
 	}
 
 	/**
-	 * Draw a black overlay over the server room to make it appear dark.
-	 * Also draws a transparent overlay over the Courtyard according to the
-	 * time of day.
-	 * If the player is carrying a torch, there is a directional 'hole'
-	 * in the overlay to simulate light.
-	 * @param r The server room or courtyard
+	 * Draws darkness over a dark room, such as the Server Room, or the
+	 * Courtyard at night.
+	 * There is light around the player, and around every lit torch and
+	 * projectile in the room. A torch which is carried lights the way its
+	 * carrier is facing, and one left on the floor lights all around it.
+	 * @param r The room being drawn
 	 * @param g The graphics object with which to draw
+	 * @param frame The snapshot holding the lights in the room
+	 * @param alpha How far between the previous and current tick to draw
+	 * @param darkness How dark the room is, from 0 to 1
 	 */
-	private void drawDarknessOverlay(Room r, Graphics2D g) {
-		// calculate drawing variables
-		String roomName = r.getName();
-		float alpha = 1;
-		if (roomName.equals("Courtyard")){
-			alpha = controller.getNightAlpha();
-		} 	
-		g.setColor(new Color(0.0f, 0.0f, 0.0f, alpha));
-
-		Image image = scaledNoTorch;
-		int width = this.getWidth();
-		int height = this.getHeight();
-		int xMid = width/2;
-		int yMid = height/2;
-		int xView = 40*viewScale;
-		int yView = 40*viewScale;
-		// check if the player has a torch in their inventory
-		Torch torch = (Torch)controller.getCurrentPlayer().inventoryContains(new Torch());
-		if (torch != null && torch.isOn()){
-			xView = 160*viewScale;
-			yView = 160*viewScale;
-			image = scaledTorchLight[controller.getCurrentPlayer().getFacing()];
-		} 
-		// draw the overlay
-		g.fillRect(0, 0, width, yMid-yView);
-		g.fillRect(0, yMid+yView, width, yMid-yView);
-		g.fillRect(0, yMid-yView, xMid-xView, yView*2);
-		g.fillRect(xMid+xView, yMid-yView, xMid-xView, yView*2);
-		
-		// Set image alpha
-		Composite temp = g.getComposite();
-		AlphaComposite ac = java.awt.AlphaComposite.getInstance(AlphaComposite.SRC_OVER,alpha);
-        g.setComposite(ac);
-		g.drawImage(image, xMid-xView, yMid-yView, this);
-        g.setComposite(temp);
+	private void drawDarknessOverlay(Room r, Graphics2D g, FrameSnapshot frame, double alpha, float darkness) {
+		lightMap.clear();
+		// the player can always see a little way around them
+		CharacterFrame local = frame.getLocal();
+		if (frame.isTorchOn()){
+			addLight(r, scaledTorchLight[convertToViewDir(local.getFacing(), viewDirection)],
+					local.getX(alpha), local.getY(alpha), 1);
+		} else {
+			addLight(r, scaledNoTorch, local.getX(alpha), local.getY(alpha), 1);
+		}
+		for (int i = 0; i < frame.getCharacterCount(); i++){
+			CharacterFrame c = frame.getCharacter(i);
+			if (c.hasTorch() && !c.isSameCharacter(local)){
+				addLight(r, scaledTorchLight[convertToViewDir(c.getFacing(), viewDirection)],
+						c.getX(alpha), c.getY(alpha), 1);
+			}
+		}
+		int[] torches = frame.getFloorTorches();
+		for (int i = 0; i < frame.getFloorTorchCount()*2; i += 2){
+			addLight(r, scaledNoTorch, torches[i], torches[i+1], 2);
+		}
+		// projectiles glow a little
+		for (int i = 0; i < frame.getProjectileCount(); i++){
+			ProjectileFrame p = frame.getProjectile(i);
+			addLight(r, scaledNoTorch, p.getX(alpha), p.getY(alpha), 0.5);
+		}
+		lightMap.draw(g, getWidth(), getHeight(), darkness);
+	}
+
+	/**
+	 * Adds a light centred on a position in the room being drawn.
+	 * @param r The room being drawn
+	 * @param mask The light's mask, black where the light doesn't reach
+	 * @param x The x position in the room
+	 * @param y The y position in the room
+	 * @param size How many times its own size to draw the mask
+	 */
+	private void addLight(Room r, Image mask, int x, int y, double size){
+		if (mask == null){return;}
+		int width = (int)(mask.getWidth(this)*size);
+		int height = (int)(mask.getHeight(this)*size);
+		lightMap.addLight(mask, r.getScreenX(x, y, viewDirection, viewScale) - width/2,
+				r.getScreenY(x, y, viewDirection, viewScale) - height/2, width, height);
 	}
 
 	/**
 	 * Draw the player's inventory and weapon in the top-left corner.
 	 * @param g The graphics object with which to draw
+	 * @param frame The snapshot holding the player's inventory
 	 */
-	private void drawInventory(Graphics g) {
-		Item[] inventory = controller.getCurrentPlayer().getInventory();
+	private void drawInventory(Graphics g, FrameSnapshot frame) {
+		Item[] inventory = frame.getInventory();
 		for (int i = 0; i < Player.INVENTORY_SIZE; i++){
 			if (inventory[i] != null){
 				Image itemImage = inventory[i].getScaledImage(0);
@@ -396,7 +493,7 @@ public class GUICanvas extends JComponent{
 			}
 		}
 		// draws the players current weapon
-		Weapon weapon = controller.getCurrentPlayer().getWeapon();
+		Weapon weapon = frame.getWeapon();
 		Image weaponImage = weapon.getScaledImage(0);
 		g.drawImage(weaponImage, (24*viewScale), (24*viewScale)*3, this);
 		g.setFont(new Font("pixelmix", Font.PLAIN, 10*viewScale));
@@ -407,9 +504,10 @@ public class GUICanvas extends JComponent{
 	/**
 	 * Draws the player's current health
 	 * @param g The Graphics object to draw with
+	 * @param frame The snapshot holding the player's health
 	 */
-	private void drawHealth(Graphics g) {
-		int health = controller.getCurrentPlayer().getHealth();
+	private void drawHealth(Graphics g, FrameSnapshot frame) {
+		int health = frame.getHealth();
 		if (health <= 50){
 			g.setColor(Color.RED);
 		} else {
@@ -419,10 +517,13 @@ public class GUICanvas extends JComponent{
 	}
 
 	/**
-	 * Display the current tooltip.
+	 * Display a tooltip.
 	 * @param g The graphics object with which to draw
+	 * @param toolTip The tooltip text
+	 * @param toolTipX The tooltip's x position
+	 * @param toolTipY The tooltip's y position
 	 */
-	private void showToolTip(Graphics g){
+	private void showToolTip(Graphics g, String toolTip, int toolTipX, int toolTipY){
 		g.setFont(new Font("pixelmix", Font.PLAIN, 10));
 		// determine which of line1 and line2 is shorter in pixels
 		int lineWidth = g.getFontMetrics().stringWidth(toolTip);
@@ -455,30 +556,21 @@ public class GUICanvas extends JComponent{
 	 */
 	public void scaleUI(){
 		// scale compass
-		scaledCompassCont = compassControls.getScaledInstance(compassControls.getWidth(this)*viewScale, 
-				compassControls.getHeight(this)*viewScale, Image.SCALE_FAST);
+		scaledCompassCont = SpriteAtlas.get(compassControls, viewScale);
 		compass.scaleImage(viewScale, this);
 		sundial.scaleImage(viewScale, this);
 		// scale health bar
-		scaledHealthBack = healthInventBack.getScaledInstance(healthInventBack.getWidth(this)*viewScale, 
-				healthInventBack.getHeight(this)*viewScale, Image.SCALE_FAST);
-		scaledHealthFront = healthInventFront.getScaledInstance(healthInventFront.getWidth(this)*viewScale, 
-				healthInventFront.getHeight(this)*viewScale, Image.SCALE_FAST);
+		scaledHealthBack = SpriteAtlas.get(healthInventBack, viewScale);
+		scaledHealthFront = SpriteAtlas.get(healthInventFront, viewScale);
 		// scale container inventory
-		scaledContainerBg = containerBg.getScaledInstance(containerBg.getWidth(this)*viewScale, 
-				containerBg.getHeight(this)*viewScale, Image.SCALE_FAST);
-		scaledContainerFg = containerFg.getScaledInstance(containerFg.getWidth(this)*viewScale, 
-				containerFg.getHeight(this)*viewScale, Image.SCALE_FAST);
+		scaledContainerBg = SpriteAtlas.get(containerBg, viewScale);
+		scaledContainerFg = SpriteAtlas.get(containerFg, viewScale);
 		// scale torch light
-		scaledNoTorch = noTorch.getScaledInstance(noTorch.getWidth(this)*viewScale, 
-				noTorch.getHeight(this)*viewScale, Image.SCALE_FAST);
+		scaledNoTorch = SpriteAtlas.get(noTorch, viewScale);
 		// scale map overlay
-		scaledMapImage = mapImage.getScaledInstance(mapImage.getWidth(this)*viewScale,
-				mapImage.getHeight(this)*viewScale, Image.SCALE_FAST);
-		Image temp[] = torchLight;
+		scaledMapImage = SpriteAtlas.get(mapImage, viewScale);
 		for (int dir = 0; dir < 4; dir++){
-			scaledTorchLight[dir] = temp[dir].getScaledInstance(temp[dir].getWidth(this)*viewScale, 
-					temp[dir].getHeight(this)*viewScale, Image.SCALE_FAST);
+			scaledTorchLight[dir] = SpriteAtlas.get(torchLight[dir], viewScale);
 		}
 	}
 
@@ -759,16 +851,35 @@ public class GUICanvas extends JComponent{
 	}
 
 	/**
-	 * A class to constantly redraw the canvas while the main menu is running
-	 * before a controller is created
+	 * Gets the time between frames: one refresh of the display if pacing
+	 * to it, otherwise the game's frame rate.
+	 * @return The frame length in seconds
+	 */
+	private double frameLength(){
+		GraphicsConfiguration config = getGraphicsConfiguration();
+		if (!Boolean.getBoolean("ecs.vsync") || config == null){
+			return Controller.FRAME_RATE;
+		}
+		int refreshRate = config.getDevice().getDisplayMode().getRefreshRate();
+		if (refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN){
+			return Controller.FRAME_RATE;
+		}
+		return 1.0/refreshRate;
+	}
+
+	/**
+	 * A class to constantly redraw the canvas while the menus are running,
+	 * and during a game, where it draws the controller's latest snapshot
+	 * independently of the game loop
 	 * @author Carl
 	 *
 	 */
 	private class RedrawThread extends Thread {
-		public boolean isRunning = true;
+		public volatile boolean isRunning = true;
 		
 		@Override
 		public void run(){
+			double frameLength = frameLength();
 			//convert time to seconds
 			double nextTime = (double)System.nanoTime()/1000000000.0;
 			while(isRunning){
@@ -776,9 +887,14 @@ public class GUICanvas extends JComponent{
 				double currentTime = (double)System.nanoTime()/1000000000.0;
 				
 				if(currentTime >= nextTime){
-					nextTime += Controller.FRAME_RATE;
+					nextTime += frameLength;
 					if(currentTime < nextTime){
-						GUICanvas.this.repaint();
+						// a bad frame is skipped, rather than stopping the redraw thread for good
+						try {
+							render();
+						} catch (RuntimeException e){
+							System.out.println("Error drawing frame: " + e);
+						}
 					}
 				}
 				else{
@@ -796,7 +912,9 @@ public class GUICanvas extends JComponent{
 				}
 			}
 			
-			redraw = null; //last thing is to destroy the parent reference to this object
+			if (redraw == this){
+				redraw = null; //last thing is to destroy the parent reference to this object
+			}
 		}
 		
 		public void stopRunning(){
@@ -806,7 +924,8 @@ public class GUICanvas extends JComponent{
 	}
 	
 	public void setRedrawLoop(boolean looping){
-		if (looping && redraw == null){
+		if (looping && (redraw == null || !redraw.isRunning)){
+			lastShown = 0; // don't count the time the loop was stopped as a frame
 			redraw = new RedrawThread();
 			redraw.start();
 		} else if (!looping && redraw != null){
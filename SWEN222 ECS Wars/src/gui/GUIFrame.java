@@ -3,10 +3,12 @@ package gui;
 
 import java.awt.BorderLayout;
 import java.awt.Dimension;
+import java.awt.GraphicsDevice;
 import javax.swing.*;
 
 /**
  * The game winndow.
+ * Runs full screen if -Decs.fullscreen=true and the display allows it.
  * 
  * @author Sarah Dobie 300315033
  * @author Chris Read 300254724
@@ -39,9 +41,17 @@ public class GUIFrame extends JFrame {
 		add(canvas, BorderLayout.CENTER);
 		// change settings
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		GraphicsDevice device = getGraphicsConfiguration().getDevice();
+		boolean fullScreen = Boolean.getBoolean("ecs.fullscreen") && device.isFullScreenSupported();
+		setUndecorated(fullScreen);
 		pack();
-		setResizable(true);
-		setVisible(true);
+		if (fullScreen){
+			setResizable(false);
+			device.setFullScreenWindow(this);
+		} else {
+			setResizable(true);
+			setVisible(true);
+		}
 	}
 	
 	public GUICanvas getCanvas(){
@@ -49,10 +59,10 @@ public class GUIFrame extends JFrame {
 	}
 	
 	/**
-	 * Draws everything within this window.
+	 * Draws everything within this window, and shows it straight away.
 	 */
 	public void draw(){
-		canvas.repaint();
+		canvas.render();
 	}
 	
 	public static void main(String[] args){
@@ -0,0 +1,190 @@
+package gui;
+
+import gameWorld.SpriteAtlas;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * The darkness over a dark room, with the light of every light source
+ * in the room cut out of it.
+ *
+ * Each light is a mask: an image which is black where the light doesn't
+ * reach. The masks are multiplied together, so where two lights overlap
+ * the room is lit by both. The map is only drawn again when a light has
+ * moved or changed, or the screen has changed size; otherwise the last
+ * map is drawn again as it is. Only the part of the screen the lights
+ * reach is kept in the map; the rest is simply filled with darkness.
+ *
+ * The map is kept at the screen's resolution. Drawing it smaller and
+ * stretching it over the screen costs several times as much as the map
+ * itself, as stretching an image smoothly isn't accelerated.
+ *
+ * @author Carl Anderson 300264124
+ *
+ */
+public class LightMap {
+	private BufferedImage map;
+	private final Rectangle lit = new Rectangle(); // the part of the map the lights reach
+
+	// the lights being added for this frame: each light's mask, and its x, y, width and height on screen
+	private Image[] masks = new Image[8];
+	private int[] bounds = new int[32];
+	private int count;
+	// the lights the map was last drawn with
+	private Image[] drawnMasks = new Image[8];
+	private int[] drawnBounds = new int[32];
+	private int drawnCount = -1;
+	// the colour of the darkness at each alpha, made as each is first needed
+	private final Color[] shades = new Color[256];
+
+	/**
+	 * Removes every light, ready to add the lights of a new frame.
+	 */
+	public void clear(){
+		count = 0;
+	}
+
+	/**
+	 * Adds a light to the map.
+	 * @param mask The light's mask, black where the light doesn't reach
+	 * @param x The x position on screen of the mask's left edge
+	 * @param y The y position on screen of the mask's top edge
+	 * @param width The width to stretch the mask to on screen
+	 * @param height The height to stretch the mask to on screen
+	 */
+	public void addLight(Image mask, int x, int y, int width, int height){
+		if (mask == null){return;}
+		if (count == masks.length){
+			masks = Arrays.copyOf(masks, count*2);
+			bounds = Arrays.copyOf(bounds, count*8);
+		}
+		masks[count] = mask;
+		bounds[count*4] = x;
+		bounds[count*4+1] = y;
+		bounds[count*4+2] = width;
+		bounds[count*4+3] = height;
+		count++;
+	}
+
+	/**
+	 * Darkens the screen, except where the lights reach.
+	 * @param g The graphics object with which to draw
+	 * @param width The width of the screen
+	 * @param height The height of the screen
+	 * @param darkness How dark it is away from the lights, from 0 to 1
+	 */
+	public void draw(Graphics2D g, int width, int height, float darkness){
+		if (darkness <= 0 || width <= 0 || height <= 0){return;}
+		if (isChanged(width, height)){
+			redraw(width, height);
+		}
+		darkness = Math.min(1, darkness);
+		// fill around the lights
+		int shade = Math.round(darkness*255);
+		if (shades[shade] == null){
+			shades[shade] = new Color(0, 0, 0, shade);
+		}
+		g.setColor(shades[shade]);
+		int right = lit.x + lit.width;
+		int bottom = lit.y + lit.height;
+		g.fillRect(0, 0, width, lit.y);
+		g.fillRect(0, bottom, width, height-bottom);
+		g.fillRect(0, lit.y, lit.x, lit.height);
+		g.fillRect(right, lit.y, width-right, lit.height);
+		if (lit.isEmpty()){return;}
+		// then draw the lights
+		Composite composite = g.getComposite();
+		g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, darkness));
+		g.drawImage(map, lit.x, lit.y, right, bottom, lit.x, lit.y, right, bottom, null);
+		g.setComposite(composite);
+	}
+
+	/**
+	 * Determines whether the map needs drawing again for this frame.
+	 * @return true iff the screen size or any light differs from when the map was drawn
+	 */
+	private boolean isChanged(int width, int height){
+		if (map == null || width != map.getWidth() || height != map.getHeight() || count != drawnCount){
+			return true;
+		}
+		for (int i = 0; i < count; i++){
+			if (masks[i] != drawnMasks[i]){return true;}
+		}
+		for (int i = 0; i < count*4; i++){
+			if (bounds[i] != drawnBounds[i]){return true;}
+		}
+		return false;
+	}
+
+	/**
+	 * Determines whether a light overlaps any light added before it.
+	 * @param i The index of the light
+	 * @return true iff the light's mask overlaps an earlier one
+	 */
+	private boolean overlapsEarlier(int i){
+		for (int j = 0; j < i; j++){
+			if (bounds[i*4] < bounds[j*4] + bounds[j*4+2] && bounds[j*4] < bounds[i*4] + bounds[i*4+2]
+					&& bounds[i*4+1] < bounds[j*4+1] + bounds[j*4+3] && bounds[j*4+1] < bounds[i*4+1] + bounds[i*4+3]){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Draws the map from this frame's lights.
+	 */
+	private void redraw(int width, int height){
+		if (map == null || map.getWidth() != width || map.getHeight() != height){
+			map = SpriteAtlas.createImage(width, height);
+		}
+		// find the part of the screen the lights reach
+		int left = width;
+		int top = height;
+		int right = 0;
+		int bottom = 0;
+		for (int i = 0; i < count; i++){
+			left = Math.min(left, Math.max(0, bounds[i*4]));
+			top = Math.min(top, Math.max(0, bounds[i*4+1]));
+			right = Math.max(right, Math.min(width, bounds[i*4] + bounds[i*4+2]));
+			bottom = Math.max(bottom, Math.min(height, bounds[i*4+1] + bounds[i*4+3]));
+		}
+		if (left < right && top < bottom){
+			lit.setBounds(left, top, right-left, bottom-top);
+		} else {
+			lit.setBounds(0, 0, 0, 0);
+		}
+		Graphics2D g = map.createGraphics();
+		try {
+			g.setComposite(AlphaComposite.Src);
+			g.setColor(Color.BLACK);
+			g.fillRect(lit.x, lit.y, lit.width, lit.height);
+			// each mask takes away the darkness where its light reaches
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			for (int i = 0; i < count; i++){
+				// a light on its own can be copied straight in, which is much quicker than multiplying
+				g.setComposite(overlapsEarlier(i) ? AlphaComposite.DstIn : AlphaComposite.Src);
+				g.drawImage(masks[i], bounds[i*4], bounds[i*4+1], bounds[i*4+2], bounds[i*4+3], null);
+			}
+		} finally {
+			g.dispose();
+		}
+
+		// remember what the map was drawn with
+		if (drawnMasks.length < masks.length){
+			drawnMasks = new Image[masks.length];
+			drawnBounds = new int[bounds.length];
+		}
+		System.arraycopy(masks, 0, drawnMasks, 0, count);
+		System.arraycopy(bounds, 0, drawnBounds, 0, count*4);
+		drawnCount = count;
+	}
+}
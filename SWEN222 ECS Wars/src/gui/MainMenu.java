@@ -386,9 +386,12 @@ public class MainMenu implements MouseListener, MouseMotionListener {
 				players.add(getPlayerFromNumber(playerNumbers[i]));
 			}
 			
+			//Every client builds the world from the same seed
+			long seed = input.readLong();
+			
 			//Start the game
 			canvas.togglePlayerSelectMenu(true);
-			canvas.startGame(new MultiPlayerController(s, uid, numberOfPlayers, canvas, players), uid);
+			canvas.startGame(new MultiPlayerController(s, uid, numberOfPlayers, canvas, players, seed), uid);
 		} catch (IOException e){
 			JOptionPane.showMessageDialog(canvas, "Error: could not find server");
 			canvas.setMainMenu(true);
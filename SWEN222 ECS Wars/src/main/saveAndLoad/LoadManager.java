@@ -79,7 +79,7 @@ public class LoadManager {
 				Element e = (Element) node;
 				
 				//get the room object from player
-				Room r = controller.getRoom((e.getAttribute("id")));
+				Room r = findRoom(controller, e);
 				
 				//load players into room
 				loadPlayers(controller, r, e, players);
@@ -102,6 +102,28 @@ public class LoadManager {
 
 	}
 
+	/**
+	 * Finds the room a Room element was saved from: by its id, or by its
+	 * name if the save is from before rooms had ids or the ids don't match.
+	 * @param controller The controller to find the room in
+	 * @param e The Room element
+	 * @return The room, or null if it doesn't exist
+	 */
+	private static Room findRoom(Controller controller, Element e) {
+		String name = e.getAttribute("id");
+		if (e.hasAttribute("roomId")){
+			try {
+				Room r = controller.getRoom(Integer.parseInt(e.getAttribute("roomId")));
+				if (r != null && r.getName().equals(name)){
+					return r;
+				}
+			} catch (NumberFormatException ex){
+				System.out.println("Bad room id in save file: " + e.getAttribute("roomId"));
+			}
+		}
+		return controller.getRoom(name);
+	}
+
 	private static void loadPlayers(Controller controller, Room r, Element e, 
 			ArrayList<Player> players) {
 		
@@ -298,26 +320,22 @@ public class LoadManager {
 	}
 
 	private static void loadRoomWeapons(Controller controller, Room r, 
-			Item[][] roomContents, Element ielement) {
+			Element ielement) {
 		switch(WeaponType.valueOf(ielement.getAttribute("weaponType"))){
 		case PaintballGun:
-			roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-					[Integer.parseInt(ielement.getAttribute("y"))]
-							= new PaintballGun();
+			r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+					Integer.parseInt(ielement.getAttribute("y")), new PaintballGun());
 			break;
 		case ScatterGun:
-			roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-					[Integer.parseInt(ielement.getAttribute("y"))]
-							= new ScatterGun();
+			r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+					Integer.parseInt(ielement.getAttribute("y")), new ScatterGun());
 			break;
-		case LTSAGun:roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-				[Integer.parseInt(ielement.getAttribute("y"))]
-						= new LTSAGun();
+		case LTSAGun:r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+					Integer.parseInt(ielement.getAttribute("y")), new LTSAGun());
 			break;
 		case Pistol:
-			roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-					[Integer.parseInt(ielement.getAttribute("y"))]
-							= new Pistol();
+			r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+					Integer.parseInt(ielement.getAttribute("y")), new Pistol());
 			break;
 		}
 	}
@@ -330,82 +348,71 @@ public class LoadManager {
 			if(inode.getNodeType() == Node.ELEMENT_NODE
 					&& inode.getNodeName() == "Item"){
 				Element ielement = (Element) inode;	//item element
-				Item[][] roomContents = r.getContents();	//load room contents to modify
 				
 				switch(Type.valueOf(ielement.getAttribute("type"))){
 				case KeyCard:
 					
 					//load item into room at correct position
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))]
-							= new KeyCard();
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new KeyCard());
 					break;
 				case Diamond:
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))] = 
-					new SmallTreasure(ielement.getAttribute("type"),
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new SmallTreasure(ielement.getAttribute("type"),
 							Integer.parseInt(ielement.getAttribute("points")), 
-							ielement.getAttribute("quality"));
+							ielement.getAttribute("quality")));
 					break;
 				case Ruby: 
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))] = 
-					new SmallTreasure(ielement.getAttribute("type"),
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new SmallTreasure(ielement.getAttribute("type"),
 							Integer.parseInt(ielement.getAttribute("points")), 
-							ielement.getAttribute("quality"));
+							ielement.getAttribute("quality")));
 					break;
 				case Emerald:
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))] = 
-					new SmallTreasure(ielement.getAttribute("type"),
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new SmallTreasure(ielement.getAttribute("type"),
 							Integer.parseInt(ielement.getAttribute("points")), 
-							(ielement.getAttribute("quality")));
+							(ielement.getAttribute("quality"))));
 					break;
 				case Sapphire:
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))] = 
-					new SmallTreasure(ielement.getAttribute("type"),
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new SmallTreasure(ielement.getAttribute("type"),
 							Integer.parseInt(ielement.getAttribute("points")), 
-							(ielement.getAttribute("quality")));
+							(ielement.getAttribute("quality"))));
 					break;
 				case Torch:
 					
 					//load item into room at correct position
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))]
-							= new Torch();
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new Torch());
 					break;
 				case MedicineBottle:
 					
 					//load item into room at correct position
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))]
-							= new MedicineBottle();
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new MedicineBottle());
 					break;
 				case PillBottle: 
 					
 					//load item into room at correct position
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))]
-							= new PillBottle();
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new PillBottle());
 					break;
 				case Map:
 					
 					//load item into room at correct position
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))]
-							= new Map();
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), new Map());
 					break;
 				//container items
 				case Pouch:
 					Pouch p = new Pouch();
-					roomContents[Integer.parseInt(ielement.getAttribute("x"))]
-							[Integer.parseInt(ielement.getAttribute("y"))]
-							= p;
+					r.setItem(Integer.parseInt(ielement.getAttribute("x")),
+							Integer.parseInt(ielement.getAttribute("y")), p);
 					loadContainerItems(p, ielement);
 					break;
 				default:	//weapon
-					loadRoomWeapons(controller, r, roomContents, ielement);
+					loadRoomWeapons(controller, r, ielement);
 					break;
 				}
 			}
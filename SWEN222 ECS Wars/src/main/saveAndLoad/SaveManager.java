@@ -82,6 +82,7 @@ public final class SaveManager {
 			Element room = doc.createElement("Room");
 			root.appendChild(room);
 			room.setAttribute("id", r.getName());
+			room.setAttribute("roomId", Integer.toString(r.getId()));
 			
 			//Write players in room
 			savePlayers(room, r);
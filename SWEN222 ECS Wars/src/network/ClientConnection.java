@@ -66,6 +66,7 @@ public class ClientConnection extends Thread{
 				int user = input.readInt();
 				Player player = controller.getPlayer(user);
 				int action = input.readInt();
+				//Changes to the world are queued for the game loop to make
 				switch(action){
 				//Move
 				case 1:
@@ -73,18 +74,33 @@ public class ClientConnection extends Thread{
 					int y = input.readInt();
 					int direction = input.readInt();
 					int roomNumber = input.readInt();
-					Room newRoom = controller.getRooms().get(roomNumber);
-					player.setPosition(x, y, direction, newRoom);
+					Room newRoom = controller.getRoom(roomNumber);
+					controller.submit(new Runnable(){
+						@Override
+						public void run() {
+							player.setPosition(x, y, direction, newRoom);
+						}
+					});
 					break;
 				//Shoot
 				case 2:
 					double theta = input.readDouble();
-					player.shoot(theta);
+					controller.submit(new Runnable(){
+						@Override
+						public void run() {
+							player.shoot(theta);
+						}
+					});
 					break;
 				//Disconnect
 				case 3:
 					//Tell the server handler to remove writing to the disconnected player
-					controller.getPlayer(user).disconnect();
+					controller.submit(new Runnable(){
+						@Override
+						public void run() {
+							player.disconnect();
+						}
+					});
 					output.writeInt(3);
 					output.writeInt(user);
 					break;
@@ -101,17 +117,32 @@ public class ClientConnection extends Thread{
 					} else{
 						newWep = new ScatterGun();
 					}
-					player.setCurrentWeapon(newWep);
+					controller.submit(new Runnable(){
+						@Override
+						public void run() {
+							player.setCurrentWeapon(newWep);
+						}
+					});
 					break;
 				//Update health
 				case 5:
 					int hp = input.readInt();
-					player.setHealth(hp);
+					controller.submit(new Runnable(){
+						@Override
+						public void run() {
+							player.setHealth(hp);
+						}
+					});
 					break;
 				//Update points
 				case 6:
 					int points = input.readInt();
-					player.setPoints(points);
+					controller.submit(new Runnable(){
+						@Override
+						public void run() {
+							player.setPoints(points);
+						}
+					});
 					break;
 				}
 			}
@@ -200,7 +231,7 @@ public class ClientConnection extends Thread{
 				int x = player.getX();
 				int y = player.getY();
 				int direction = player.getFacing();
-				int roomNumber = controller.getRooms().indexOf(player.getCurrentRoom());
+				int roomNumber = player.getCurrentRoom().getId();
 				output.writeInt(1);
 				output.writeInt(x);
 				output.writeInt(y);
@@ -93,13 +93,15 @@ public class Server extends Thread{
 				playerNumbers[i] = input.readInt();
 			}
 			
-			//Send every client what every player is
+			//Send every client what every player is, and the seed for the game world
+			long seed = System.nanoTime();
 			for(int i = 0; i < clientsConnected.length; i++){
 				socket = clientsConnected[i].getSocket();
 				output = new DataOutputStream(socket.getOutputStream());
 				for(int j = 0; j<clientsConnected.length; j++){
 					output.writeInt(playerNumbers[j]);
 				}
+				output.writeLong(seed);
 			}
 			
 			while(clientsConnected(clientsConnected)){
@@ -1,6 +1,8 @@
 package tests;
 
 import static org.junit.Assert.*;
+import gameWorld.Controller;
+import gameWorld.Room;
 import gameWorld.characters.DavePlayer;
 import gameWorld.characters.Player;
 import gameWorld.gameObjects.Floor;
@@ -9,7 +11,9 @@ import gameWorld.gameObjects.SmallTreasure;
 import gameWorld.gameObjects.containers.Cabinet;
 import gameWorld.gameObjects.containers.Container;
 import gameWorld.gameObjects.weapons.LTSAGun;
+import gameWorld.gameObjects.weapons.Pistol;
 import gameWorld.gameObjects.weapons.Weapon;
+import gameWorld.ecs.CharacterStore;
 
 import org.junit.*;
 
@@ -180,4 +184,59 @@ public class CharacterTests {
 		
 		assertTrue(p.getHealth() == 0);
 	}
+	
+	@Test
+	//Test a player's state follows them between rooms' stores
+	public void testCharacterStore(){
+		Controller ctrl = new TestController(0);
+		Room first = new Room("Classroom 103", ctrl);
+		Room second = new Room("Classroom 102", ctrl);
+		Player p = new DavePlayer(null, 48, 48);
+		Player q = new DavePlayer(null, 72, 48);
+		p.modifyHealth(-30, null);
+		p.setFacing(1);
+		first.addPlayer(p);
+		first.addPlayer(q);
+		
+		CharacterStore store = first.getCharacterStore();
+		assertEquals(2, store.size());
+		assertSame(p, store.getCharacter(0));
+		assertEquals(48, store.getX(0));
+		assertEquals(Player.HEALTH_MAX-30, store.getHealth(0));
+		
+		// moving rooms takes the state along, and the old slot is given up
+		p.setCurrentRoom(second, 96, 96);
+		assertEquals(96, p.getX());
+		assertEquals(Player.HEALTH_MAX-30, p.getHealth());
+		assertEquals(1, p.getGlobalDir());
+		assertSame(p, second.getCharacterStore().getCharacter(0));
+		first.update();
+		assertEquals(1, store.size());
+		assertSame(q, store.getCharacter(0));
+		assertEquals(72, q.getX());
+		
+		// and leaving a room keeps it too
+		second.removePlayer(p);
+		p.modifyHealth(10, null);
+		assertEquals(Player.HEALTH_MAX-20, p.getHealth());
+	}
+	
+	@Test
+	//Check a weapon held by a player between rooms can't fire, rather than failing to find the game's clock
+	public void testFireWithoutRoom(){
+		Controller ctrl = new TestController(0);
+		Room room = new Room("Classroom 103", ctrl);
+		TestPistol w = new TestPistol();
+		assertFalse(w.isReady(new DavePlayer(null, 48, 48)));
+		assertTrue(w.isReady(new DavePlayer(room, 48, 48)));
+	}
+	
+	/**
+	 * A pistol which lets tests see whether it could fire.
+	 */
+	private static class TestPistol extends Pistol {
+		boolean isReady(Player p){
+			return canFire(p);
+		}
+	}
 }
@@ -0,0 +1,193 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import gameWorld.gameEvents.Cooldown;
+import gameWorld.gameEvents.Event;
+import gameWorld.gameEvents.GameClock;
+import gameWorld.gameEvents.TimingWheel.Timeout;
+
+/**
+ * A test class to verify the timing of events on the GameClock.
+ * @author Carl Anderson 300264124
+ *
+ */
+public class GameClockTests {
+
+	@Test
+	/**
+	 * Tests that a delayed event fires on the tick it is due, and no sooner.
+	 */
+	public void testDelayedEventFiresOnTime(){
+		GameClock clock = new GameClock();
+		List<String> fired = new ArrayList<>();
+		clock.scheduleEvent(new RecordingEvent("a", fired), 1000);
+
+		long due = GameClock.msToTicks(1000);
+		advance(clock, due-1);
+		assertTrue(fired.isEmpty());
+		advance(clock, 1);
+		assertEquals(1, fired.size());
+	}
+
+	@Test
+	/**
+	 * Tests events far enough away to be cascaded down from the
+	 * coarser wheels still fire on exactly the right tick.
+	 */
+	public void testLongDelaysFireOnTime(){
+		GameClock clock = new GameClock();
+		List<String> fired = new ArrayList<>();
+		int[] delays = {5000, 80000, 4500000};
+		for (int delay : delays){
+			clock.scheduleEvent(new RecordingEvent(""+delay, fired), delay);
+		}
+
+		long done = 0;
+		for (int delay : delays){
+			long due = GameClock.msToTicks(delay);
+			advance(clock, due-1-done);
+			assertFalse(fired.contains(""+delay));
+			advance(clock, 1);
+			assertTrue(fired.contains(""+delay));
+			done = due;
+		}
+	}
+
+	@Test
+	/**
+	 * Tests that events due on the same tick fire in the order they
+	 * were scheduled.
+	 */
+	public void testSameTickOrder(){
+		GameClock clock = new GameClock();
+		List<String> fired = new ArrayList<>();
+		clock.scheduleEvent(new RecordingEvent("a", fired), 3000);
+		clock.scheduleEvent(new RecordingEvent("b", fired), 3000);
+		clock.scheduleEvent(new RecordingEvent("c", fired), 3000);
+
+		advance(clock, GameClock.msToTicks(3000));
+		assertEquals("[a, b, c]", fired.toString());
+	}
+
+	@Test
+	/**
+	 * Tests that an event cascaded down from a coarser wheel still fires
+	 * before a later-scheduled event due on the same tick.
+	 */
+	public void testSameTickOrderAfterCascade(){
+		GameClock clock = new GameClock();
+		List<String> fired = new ArrayList<>();
+		clock.scheduleEvent(new RecordingEvent("long", fired), 2000);
+		advance(clock, GameClock.msToTicks(1000));
+		clock.scheduleEvent(new RecordingEvent("short", fired), 1000);
+
+		advance(clock, GameClock.msToTicks(1000));
+		assertEquals("[long, short]", fired.toString());
+	}
+
+	@Test
+	/**
+	 * Tests that a cancelled event never fires.
+	 */
+	public void testCancel(){
+		GameClock clock = new GameClock();
+		List<String> fired = new ArrayList<>();
+		Timeout a = clock.scheduleEvent(new RecordingEvent("a", fired), 2000);
+		clock.scheduleEvent(new RecordingEvent("b", fired), 2000);
+
+		assertTrue(a.cancel());
+		assertFalse(a.cancel());
+		advance(clock, GameClock.msToTicks(2000));
+		assertEquals("[b]", fired.toString());
+	}
+
+	@Test
+	/**
+	 * Tests that two games' clocks do not share any state.
+	 */
+	public void testIndependentClocks(){
+		GameClock first = new GameClock();
+		GameClock second = new GameClock();
+		List<String> fired = new ArrayList<>();
+		first.scheduleEvent(new RecordingEvent("first", fired), 500);
+
+		advance(second, GameClock.msToTicks(500));
+		assertTrue(fired.isEmpty());
+		assertEquals(0, first.getTick());
+		advance(first, GameClock.msToTicks(500));
+		assertEquals("[first]", fired.toString());
+	}
+
+	@Test
+	/**
+	 * Tests that timed events are notified once per clock tick.
+	 */
+	public void testTimedEventNotified(){
+		GameClock clock = new GameClock();
+		List<String> fired = new ArrayList<>();
+		clock.scheduleEvent(new RecordingEvent("tick", fired));
+
+		advance(clock, GameClock.msToTicks(GameClock.CLOCK_TICK*3));
+		assertEquals(3, fired.size());
+		assertEquals(3, clock.getTime());
+	}
+
+	@Test
+	/**
+	 * Tests that a cooldown is ready again exactly when its ticks have run out.
+	 */
+	public void testCooldown(){
+		GameClock clock = new GameClock();
+		Cooldown cooldown = new Cooldown();
+		assertTrue(cooldown.isReady(clock));
+
+		cooldown.start(clock, 10);
+		advance(clock, 9);
+		assertFalse(cooldown.isReady(clock));
+		advance(clock, 1);
+		assertTrue(cooldown.isReady(clock));
+	}
+
+	/**
+	 * Advances the clock by the given number of ticks.
+	 */
+	private void advance(GameClock clock, long ticks){
+		for (long i = 0; i < ticks; i++){
+			clock.advance();
+		}
+	}
+
+	/**
+	 * An event which records its name each time it runs.
+	 */
+	private static class RecordingEvent implements Event {
+		private String name;
+		private List<String> fired;
+
+		public RecordingEvent(String name, List<String> fired){
+			this.name = name;
+			this.fired = fired;
+		}
+
+		@Override
+		public void notify(int time) {
+			fired.add(name);
+		}
+
+		@Override
+		public void activate() {
+			fired.add(name);
+		}
+
+		@Override
+		public boolean isComplete() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import gameWorld.HeadlessController;
+import gameWorld.characters.DavePlayer;
+import gameWorld.characters.Player;
+import gameWorld.characters.StreaderPlayer;
+
+/**
+ * Tests that games given the same seed and the same inputs
+ * simulate identically.
+ * @author Carl Anderson 300264124
+ *
+ */
+public class LockstepTests {
+	private static final int TICKS = 600;
+
+	@Test
+	/**
+	 * Tests that two games with the same seed and inputs have the
+	 * same world hash on every tick.
+	 */
+	public void testSameSeedSameHashes(){
+		HeadlessController first = newGame(1234, false);
+		HeadlessController second = newGame(1234, false);
+		Random firstInput = new Random(5);
+		Random secondInput = new Random(5);
+
+		for (int i = 0; i < TICKS; i++){
+			play(first, firstInput);
+			play(second, secondInput);
+			assertEquals(first.getWorldHash(first.getTick()), second.getWorldHash(second.getTick()));
+		}
+	}
+
+	@Test
+	/**
+	 * Tests that updating rooms in parallel gives the same result
+	 * as updating them one at a time.
+	 */
+	public void testParallelMatchesSequential(){
+		HeadlessController sequential = newGame(99, false);
+		HeadlessController parallel = newGame(99, true);
+		Random sequentialInput = new Random(8);
+		Random parallelInput = new Random(8);
+
+		for (int i = 0; i < TICKS; i++){
+			play(sequential, sequentialInput);
+			play(parallel, parallelInput);
+		}
+		assertEquals(sequential.worldHash(), parallel.worldHash());
+	}
+
+	@Test
+	/**
+	 * Tests that the world hash notices a difference between two games.
+	 */
+	public void testDesyncDetected(){
+		HeadlessController first = newGame(1234, false);
+		HeadlessController second = newGame(1234, false);
+		second.getPlayer(1).setHealth(1);
+		first.runTicks(1);
+		second.runTicks(1);
+		assertTrue(first.getWorldHash(1) != second.getWorldHash(1));
+	}
+
+	/**
+	 * Creates a deterministic headless game with two players.
+	 */
+	private HeadlessController newGame(long seed, boolean parallel){
+		List<Player> players = new ArrayList<>();
+		players.add(new DavePlayer(null, 0, 0));
+		players.add(new StreaderPlayer(null, 0, 0));
+		HeadlessController ctrl = new HeadlessController(players, 0);
+		ctrl.setSeed(seed);
+		ctrl.setDeterministic(true);
+		ctrl.setParallelRooms(parallel);
+		ctrl.initialise();
+		return ctrl;
+	}
+
+	/**
+	 * Feeds each player a scripted input, then runs a tick.
+	 */
+	private void play(HeadlessController ctrl, Random input){
+		for (Player p : ctrl.getPlayers()){
+			p.move(input.nextInt(4));
+			if (input.nextInt(10) == 0){
+				p.shoot(input.nextDouble()*Math.PI*2);
+			}
+		}
+		ctrl.runTicks(1);
+	}
+}
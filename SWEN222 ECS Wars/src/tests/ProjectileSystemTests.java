@@ -0,0 +1,159 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import gameWorld.Controller;
+import gameWorld.Room;
+import gameWorld.characters.DavePlayer;
+import gameWorld.characters.Player;
+import gameWorld.ecs.ProjectileStore;
+import gameWorld.ecs.ProjectileSystem;
+import gameWorld.gameObjects.weapons.projectiles.PaintBall;
+import gameWorld.gameObjects.weapons.projectiles.Projectile;
+import gameWorld.gameObjects.weapons.projectiles.RubberBullet;
+
+/**
+ * A test class to verify how ProjectileSystem moves projectiles, hits
+ * characters with them and removes them.
+ * @author Carl Anderson 300264124
+ *
+ */
+public class ProjectileSystemTests {
+
+	private static final int SQUARE_SIZE = 24;
+	private static final Controller ctrl = new TestController(0);
+	// an open row of Classroom 103, with a wall two squares right of X
+	private static final int X = 9*SQUARE_SIZE + SQUARE_SIZE/2;
+	private static final int Y = 8*SQUARE_SIZE + SQUARE_SIZE/2;
+	private static final int DAMAGE = 10;
+
+	@Test
+	/**
+	 * Tests that a projectile which doesn't bounce hits one character,
+	 * but never its owner, and is then removed.
+	 */
+	public void testHitsFirstCharacterOnly(){
+		Room room = newRoom();
+		Player owner = addPlayer(room);
+		Player first = addPlayer(room);
+		Player second = addPlayer(room);
+		room.addProjectile(new PaintBall().newInstance(owner, 0));
+
+		ProjectileSystem.update(room.getProjectileStore(), room);
+		assertEquals(Player.HEALTH_MAX, owner.getHealth());
+		assertEquals(Player.HEALTH_MAX-DAMAGE, first.getHealth());
+		assertEquals(Player.HEALTH_MAX, second.getHealth());
+		assertEquals(0, room.getProjectileStore().size());
+	}
+
+	@Test
+	/**
+	 * Tests that a projectile which reflects hits every character it is
+	 * inside, but not its owner before it has bounced.
+	 */
+	public void testReflectingHitsEveryCharacter(){
+		Room room = newRoom();
+		Player owner = addPlayer(room);
+		Player first = addPlayer(room);
+		Player second = addPlayer(room);
+		room.addProjectile(new RubberBullet().newInstance(owner, 0));
+
+		ProjectileSystem.update(room.getProjectileStore(), room);
+		assertEquals(Player.HEALTH_MAX, owner.getHealth());
+		assertEquals(Player.HEALTH_MAX-DAMAGE, first.getHealth());
+		assertEquals(Player.HEALTH_MAX-DAMAGE, second.getHealth());
+		assertEquals(0, room.getProjectileStore().size());
+	}
+
+	@Test
+	/**
+	 * Tests that a projectile which can hit its owner does so once it
+	 * has bounced back off a wall.
+	 */
+	public void testHitsOwnerAfterBounce(){
+		Room room = newRoom();
+		assertTrue(room.canWalk(X+SQUARE_SIZE, Y));
+		assertFalse(room.canWalk(X+SQUARE_SIZE*2, Y));
+		Player owner = addPlayer(room);
+		Projectile shot = new RubberBullet().newInstance(owner, 0);
+		room.addProjectile(shot);
+		ProjectileStore store = room.getProjectileStore();
+
+		// it starts inside its owner, heads for the wall and comes back
+		int ticks = 0;
+		while (store.size() > 0 && ticks < 100){
+			boolean bounced = store.getBounces(0) < RubberBullet.MAX_BOUNCES;
+			ProjectileSystem.update(store, room);
+			ticks++;
+			if (!bounced){
+				assertEquals(Player.HEALTH_MAX, owner.getHealth());
+			}
+		}
+		assertEquals(Player.HEALTH_MAX-DAMAGE, owner.getHealth());
+		assertFalse(shot.isActive());
+	}
+
+	@Test
+	/**
+	 * Tests that a projectile which doesn't bounce stops at a wall.
+	 */
+	public void testStopsAtWall(){
+		Room room = newRoom();
+		Player owner = addPlayer(room);
+		Projectile shot = new PaintBall().newInstance(owner, 0);
+		room.addProjectile(shot);
+
+		for (int i = 0; i < 20; i++){
+			ProjectileSystem.update(room.getProjectileStore(), room);
+		}
+		assertEquals(0, room.getProjectileStore().size());
+		assertFalse(shot.isActive());
+		assertTrue(shot.getX() < X+SQUARE_SIZE*2);
+	}
+
+	@Test
+	/**
+	 * Tests that removing spent projectiles keeps the rest in the order
+	 * they were added, each still referring to its own slot.
+	 */
+	public void testCompactionOrder(){
+		Room room = newRoom();
+		Player owner = addPlayer(room);
+		owner.setXY(5*SQUARE_SIZE + SQUARE_SIZE/2, Y);
+		Projectile[] shots = new Projectile[4];
+		for (int i = 0; i < shots.length; i++){
+			shots[i] = new PaintBall().newInstance(owner, Math.PI/2*i);
+			room.addProjectile(shots[i]);
+		}
+		((PaintBall)shots[0]).setActive(false);
+		((PaintBall)shots[2]).setActive(false);
+
+		ProjectileStore store = room.getProjectileStore();
+		ProjectileSystem.update(store, room);
+		assertEquals(2, store.size());
+		assertSame(shots[1], store.getProjectile(0));
+		assertSame(shots[3], store.getProjectile(1));
+		assertEquals(store.getY(1) >> Projectile.FIXED_SHIFT, shots[3].getY());
+		assertTrue(shots[3].getY() < Y);
+		assertTrue(shots[1].getY() > Y);
+		assertFalse(shots[0].isActive());
+	}
+
+	/**
+	 * Creates a fresh copy of Classroom 103.
+	 */
+	private Room newRoom(){
+		return new Room("Classroom 103", ctrl);
+	}
+
+	/**
+	 * Adds a player to the room at the test position.
+	 */
+	private Player addPlayer(Room room){
+		Player p = new DavePlayer(room, X, Y);
+		room.addPlayer(p);
+		return p;
+	}
+}
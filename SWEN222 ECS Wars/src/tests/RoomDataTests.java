@@ -0,0 +1,125 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import gameWorld.RoomData;
+
+/**
+ * A test class to verify that rooms read back from their compiled
+ * files are the same as when parsed from text, and that compiled files
+ * are only used while they are up to date.
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomDataTests {
+
+	private static final File ROOMS = new File("Resources/Rooms");
+
+	@Test
+	/**
+	 * Tests that a room compiled and read back matches the room parsed
+	 * from its text file, square for square.
+	 */
+	public void testRoundTrip() throws IOException {
+		File dir = Files.createTempDirectory("rooms").toFile();
+		try {
+			File source = copy(new File(ROOMS, "Classroom 103"+RoomData.TEXT_EXTENSION), dir);
+			RoomData.compile(source);
+
+			RoomData parsed = RoomData.parse(Files.readAllBytes(source.toPath()));
+			RoomData compiled = RoomData.read(Files.readAllBytes(compiledFile(source).toPath()),
+					source.lastModified(), source.length());
+			assertNotNull(compiled);
+			assertLayoutsEqual(parsed, compiled);
+		} finally {
+			delete(dir);
+		}
+	}
+
+	@Test
+	/**
+	 * Tests that a compiled file is ignored once its text file has
+	 * changed, and matches the new text once compiled again.
+	 */
+	public void testRebuiltWhenChanged() throws IOException {
+		File dir = Files.createTempDirectory("rooms").toFile();
+		try {
+			File source = copy(new File(ROOMS, "Classroom 103"+RoomData.TEXT_EXTENSION), dir);
+			RoomData.compile(source);
+			File compiled = compiledFile(source);
+			byte[] before = Files.readAllBytes(compiled.toPath());
+
+			// give the room a new description, and put a desk in a corner
+			String text = new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8);
+			String[] lines = text.split("\r?\n");
+			String row = lines[4];
+			text = text.replace(lines[0], "A changed room").replace(row, row.substring(0, 2)+"DH"+row.substring(4));
+			Files.write(source.toPath(), text.getBytes(StandardCharsets.UTF_8));
+			source.setLastModified(source.lastModified()+2000);
+
+			assertNull(RoomData.read(before, source.lastModified(), source.length()));
+
+			RoomData.compile(source);
+			RoomData data = RoomData.read(Files.readAllBytes(compiled.toPath()),
+					source.lastModified(), source.length());
+			assertNotNull(data);
+			assertEquals("A changed room", data.getDescription());
+			assertEquals("DH", data.getCode(1, 1));
+			assertLayoutsEqual(RoomData.parse(Files.readAllBytes(source.toPath())), data);
+		} finally {
+			delete(dir);
+		}
+	}
+
+	/**
+	 * Checks that two layouts have the same description, size and codes.
+	 */
+	private void assertLayoutsEqual(RoomData expected, RoomData actual){
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getCols(), actual.getCols());
+		assertEquals(expected.getRows(), actual.getRows());
+		for (int r = 0; r < expected.getRows(); r++){
+			for (int c = 0; c < expected.getCols(); c++){
+				assertEquals(expected.getCode(c, r), actual.getCode(c, r));
+			}
+		}
+	}
+
+	/**
+	 * Copies a file into a directory.
+	 */
+	private File copy(File file, File dir) throws IOException {
+		File to = new File(dir, file.getName());
+		Files.copy(file.toPath(), to.toPath());
+		return to;
+	}
+
+	/**
+	 * Gets the compiled file RoomData writes beside a text file.
+	 */
+	private File compiledFile(File source){
+		String name = source.getName();
+		name = name.substring(0, name.length()-RoomData.TEXT_EXTENSION.length());
+		return new File(source.getParentFile(), name+RoomData.COMPILED_EXTENSION);
+	}
+
+	/**
+	 * Deletes a directory and the files in it.
+	 */
+	private void delete(File dir){
+		File[] files = dir.listFiles();
+		if (files != null){
+			for (File f : files){
+				f.delete();
+			}
+		}
+		dir.delete();
+	}
+}
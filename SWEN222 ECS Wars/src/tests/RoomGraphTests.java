@@ -0,0 +1,142 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import gameWorld.Controller;
+import gameWorld.Room;
+import gameWorld.RoomGraph;
+import gameWorld.characters.DavePlayer;
+import gameWorld.characters.Player;
+import gameWorld.gameObjects.Door;
+import gameWorld.gameObjects.KeyCard;
+
+/**
+ * A test class to verify the routes RoomGraph finds between rooms.
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomGraphTests {
+
+	private static final int SQUARE_SIZE = 24;
+	// the middle of an open square in Classroom 103
+	private static final int X = 5*SQUARE_SIZE + SQUARE_SIZE/2;
+	private static final int Y = 8*SQUARE_SIZE + SQUARE_SIZE/2;
+	// the column of the only door out of Classroom 103, on its right wall
+	private static final int DOOR_COL = 11;
+
+	@Test
+	/**
+	 * Tests that following the next move square by square gets one
+	 * square closer each time, and ends in the door.
+	 */
+	public void testDistanceField(){
+		Controller ctrl = newGame();
+		RoomGraph graph = ctrl.getRoomGraph();
+		Room room = ctrl.getRoom("Classroom 103");
+		Room hallway = ctrl.getRoom("SW Hallway");
+
+		int x = X;
+		int y = Y;
+		int dist = graph.distance(room, x, y, hallway);
+		assertTrue(dist > DOOR_COL-5);
+		while (dist > 1){
+			int dir = graph.nextMove(room, x, y, hallway);
+			assertTrue(dir >= 0);
+			x += dir == 1 ? SQUARE_SIZE : dir == 3 ? -SQUARE_SIZE : 0;
+			y += dir == 2 ? SQUARE_SIZE : dir == 0 ? -SQUARE_SIZE : 0;
+			assertTrue(room.canWalk(x, y));
+			assertEquals(dist-1, graph.distance(room, x, y, hallway));
+			dist--;
+		}
+		assertEquals(DOOR_COL, room.colFromX(x));
+		assertEquals(Room.TILE_DOOR, room.tileAt(x, y));
+		// standing in the door, keep walking out through it
+		assertEquals(1, graph.nextMove(room, x, y, hallway));
+		assertEquals(0, graph.distance(room, x, y, room));
+	}
+
+	@Test
+	/**
+	 * Tests routes which pass through several rooms: each room along the
+	 * way is nearer than the rooms beyond it, and every route out of a
+	 * room with one door starts the same way.
+	 */
+	public void testRouteThroughRooms(){
+		Controller ctrl = newGame();
+		RoomGraph graph = ctrl.getRoomGraph();
+		Room room = ctrl.getRoom("Classroom 103");
+		Room hallway = ctrl.getRoom("SW Hallway");
+		Room courtyard = ctrl.getRoom("Courtyard");
+		Room shed = ctrl.getRoom("Courtyard Shed");
+
+		int toHallway = graph.distance(room, X, Y, hallway);
+		int toCourtyard = graph.distance(room, X, Y, courtyard);
+		int toShed = graph.distance(room, X, Y, shed);
+		assertTrue(toHallway > 0);
+		assertTrue(toCourtyard > toHallway);
+		assertTrue(toShed > toCourtyard);
+
+		int dir = graph.nextMove(room, X, Y, hallway);
+		assertEquals(dir, graph.nextMove(room, X, Y, courtyard));
+		assertEquals(dir, graph.nextMove(room, X, Y, shed));
+
+		// the Server Room is behind a locked door
+		Room server = ctrl.getRoom("Server Room");
+		assertEquals(-1, graph.distance(room, X, Y, server));
+		assertEquals(-1, graph.nextMove(room, X, Y, server));
+	}
+
+	@Test
+	/**
+	 * Tests that unlocking a door opens a route once the graph is
+	 * refreshed, and locking it again closes the route.
+	 */
+	public void testLockedDoor(){
+		Controller ctrl = newGame();
+		RoomGraph graph = ctrl.getRoomGraph();
+		Room room = ctrl.getRoom("Classroom 103");
+		Room server = ctrl.getRoom("Server Room");
+		Door door = null;
+		for (Door d : ctrl.getDoors()){
+			if (d.getRoom2() == server || d.getRoom1() == server){
+				door = d;
+			}
+		}
+		assertNotNull(door);
+		assertFalse(door.canWalk());
+		assertEquals(-1, graph.distance(room, X, Y, server));
+
+		// unlock the door with a key card
+		Room hallway = door.getRoom1();
+		Player p = new DavePlayer(hallway, door.getRoom1Col()*SQUARE_SIZE + SQUARE_SIZE/2,
+				door.getRoom1Row()*SQUARE_SIZE + SQUARE_SIZE/2);
+		hallway.addPlayer(p);
+		assertTrue(p.pickUp(new KeyCard()));
+		door.use(p, ctrl);
+		assertTrue(door.canWalk());
+		assertEquals(-1, graph.distance(room, X, Y, server)); // not until the graph is refreshed
+		graph.refresh();
+		int dist = graph.distance(room, X, Y, server);
+		assertTrue(dist > 0);
+		assertTrue(graph.nextMove(room, X, Y, server) >= 0);
+
+		// walking through locks it behind the player
+		door.walkThrough(p);
+		assertSame(server, p.getCurrentRoom());
+		assertFalse(door.canWalk());
+		graph.refresh();
+		assertEquals(-1, graph.distance(room, X, Y, server));
+		assertEquals(-1, graph.nextMove(room, X, Y, server));
+	}
+
+	/**
+	 * Creates a game with every room and door, but no players.
+	 */
+	private Controller newGame(){
+		Controller ctrl = new TestController(0);
+		ctrl.initialise();
+		return ctrl;
+	}
+}
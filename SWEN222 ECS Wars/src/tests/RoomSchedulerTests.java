@@ -0,0 +1,187 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import gameWorld.Controller;
+import gameWorld.Room;
+import gameWorld.RoomScheduler;
+import gameWorld.characters.DavePlayer;
+import gameWorld.characters.Player;
+import gameWorld.gameEvents.GameClock;
+import gameWorld.gameObjects.Door;
+
+/**
+ * A test class to verify which rooms the RoomScheduler updates, and
+ * how far each update of a dormant room goes.
+ * @author Carl Anderson 300264124
+ *
+ */
+public class RoomSchedulerTests {
+
+	private static final Controller ctrl = new TestController(0);
+
+	@Test
+	/**
+	 * Tests that rooms are hot, warm or cold by how far they are from a
+	 * player, and move between tiers as the player moves.
+	 */
+	public void testTiers(){
+		GameClock clock = new GameClock();
+		List<Room> rooms = chain(new ArrayList<Long>());
+		RoomScheduler scheduler = new RoomScheduler(rooms, doors(rooms), clock);
+		Player p = new DavePlayer(rooms.get(0), 48, 48);
+
+		run(scheduler, clock, 1);
+		assertEquals(RoomScheduler.COLD, scheduler.getTier(rooms.get(0)));
+
+		rooms.get(0).addPlayer(p);
+		List<Room> due = scheduler.schedule(clock.getTick()+1);
+		assertTrue(due.contains(rooms.get(0)));
+		assertTrue(due.contains(rooms.get(1)));
+		assertEquals(RoomScheduler.HOT, scheduler.getTier(rooms.get(0)));
+		assertEquals(RoomScheduler.WARM, scheduler.getTier(rooms.get(1)));
+		assertEquals(RoomScheduler.COLD, scheduler.getTier(rooms.get(2)));
+		clock.advance();
+
+		// the player moves along to the middle room
+		rooms.get(0).removePlayer(p);
+		rooms.get(1).addPlayer(p);
+		run(scheduler, clock, 1);
+		assertEquals(RoomScheduler.WARM, scheduler.getTier(rooms.get(0)));
+		assertEquals(RoomScheduler.HOT, scheduler.getTier(rooms.get(1)));
+		assertEquals(RoomScheduler.WARM, scheduler.getTier(rooms.get(2)));
+	}
+
+	@Test
+	/**
+	 * Tests that each update of a room covers every tick since its last
+	 * one, so dormant rooms keep pace, and a woken room is brought up to
+	 * date in a single update.
+	 */
+	public void testElapsedTicks(){
+		GameClock clock = new GameClock();
+		List<Long> covered = new ArrayList<>();
+		List<Room> rooms = chain(covered);
+		RoomScheduler scheduler = new RoomScheduler(rooms, doors(rooms), clock);
+		Player p = new DavePlayer(rooms.get(0), 48, 48);
+		rooms.get(0).addPlayer(p);
+
+		// the middle room is warm for 21 ticks, and updated on ticks 1 and 3, 7, ... 19
+		run(scheduler, clock, 21);
+		assertEquals(21, (long)covered.get(0));
+		assertEquals(19, (long)covered.get(1));
+		assertEquals(0, (long)covered.get(2));
+
+		// the player moves along; the middle and last rooms wake up together
+		rooms.get(0).removePlayer(p);
+		rooms.get(1).addPlayer(p);
+		List<Room> due = scheduler.schedule(clock.getTick()+1);
+		assertEquals(2, due.size());
+		for (Room r : due){
+			r.update();
+		}
+		clock.advance();
+		assertEquals(22, (long)covered.get(1));
+		assertEquals(22, (long)covered.get(2));
+
+		// from then on each room is never more than one period behind
+		run(scheduler, clock, 100);
+		assertEquals(clock.getTick(), (long)covered.get(1));
+		assertTrue(clock.getTick()-covered.get(0) < RoomScheduler.WARM_PERIOD);
+		assertTrue(clock.getTick()-covered.get(2) < RoomScheduler.WARM_PERIOD);
+	}
+
+	@Test
+	/**
+	 * Tests that a character in a room updated every few ticks walks a
+	 * step for each tick its room's update covers.
+	 */
+	public void testDormantMovement(){
+		GameClock clock = new GameClock();
+		List<Room> rooms = new ArrayList<>();
+		for (String name : new String[]{"SE Hallway", "Classroom 103", "Classroom 102"}){
+			rooms.add(new Room(name, ctrl));
+		}
+		RoomScheduler scheduler = new RoomScheduler(rooms, doors(rooms), clock);
+		rooms.get(0).addPlayer(new DavePlayer(rooms.get(0), 48, 48));
+
+		// wait for a whole warm period to pass
+		Room warm = rooms.get(1);
+		for (int i = 0; i < 10; i++){
+			List<Room> due = scheduler.schedule(clock.getTick()+1);
+			clock.advance();
+			if (due.contains(warm) && warm.getUpdateTicks() == RoomScheduler.WARM_PERIOD){break;}
+		}
+		assertEquals(RoomScheduler.WARM_PERIOD, warm.getUpdateTicks());
+
+		// the middle of an open square in Classroom 103
+		int x = 5*24 + 12;
+		int y = 8*24 + 12;
+		Player p = new DavePlayer(warm, x, y);
+		warm.addPlayer(p);
+		p.move(1);
+
+		Room hot = new Room("Classroom 103", ctrl);
+		Player q = new DavePlayer(hot, x, y);
+		hot.addPlayer(q);
+		q.move(1);
+
+		assertEquals(1, hot.getUpdateTicks());
+		assertTrue(q.getX() > x);
+		assertEquals((q.getX()-x)*RoomScheduler.WARM_PERIOD, p.getX()-x);
+		assertEquals(y, p.getY());
+	}
+
+	/**
+	 * Runs the scheduler for the given number of ticks, the way the
+	 * game loop does.
+	 */
+	private void run(RoomScheduler scheduler, GameClock clock, int ticks){
+		for (int i = 0; i < ticks; i++){
+			List<Room> due = scheduler.schedule(clock.getTick()+1);
+			for (int j = 0; j < due.size(); j++){
+				due.get(j).update();
+			}
+			clock.advance();
+		}
+	}
+
+	/**
+	 * Creates three rooms, which add up the ticks their updates cover
+	 * instead of updating.
+	 */
+	private List<Room> chain(List<Long> covered){
+		List<Room> rooms = new ArrayList<>();
+		for (String name : new String[]{"Classroom 103", "SE Hallway", "Classroom 102"}){
+			final int index = rooms.size();
+			covered.add(0L);
+			rooms.add(new Room(name, ctrl){
+				@Override
+				public void update(){
+					covered.set(index, covered.get(index)+getUpdateTicks());
+				}
+			});
+		}
+		return rooms;
+	}
+
+	/**
+	 * Joins the rooms in a line with doors.
+	 */
+	private Set<Door> doors(List<Room> rooms){
+		Set<Door> doors = new HashSet<>();
+		for (int i = 0; i+1 < rooms.size(); i++){
+			Door d = new Door("1"+i, rooms.get(i), 0, 0);
+			d.addRoom2(rooms.get(i+1), 0, 0);
+			doors.add(d);
+		}
+		return doors;
+	}
+}
@@ -12,6 +12,8 @@ import gameWorld.characters.Player;
 import gameWorld.characters.nonplayer.NonPlayer;
 import gameWorld.characters.nonplayer.strategy.WanderingStrategy;
 import gameWorld.gameObjects.Desk;
+import gameWorld.gameObjects.Door;
+import gameWorld.gameObjects.Item;
 import gameWorld.gameObjects.Wall;
 import gameWorld.gameObjects.weapons.projectiles.LtsaBullet;
 import gameWorld.gameObjects.weapons.projectiles.Projectile;
@@ -215,4 +217,164 @@ public class RoomTests {
 		assertTrue(room.itemAt(SQUARE_SIZE*2,
 				SQUARE_SIZE*3) instanceof Desk);
 	}
+	
+	@Test
+	/**
+	 * Tests that the tile grid agrees with the items in the room
+	 */
+	public void testTileGrid(){
+		Room room = seHallway;
+		for (int c = 0; c < room.getCols(); c++){
+			for (int r = 0; r < room.getRows(); r++){
+				int x = c*SQUARE_SIZE + SQUARE_SIZE/2;
+				int y = r*SQUARE_SIZE + SQUARE_SIZE/2;
+				Item item = room.itemAt(x, y);
+				assertEquals(item.canWalk(), room.canWalk(x, y));
+				assertEquals(!item.canWalk(), room.blocksProjectile(x, y));
+				assertEquals(item instanceof Door, room.tileAt(x, y) == Room.TILE_DOOR);
+			}
+		}
+		// out of bounds positions use the nearest square
+		assertEquals(room.canWalk(0, 0), room.canWalk(-SQUARE_SIZE, -SQUARE_SIZE));
+	}
+	
+	@Test
+	/**
+	 * Tests that replacing an item keeps every rotated view the same as
+	 * rotating the whole room
+	 */
+	public void testSetItemViews(){
+		Room room = new Room("SE Hallway", ctrl);
+		assertTrue(room.getCols() != room.getRows());
+		int cols = room.getCols();
+		int rows = room.getRows();
+		// the corners, the edges and a square in the middle
+		int[][] squares = {{0, 0}, {cols-1, 0}, {0, rows-1}, {cols-1, rows-1},
+				{1, rows-2}, {cols/2, 0}, {cols/2, rows/3}};
+		for (int[] square : squares){
+			room.setItem(square[0], square[1], new Desk(true));
+		}
+
+		Item[][] contents = room.getContents();
+		Item[][][] expected = {contents, Room.rotatedArrayClockwise(contents),
+				Room.rotatedArray180(contents), Room.rotatedArrayAntiClockwise(contents)};
+		for (int dir = 0; dir < 4; dir++){
+			ChunkedView view = room.getView(dir);
+			assertEquals(expected[dir].length, view.getCols());
+			assertEquals(expected[dir][0].length, view.getRows());
+			for (int c = 0; c < view.getCols(); c++){
+				for (int r = 0; r < view.getRows(); r++){
+					assertSame(expected[dir][c][r], view.get(c, r));
+				}
+			}
+		}
+	}
+	
+	@Test
+	/**
+	 * Tests that changes to an entity list are held back while it is
+	 * deferring, then made in the order they were asked for
+	 */
+	public void testEntityListDeferral(){
+		EntityList<String> list = new EntityList<>();
+		list.add("a");
+		list.add("b");
+		int version = list.getVersion();
+		
+		list.setDeferring(true);
+		assertTrue(list.add("c"));
+		assertTrue(list.remove("a"));
+		assertFalse(list.remove("x"));
+		list.add("a"); // re-added after its removal
+		list.remove("c"); // removed again before it was ever added
+		// nothing changes until deferring stops
+		assertEquals(2, list.size());
+		assertEquals("a", list.get(0));
+		assertFalse(list.contains("c"));
+		assertEquals(version, list.getVersion());
+		
+		list.setDeferring(false);
+		assertEquals(2, list.size());
+		assertEquals("b", list.get(0));
+		assertEquals("a", list.get(1));
+		assertFalse(list.contains("c"));
+		assertTrue(list.getVersion() > version);
+		
+		// changes are made straight away again
+		list.add("d");
+		assertEquals("d", list.get(2));
+	}
+	
+	@Test
+	/**
+	 * Tests that the list of every character in a room is rebuilt when
+	 * a player or NPC arrives or leaves
+	 */
+	public void testAllCharactersRebuilt(){
+		Room room = new Room("Classroom 102", ctrl);
+		Player p = new DavePlayer(room, SQUARE_SIZE*2, SQUARE_SIZE*2);
+		NonPlayer npc = new NonPlayer(room, SQUARE_SIZE*3, SQUARE_SIZE*2, new WanderingStrategy());
+		assertTrue(room.getAllCharacters().isEmpty());
+		
+		room.addNPC(npc);
+		room.addPlayer(p);
+		Set<Player> all = room.getAllCharacters();
+		assertEquals(2, all.size());
+		// players come first
+		assertEquals(p, all.iterator().next());
+		
+		room.removeNPC(npc);
+		assertEquals(1, room.getAllCharacters().size());
+		assertFalse(room.getAllCharacters().contains(npc));
+	}
+	
+	@Test
+	/**
+	 * Tests that the spatial grid finds characters as they move
+	 */
+	public void testSpatialGrid(){
+		Room room = seHallway;
+		Player p = new DavePlayer(room, SQUARE_SIZE*2, SQUARE_SIZE*2);
+		room.addPlayer(p);
+		assertTrue(room.getGrid().query(SQUARE_SIZE*2, SQUARE_SIZE*2, 1, 1).contains(p));
+		assertEquals(p, room.getGrid().nearestPlayer(SQUARE_SIZE*4, SQUARE_SIZE*4, SQUARE_SIZE*4));
+		
+		// move far away from where the player was
+		p.setXY(SQUARE_SIZE*(room.getCols()-2), SQUARE_SIZE*(room.getRows()-2));
+		assertFalse(room.getGrid().query(SQUARE_SIZE*2, SQUARE_SIZE*2, 1, 1).contains(p));
+		assertNull(room.getGrid().nearestPlayer(SQUARE_SIZE*2, SQUARE_SIZE*2, SQUARE_SIZE));
+		
+		room.removePlayer(p);
+		assertNull(room.getGrid().nearestPlayer(SQUARE_SIZE*2, SQUARE_SIZE*2, Double.MAX_VALUE));
+	}
+	
+	@Test
+	/**
+	 * Tests that rooms are as dark as the lighting file says
+	 */
+	public void testDarkness(){
+		assertEquals(0, classroom103.getDarkness(), 0);
+		assertEquals(1, new Room("Server Room", ctrl).getDarkness(), 0);
+		// the courtyard is as dark as the night
+		ctrl.setNightAlpha(0.5f);
+		assertEquals(0.5, courtyard.getDarkness(), 0.001);
+		ctrl.setNightAlpha(0);
+		assertEquals(0, courtyard.getDarkness(), 0);
+	}
+	
+	@Test
+	/**
+	 * Tests that items and characters drawn from the same sprite file
+	 * share one image, rather than each reading their own
+	 */
+	public void testSpritesShared(){
+		Desk a = new Desk(true);
+		Desk b = new Desk(true);
+		assertSame(a.getImage(0), b.getImage(0));
+		assertSame(a.getScaledImage(0), b.getScaledImage(0));
+		
+		Player p = new DavePlayer(classroom103, SQUARE_SIZE*2, SQUARE_SIZE*2);
+		Player q = new DavePlayer(classroom102, SQUARE_SIZE*2, SQUARE_SIZE*2);
+		assertSame(p.getImage(0), q.getImage(0));
+	}
 }
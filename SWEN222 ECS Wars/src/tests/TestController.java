@@ -1,9 +1,6 @@
 package tests;
 
-import java.awt.event.KeyEvent;
-import java.awt.event.MouseEvent;
-
-import gameWorld.Controller;
+import gameWorld.HeadlessController;
 
 /**
  * A controller class that does the bare minimum to exist.
@@ -11,41 +8,10 @@ import gameWorld.Controller;
  * @author Sarah Dobie 300315033
  *
  */
-public class TestController extends Controller {
+public class TestController extends HeadlessController {
 
 	public TestController(int uid) {
 		super(uid);
-		gui = new TestFrame();
 	}
-
-	@Override
-	public void keyPressed(KeyEvent e) {}
-
-	@Override
-	public void keyReleased(KeyEvent e) {}
-
-	@Override
-	public void keyTyped(KeyEvent e) {}
-
-	@Override
-	public void mouseClicked(MouseEvent e) {}
-
-	@Override
-	public void mouseEntered(MouseEvent e) {}
-
-	@Override
-	public void mouseExited(MouseEvent e) {}
-
-	@Override
-	public void mousePressed(MouseEvent e) {}
-
-	@Override
-	public void mouseReleased(MouseEvent e) {}
-
-	@Override
-	public void mouseDragged(MouseEvent e) {}
-
-	@Override
-	public void mouseMoved(MouseEvent e) {}
 	
 }
@@ -1,17 +0,0 @@
-package tests;
-
-import gui.GUIFrame;
-
-/**
- * A GUIFrame which does not display itself.
- * Exists solely for testing purposes.
- * @author Sarah Dobie 300315033
- *
- */
-@SuppressWarnings("serial")
-public class TestFrame extends GUIFrame {
-	public TestFrame(){
-		super();
-		setVisible(false);
-	}
-}
@@ -7,6 +7,12 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	CharacterTests.class,
 	ContainerTests.class,
+	GameClockTests.class,
+	LockstepTests.class,
+	ProjectileSystemTests.class,
+	RoomDataTests.class,
+	RoomGraphTests.class,
+	RoomSchedulerTests.class,
 	RoomTests.class,
 	SaveLoadTests.class
 })